@@ -2,11 +2,19 @@ package com.ticketbroker;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.ticketbroker.config.NativeRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 public class TicketBrokerApplication {
     public static void main(String[] args) {
-        SpringApplication.run(TicketBrokerApplication.class, args);
+        SpringApplication application = new SpringApplication(TicketBrokerApplication.class);
+        // Startup steps (bean creation, Hibernate, Flyway, ...) for the startup timeline at /actuator/startup
+        application.setApplicationStartup(new BufferingApplicationStartup(8192));
+        application.run(args);
     }
 }
 
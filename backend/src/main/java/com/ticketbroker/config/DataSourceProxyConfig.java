@@ -0,0 +1,40 @@
+package com.ticketbroker.config;
+
+import com.ticketbroker.logging.StatementListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the DataSource so every statement and ResultSet row passes through StatementListener.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.jdbc-stats.enabled", havingValue = "true")
+public class DataSourceProxyConfig {
+
+    // Static so the post-processor is registered before the DataSource it wraps is created
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<StatementListener> statementListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    StatementListener listener = statementListener.getObject();
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(listener)
+                            .methodListener(listener)
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
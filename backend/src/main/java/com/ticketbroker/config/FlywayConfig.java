@@ -0,0 +1,24 @@
+package com.ticketbroker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class FlywayConfig {
+
+    /**
+     * Migrates on startup, except in the class data sharing training run of the Docker build
+     * (spring.context.exit=onRefresh), which has no database. An AOT build fixes spring.flyway.enabled at build
+     * time, so the training run cannot switch Flyway off with a property.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${spring.context.exit:}") String contextExit) {
+        return flyway -> {
+            if (!"onRefresh".equals(contextExit)) {
+                flyway.migrate();
+            }
+        };
+    }
+}
@@ -0,0 +1,26 @@
+package com.ticketbroker.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class MetricsConfig {
+
+    // Makes @Timed work on service and controller methods (Spring Boot only times HTTP requests itself)
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    // The seat-hold tick and the sweeps run every second or so; daemon threads never keep a JVM alive after
+    // the context is closed (spring.task.scheduling.shutdown lets a running tick finish first)
+    @Bean
+    public ThreadPoolTaskSchedulerCustomizer daemonSchedulerThreads() {
+        return scheduler -> scheduler.setDaemon(true);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ticketbroker.config;
+
+import com.ticketbroker.dto.BookingResponse;
+import com.ticketbroker.dto.DoorEntryEvent;
+import com.ticketbroker.dto.ShowResponse;
+import com.ticketbroker.dto.ShowSummary;
+import com.ticketbroker.model.AuditLog;
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.model.BookingStatus;
+import com.ticketbroker.model.BookingStatusConverter;
+import com.ticketbroker.model.Buyer;
+import com.ticketbroker.model.SeatHold;
+import com.ticketbroker.model.Settings;
+import com.ticketbroker.model.Show;
+import com.ticketbroker.model.Ticket;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile) that Spring AOT cannot
+ * derive on its own. Anything missing here shows up as a failing step of NativeSmokeTest against the native
+ * binary; README.md describes how to collect it with the tracing agent.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+    private static final List<Class<?>> ENTITIES = List.of(Show.class, Booking.class, Ticket.class, Buyer.class,
+            Settings.class, SeatHold.class, AuditLog.class, BookingStatus.class, BookingStatusConverter.class);
+
+    // Serialized with an ObjectMapper or SseEmitter rather than returned from a controller method
+    private static final List<Class<?>> JSON_TYPES = List.of(ShowSummary.class, ShowResponse.class,
+            BookingResponse.class, DoorEntryEvent.class);
+
+    // Instantiated and configured by name from logback-spring.xml
+    private static final List<String> LOGBACK_TYPES = List.of(
+            "ch.qos.logback.classic.encoder.PatternLayoutEncoder",
+            "ch.qos.logback.classic.filter.ThresholdFilter",
+            "ch.qos.logback.core.ConsoleAppender",
+            "ch.qos.logback.core.rolling.RollingFileAppender",
+            "ch.qos.logback.core.rolling.SizeAndTimeBasedRollingPolicy");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> entity : ENTITIES) {
+            hints.reflection().registerType(entity, MemberCategory.values());
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                JSON_TYPES.toArray(Class<?>[]::new));
+        for (String type : LOGBACK_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // Standard 14 font metrics, glyph lists and the bundled fallback font
+        hints.resources().registerPattern("org/apache/pdfbox/resources/**");
+        // Compiled OOXML schemas that XMLBeans loads when POI writes an .xlsx
+        hints.resources().registerPattern("org/apache/poi/schemas/ooxml/**");
+    }
+}
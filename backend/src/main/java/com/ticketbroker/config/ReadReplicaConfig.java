@@ -0,0 +1,74 @@
+package com.ticketbroker.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Replaces the auto-configured DataSource with a primary and a read replica pool behind ReadReplicaRouter.
+ * The pools are deliberately not beans, so the statement statistics proxy wraps only the DataSource the
+ * application uses and every statement is counted once. Instead their settings come from a HikariConfig bean
+ * bound to spring.datasource.hikari.*, so pool tuning keeps working when the replica is enabled. Both pools
+ * report hikaricp.* metrics tagged with pool=primary or pool=replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariConfig primaryPoolConfig(DataSourceProperties properties) {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(properties.determineUrl());
+        config.setUsername(properties.determineUsername());
+        config.setPassword(properties.determinePassword());
+        config.setDriverClassName(properties.determineDriverClassName());
+        return config;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicaRouter readReplicaRouter(HikariConfig primaryPoolConfig, MeterRegistry meterRegistry,
+            @Value("${app.datasource.replica.url}") String replicaUrl,
+            @Value("${app.datasource.replica.username}") String replicaUsername,
+            @Value("${app.datasource.replica.password}") String replicaPassword,
+            @Value("${app.datasource.replica.maximum-pool-size:10}") int replicaPoolSize,
+            @Value("${app.datasource.replica.max-lag-seconds:5}") double maxLagSeconds) {
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+
+        // The replica starts from the same timeouts and tuning as the primary
+        HikariConfig replicaConfig = new HikariConfig();
+        primaryPoolConfig.copyStateTo(replicaConfig);
+        replicaConfig.setPoolName("replica");
+        replicaConfig.setJdbcUrl(replicaUrl);
+        replicaConfig.setUsername(replicaUsername);
+        replicaConfig.setPassword(replicaPassword);
+        replicaConfig.setMaximumPoolSize(replicaPoolSize);
+        // A write that slips through on a replica connection fails instead of going to the wrong server
+        replicaConfig.setReadOnly(true);
+        replicaConfig.setMetricsTrackerFactory(metrics);
+
+        primaryPoolConfig.setPoolName("primary");
+        primaryPoolConfig.setMetricsTrackerFactory(metrics);
+
+        return new ReadReplicaRouter(new HikariDataSource(primaryPoolConfig), new HikariDataSource(replicaConfig),
+                maxLagSeconds, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRouter readReplicaRouter) {
+        // Defers the physical connection to the first statement, after the transaction is marked read-only
+        return new LazyConnectionDataSourceProxy(readReplicaRouter.getRoutingDataSource());
+    }
+}
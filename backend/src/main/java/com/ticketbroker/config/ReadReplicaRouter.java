@@ -0,0 +1,164 @@
+package com.ticketbroker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Owns the primary and replica pools and decides where each new connection comes from. Read-only transactions
+ * declared in application code (@Transactional(readOnly = true) on a com.ticketbroker method) go to the replica
+ * while its last lag check succeeded and was within the staleness budget. Everything else goes to the primary,
+ * including read-only work while the replica is stale or unreachable, and the default read-only transactions
+ * Spring Data opens for a repository call made outside a service transaction: those are usually a lookup
+ * followed by a write in the same request, which needs to read its own writes.
+ *
+ * The decision is made when a connection is opened, so the DataSource must be wrapped in a
+ * LazyConnectionDataSourceProxy for the transaction's read-only flag to be known by then.
+ */
+public class ReadReplicaRouter implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRouter.class);
+    private static final String APPLICATION_PACKAGE = "com.ticketbroker.";
+
+    // 0 when the replica has replayed everything it received (or is not a standby at all, e.g. the primary
+    // itself), otherwise the age of the last replayed transaction
+    static final String LAG_QUERY = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final double maxLagSeconds;
+    private final DataSource routingDataSource = new RoutingDataSource();
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter staleFallbacks;
+    private final Counter unavailableFallbacks;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean replicaAvailable;
+
+    public ReadReplicaRouter(DataSource primary, DataSource replica, double maxLagSeconds,
+                             MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.writes = routed(meterRegistry, "primary", "read-write");
+        this.replicaReads = routed(meterRegistry, "replica", "read-only");
+        this.staleFallbacks = routed(meterRegistry, "primary", "replica-stale");
+        this.unavailableFallbacks = routed(meterRegistry, "primary", "replica-unavailable");
+        Gauge.builder("ticketbroker.datasource.replica.lag", this, router -> router.lagSeconds)
+                .description("Replication lag of the read replica at the last check")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("ticketbroker.datasource.replica.available", this, router -> router.replicaAvailable ? 1 : 0)
+                .description("1 while the replica answers lag checks, whether or not it is within the budget")
+                .register(meterRegistry);
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String pool, String reason) {
+        return Counter.builder("ticketbroker.datasource.connections.routed")
+                .description("Connections opened through the routing DataSource")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    public DataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    /**
+     * Measures the replica's lag. Until the first successful check all reads stay on the primary.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-ms:2000}")
+    public void checkReplica() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+            resultSet.next();
+            double lag = resultSet.getDouble(1);
+            // NULL: a standby that has not replayed any transaction yet
+            lagSeconds = resultSet.wasNull() ? Double.POSITIVE_INFINITY : lag;
+            if (!replicaAvailable) {
+                logger.info("Read replica available, lag {}s", lagSeconds);
+            }
+            replicaAvailable = true;
+        } catch (SQLException e) {
+            markUnavailable(e);
+        }
+    }
+
+    boolean isReplicaUsable() {
+        return replicaAvailable && lagSeconds <= maxLagSeconds;
+    }
+
+    private void markUnavailable(SQLException e) {
+        if (replicaAvailable) {
+            logger.warn("Read replica unavailable, routing reads to the primary: {}", e.getMessage());
+        }
+        replicaAvailable = false;
+        lagSeconds = Double.NaN;
+    }
+
+    Connection getConnection() throws SQLException {
+        if (!isApplicationReadOnlyTransaction()) {
+            writes.increment();
+            return primary.getConnection();
+        }
+        if (!replicaAvailable) {
+            unavailableFallbacks.increment();
+            return primary.getConnection();
+        }
+        if (!isReplicaUsable()) {
+            staleFallbacks.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException e) {
+            markUnavailable(e);
+            unavailableFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    private static boolean isApplicationReadOnlyTransaction() {
+        // Transaction names are the qualified name of the method that started the transaction
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && name != null && name.startsWith(APPLICATION_PACKAGE);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : new DataSource[] { replica, primary }) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private final class RoutingDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            return ReadReplicaRouter.this.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new UnsupportedOperationException("Credentials are configured per pool");
+        }
+    }
+}
@@ -10,8 +10,12 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.DispatcherTypeRequestMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,6 +34,12 @@ public class SecurityConfig {
                 .ignoringRequestMatchers("/api/**") // Disable CSRF for all API endpoints (using stateless Basic Auth)
             )
             .authorizeHttpRequests(auth -> auth
+                .requestMatchers(new AndRequestMatcher(
+                        new DispatcherTypeRequestMatcher(DispatcherType.ASYNC),
+                        AntPathRequestMatcher.antMatcher("/api/admin/door-feed")))
+                    .permitAll() // The door feed's SSE stream re-dispatches after the initial authenticated request
+                .requestMatchers("/actuator/prometheus").authenticated() // Inventory, timings and pool internals
+                .requestMatchers("/actuator/startup").authenticated() // Startup timeline lists every bean
                 .requestMatchers("/actuator/**").permitAll() // Allow health checks without authentication
                 .requestMatchers("/api/public/**").permitAll()
                 .requestMatchers("/api/admin/**").authenticated()
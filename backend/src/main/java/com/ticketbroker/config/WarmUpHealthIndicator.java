@@ -0,0 +1,41 @@
+package com.ticketbroker.config;
+
+import com.ticketbroker.service.WarmUpService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Part of the readiness group (management.endpoint.health.group.readiness.include), so a load balancer holds
+// traffic back until the warm-up has finished. The root status order ranks WARMING_UP below UP, so
+// /actuator/health and the container health check stay UP meanwhile
+@Component
+public class WarmUpHealthIndicator implements HealthIndicator {
+    static final Status WARMING_UP = new Status("WARMING_UP");
+
+    private final WarmUpService warmUpService;
+
+    public WarmUpHealthIndicator(WarmUpService warmUpService) {
+        this.warmUpService = warmUpService;
+    }
+
+    @Override
+    public Health health() {
+        WarmUpService.State state = warmUpService.getState();
+        Health.Builder builder = switch (state) {
+            case COMPLETED, TIMED_OUT, DISABLED -> Health.up();
+            case PENDING, RUNNING -> Health.status(WARMING_UP);
+        };
+        builder.withDetail("state", state.name().toLowerCase());
+        Duration duration = warmUpService.getDuration();
+        if (duration != null) {
+            builder.withDetail("durationMs", duration.toMillis());
+        }
+        if (!warmUpService.getFailedSteps().isEmpty()) {
+            builder.withDetail("failedSteps", warmUpService.getFailedSteps());
+        }
+        return builder.build();
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,8 +24,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.ticketbroker.dto.BookingResponse;
+import com.ticketbroker.logging.AuditStore;
 import com.ticketbroker.model.Booking;
 import com.ticketbroker.model.BookingStatus;
 import com.ticketbroker.model.Show;
@@ -34,11 +37,15 @@ import com.ticketbroker.repository.ShowRepository;
 import com.ticketbroker.repository.TicketRepository;
 import com.ticketbroker.service.AuditService;
 import com.ticketbroker.service.BookingService;
+import com.ticketbroker.service.DoorEntryFeedService;
 import com.ticketbroker.service.EmailService;
-import com.ticketbroker.service.ExcelService;
+import com.ticketbroker.service.EntityCacheService;
 import com.ticketbroker.service.PdfService;
+import com.ticketbroker.service.PublicSnapshotService;
+import com.ticketbroker.service.ReportService;
 import com.ticketbroker.service.SettingsService;
 import com.ticketbroker.service.TicketService;
+import com.ticketbroker.util.TicketPayloadSigner;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -51,17 +58,24 @@ public class AdminApiController {
     private final TicketService ticketService;
     private final EmailService emailService;
     private final PdfService pdfService;
-    private final ExcelService excelService;
+    private final ReportService reportService;
     private final SettingsService settingsService;
     private final AuditService auditService;
+    private final DoorEntryFeedService doorEntryFeedService;
+    private final TicketPayloadSigner ticketPayloadSigner;
+    private final AuditStore auditStore;
+    private final PublicSnapshotService publicSnapshotService;
+    private final EntityCacheService entityCacheService;
     private static final DateTimeFormatter SHOW_DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
 
     public AdminApiController(BookingRepository bookingRepository, TicketRepository ticketRepository,
             ShowRepository showRepository,
             BookingService bookingService, TicketService ticketService,
-            EmailService emailService, PdfService pdfService,
-            ExcelService excelService, SettingsService settingsService,
-            AuditService auditService) {
+            EmailService emailService, @Lazy PdfService pdfService,
+            ReportService reportService, SettingsService settingsService,
+            AuditService auditService, DoorEntryFeedService doorEntryFeedService,
+            TicketPayloadSigner ticketPayloadSigner, AuditStore auditStore,
+            PublicSnapshotService publicSnapshotService, EntityCacheService entityCacheService) {
         this.bookingRepository = bookingRepository;
         this.ticketRepository = ticketRepository;
         this.showRepository = showRepository;
@@ -69,14 +83,19 @@ public class AdminApiController {
         this.ticketService = ticketService;
         this.emailService = emailService;
         this.pdfService = pdfService;
-        this.excelService = excelService;
+        this.reportService = reportService;
         this.settingsService = settingsService;
         this.auditService = auditService;
+        this.doorEntryFeedService = doorEntryFeedService;
+        this.ticketPayloadSigner = ticketPayloadSigner;
+        this.auditStore = auditStore;
+        this.publicSnapshotService = publicSnapshotService;
+        this.entityCacheService = entityCacheService;
     }
 
     @GetMapping("/bookings")
     public ResponseEntity<List<BookingResponse>> getAllBookings() {
-        List<Booking> bookings = bookingRepository.findAll();
+        List<Booking> bookings = bookingService.getAllBookings();
         List<BookingResponse> responses = bookings.stream()
                 .map(BookingResponse::fromEntity)
                 .collect(Collectors.toList());
@@ -86,7 +105,7 @@ public class AdminApiController {
     @GetMapping("/bookings/{id}")
     public ResponseEntity<BookingResponse> getBookingById(@PathVariable Long id) {
         Objects.requireNonNull(id, "Booking ID cannot be null");
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findWithShowById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
         return ResponseEntity.ok(BookingResponse.fromEntity(booking));
     }
@@ -96,7 +115,7 @@ public class AdminApiController {
             @RequestBody Map<String, String> updates,
             @RequestParam(defaultValue = "admin") String adminUser) {
         Objects.requireNonNull(id, "Booking ID cannot be null");
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findWithShowById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
         // Track changes for audit log
@@ -148,7 +167,7 @@ public class AdminApiController {
             try {
                 BookingStatus newStatus = BookingStatus.valueOf(updates.get("status").toUpperCase());
                 if (oldStatus != newStatus) {
-                    booking = bookingService.updateBookingStatus(booking, newStatus, adminUser);
+                    bookingService.updateBookingStatus(booking, newStatus, adminUser);
                     // Status change is already logged in updateBookingStatus, so we don't add it
                     // here
                 }
@@ -160,26 +179,29 @@ public class AdminApiController {
         // Note: adultTickets and studentTickets are not updated
         // as they cannot be changed after booking creation
 
-        Booking nonNullBooking = Objects.requireNonNull(booking, "Booking cannot be null");
-        Booking saved = bookingRepository.save(nonNullBooking);
+        // The booking is detached and keeps its loaded show; the merged copy save() returns would not
+        bookingRepository.save(booking);
 
         // Log changes to audit log (only if there were actual changes, excluding status
         // which is logged separately)
         if (!changedFields.isEmpty()) {
-            auditService.logBookingUpdated(saved, changedFields, adminUser);
+            auditService.logBookingUpdated(booking, changedFields, adminUser);
         }
 
-        return ResponseEntity.ok(BookingResponse.fromEntity(saved));
+        return ResponseEntity.ok(BookingResponse.fromEntity(booking));
     }
 
     @PostMapping("/bookings/{id}/confirm-payment")
     public ResponseEntity<BookingResponse> confirmPayment(@PathVariable Long id,
             @RequestParam(defaultValue = "admin") String adminUser) {
         Objects.requireNonNull(id, "Booking ID cannot be null");
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findWithShowById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
-        Booking confirmed = bookingService.confirmPaymentByAdmin(booking, adminUser);
+        bookingService.confirmPaymentByAdmin(booking, adminUser);
+        // Reload with the tickets just generated for the PDF
+        Booking confirmed = bookingRepository.findWithShowAndTicketsById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
         // Send confirmation email with PDF
         try {
@@ -202,7 +224,7 @@ public class AdminApiController {
     @PostMapping("/bookings/{id}/resend-confirmation")
     public ResponseEntity<Map<String, String>> resendConfirmation(@PathVariable Long id) {
         Objects.requireNonNull(id, "Booking ID cannot be null");
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findWithShowById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
         if (booking.getStatus() == BookingStatus.CONFIRMED) {
@@ -229,7 +251,7 @@ public class AdminApiController {
     @PostMapping("/bookings/{id}/resend-tickets")
     public ResponseEntity<Map<String, String>> resendTickets(@PathVariable Long id) {
         Objects.requireNonNull(id, "Booking ID cannot be null");
-        Booking booking = bookingRepository.findById(id)
+        Booking booking = bookingRepository.findWithShowAndTicketsById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
 
         if (booking.getStatus() != BookingStatus.CONFIRMED) {
@@ -264,7 +286,7 @@ public class AdminApiController {
             @RequestParam(required = false) String used,
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String bookingRef) {
-        List<Ticket> tickets = ticketRepository.findAll();
+        List<Ticket> tickets = ticketService.getAllTickets();
 
         // Apply filters
         if (showId != null) {
@@ -341,8 +363,7 @@ public class AdminApiController {
 
     @GetMapping("/tickets/by-reference/{reference}")
     public ResponseEntity<Map<String, Object>> getTicketByReference(@PathVariable String reference) {
-        Ticket ticket = ticketService.findByReference(reference.toUpperCase())
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
+        Ticket ticket = findScannedTicket(reference);
 
         Map<String, Object> response = new HashMap<>();
         response.put("id", ticket.getId());
@@ -364,8 +385,7 @@ public class AdminApiController {
     @PostMapping("/tickets/by-reference/{reference}/toggle-state")
     public ResponseEntity<Map<String, Object>> toggleTicketStateByReference(@PathVariable String reference,
             @RequestParam(defaultValue = "admin") String checkerUser) {
-        Ticket ticket = ticketService.findByReference(reference.toUpperCase())
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
+        Ticket ticket = findScannedTicket(reference);
 
         ticketService.toggleTicketState(ticket, checkerUser);
 
@@ -378,12 +398,56 @@ public class AdminApiController {
         return ResponseEntity.ok(response);
     }
 
+    // The check page sends whatever the scanner read: a signed REF.SHOW.MAC payload, or a reference the admin
+    // typed in, which is accepted even when signed payloads are required
+    private Ticket findScannedTicket(String scanned) {
+        TicketPayloadSigner.DecodedPayload payload = ticketPayloadSigner.decode(scanned);
+        if (payload.signed() && !payload.authentic()) {
+            throw new IllegalArgumentException("Invalid ticket");
+        }
+        return ticketService.findByReference(payload.ticketReference().toUpperCase())
+                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
+    }
+
+    @GetMapping(value = "/door-feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter doorFeed(@RequestParam(required = false) Long showId) {
+        return doorEntryFeedService.subscribe(showId);
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<List<Map<String, Object>>> getAuditEvents(
+            @RequestParam(required = false) String bookingReference,
+            @RequestParam(required = false) String ticketReference,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String action,
+            @RequestParam(defaultValue = "200") int limit) {
+        if (!auditStore.isAvailable()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, 1000));
+        List<Map<String, Object>> events;
+        if (bookingReference != null) {
+            events = auditStore.findByBookingReference(bookingReference.trim(), boundedLimit);
+        } else if (ticketReference != null) {
+            events = auditStore.findByTicketReference(ticketReference.trim(), boundedLimit);
+        } else if (entityType != null && entityId != null) {
+            events = auditStore.findByEntity(entityType, entityId, boundedLimit);
+        } else if (action != null) {
+            events = auditStore.findByAction(action, boundedLimit);
+        } else {
+            throw new IllegalArgumentException(
+                    "Specify bookingReference, ticketReference, entityType and entityId, or action");
+        }
+        return ResponseEntity.ok(events);
+    }
+
     @DeleteMapping("/tickets/{id}")
     public ResponseEntity<Void> deleteTicket(@PathVariable Long id,
             @RequestParam(defaultValue = "admin") String adminUser,
             @RequestParam(required = false) String reason) {
         Objects.requireNonNull(id, "Ticket ID cannot be null");
-        Ticket ticket = ticketRepository.findById(id)
+        Ticket ticket = ticketRepository.findWithBookingById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
 
         ticketService.deleteTicket(ticket, adminUser, reason);
@@ -393,6 +457,10 @@ public class AdminApiController {
     @GetMapping("/shows")
     public ResponseEntity<List<Map<String, Object>>> getAllShows() {
         List<Show> shows = showRepository.findAllByOrderByDateAscStartTimeAsc();
+        Map<Long, Long> bookingCounts = new HashMap<>();
+        for (Object[] row : bookingRepository.countBookingsPerShow()) {
+            bookingCounts.put((Long) row[0], (Long) row[1]);
+        }
         List<Map<String, Object>> responses = shows.stream().map(show -> {
             Map<String, Object> map = new HashMap<>();
             map.put("id", show.getId());
@@ -401,7 +469,7 @@ public class AdminApiController {
             map.put("endTime", show.getEndTime());
             map.put("totalTickets", show.getTotalTickets());
             map.put("availableTickets", show.getAvailableTickets());
-            map.put("bookingsCount", show.getBookings() != null ? show.getBookings().size() : 0);
+            map.put("bookingsCount", bookingCounts.getOrDefault(show.getId(), 0L).intValue());
             return map;
         }).collect(Collectors.toList());
         return ResponseEntity.ok(responses);
@@ -427,6 +495,7 @@ public class AdminApiController {
         show.setAvailableTickets(totalTickets);
 
         show = showRepository.save(show);
+        publicSnapshotService.showsChanged();
 
         Map<String, Object> response = new HashMap<>();
         response.put("id", show.getId());
@@ -479,7 +548,8 @@ public class AdminApiController {
 
         show.setTotalTickets(newTotalTickets);
         show.setAvailableTickets(newAvailableTickets);
-        show = showRepository.save(show);
+        showRepository.updateTicketCounts(id, newTotalTickets, newAvailableTickets);
+        publicSnapshotService.showsChanged();
 
         Map<String, Object> response = new HashMap<>();
         response.put("id", show.getId());
@@ -494,22 +564,28 @@ public class AdminApiController {
     @DeleteMapping("/shows/{id}")
     public ResponseEntity<Void> deleteShow(@PathVariable Long id) {
         Objects.requireNonNull(id, "Show ID cannot be null");
-        Show show = showRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Show not found"));
+        if (!showRepository.existsById(id)) {
+            throw new IllegalArgumentException("Show not found");
+        }
 
-        if (show.getBookings() != null && !show.getBookings().isEmpty()) {
+        if (showRepository.deleteIfUnbooked(id) == 0) {
             throw new IllegalArgumentException("Kan inte radera föreställning med befintliga bokningar.");
         }
+        publicSnapshotService.showsChanged();
+        return ResponseEntity.noContent().build();
+    }
 
-        showRepository.delete(show);
+    // For shows or settings changed directly in the database
+    @PostMapping("/cache/evict")
+    public ResponseEntity<Void> evictCaches() {
+        entityCacheService.evictAll();
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/export/excel")
     public ResponseEntity<byte[]> exportExcel() {
         try {
-            List<Booking> bookings = bookingRepository.findAll();
-            byte[] excelData = excelService.exportBookingsToExcel(bookings);
+            byte[] excelData = reportService.exportBookings();
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -526,8 +602,7 @@ public class AdminApiController {
     @GetMapping("/export/revenue")
     public ResponseEntity<byte[]> exportRevenueReport() {
         try {
-            List<Booking> bookings = bookingRepository.findAll();
-            byte[] excelData = excelService.exportRevenueReport(bookings);
+            byte[] excelData = reportService.exportRevenueReport();
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
@@ -625,6 +700,8 @@ public class AdminApiController {
             settingsService.setValue("admin_email", adminEmail);
         if (maxTicketsPerBooking != null)
             settingsService.setValue("max_tickets_per_booking", maxTicketsPerBooking);
+        // Each setValue commits on its own, so the public snapshot is refreshed after every group of writes
+        publicSnapshotService.settingsChanged();
 
         // Handle class photo upload
         if (classPhoto != null && !classPhoto.isEmpty()) {
@@ -644,6 +721,7 @@ public class AdminApiController {
                 }
                 settingsService.setValue("class_photo_data", photoBase64);
                 settingsService.setValue("class_photo_content_type", contentType);
+                publicSnapshotService.settingsChanged();
                 logger.info("Class photo saved successfully - size: {} bytes, contentType: {}", photoBytes.length,
                         contentType);
             } catch (Exception e) {
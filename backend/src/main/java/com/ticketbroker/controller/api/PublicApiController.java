@@ -6,9 +6,14 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -21,20 +26,25 @@ import org.springframework.web.bind.annotation.RestController;
 import com.ticketbroker.dto.BookingRequest;
 import com.ticketbroker.dto.BookingResponse;
 import com.ticketbroker.dto.ContactRequest;
-import com.ticketbroker.dto.ShowResponse;
+import com.ticketbroker.dto.SeatHoldRequest;
 import com.ticketbroker.dto.TicketValidationRequest;
 import com.ticketbroker.model.Booking;
+import com.ticketbroker.model.SeatHold;
 import com.ticketbroker.model.Show;
 import com.ticketbroker.model.Ticket;
 import com.ticketbroker.repository.ShowRepository;
 import com.ticketbroker.service.BookingService;
 import com.ticketbroker.service.EmailService;
 import com.ticketbroker.service.PdfService;
+import com.ticketbroker.service.PublicSnapshotService;
 import com.ticketbroker.service.QrCodeService;
+import com.ticketbroker.service.SeatHoldService;
 import com.ticketbroker.service.SettingsService;
 import com.ticketbroker.service.TicketService;
 import com.ticketbroker.util.SwishUrlGenerator;
+import com.ticketbroker.util.TicketPayloadSigner;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -49,11 +59,16 @@ public class PublicApiController {
     private final QrCodeService qrCodeService;
     private final SettingsService settingsService;
     private final SwishUrlGenerator swishUrlGenerator;
+    private final TicketPayloadSigner ticketPayloadSigner;
+    private final PublicSnapshotService publicSnapshotService;
+    private final SeatHoldService seatHoldService;
 
     public PublicApiController(ShowRepository showRepository, BookingService bookingService,
             TicketService ticketService, EmailService emailService,
-            PdfService pdfService, QrCodeService qrCodeService,
-            SettingsService settingsService, SwishUrlGenerator swishUrlGenerator) {
+            @Lazy PdfService pdfService, @Lazy QrCodeService qrCodeService,
+            SettingsService settingsService, SwishUrlGenerator swishUrlGenerator,
+            TicketPayloadSigner ticketPayloadSigner, PublicSnapshotService publicSnapshotService,
+            SeatHoldService seatHoldService) {
         this.showRepository = showRepository;
         this.bookingService = bookingService;
         this.ticketService = ticketService;
@@ -62,33 +77,19 @@ public class PublicApiController {
         this.qrCodeService = qrCodeService;
         this.settingsService = settingsService;
         this.swishUrlGenerator = swishUrlGenerator;
+        this.ticketPayloadSigner = ticketPayloadSigner;
+        this.publicSnapshotService = publicSnapshotService;
+        this.seatHoldService = seatHoldService;
     }
 
     @GetMapping("/shows")
-    public ResponseEntity<List<ShowResponse>> getShows() {
-        List<Show> shows = showRepository.findAllByOrderByDateAscStartTimeAsc();
-        List<ShowResponse> responses = shows.stream()
-                .map(ShowResponse::fromEntity)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<byte[]> getShows() {
+        return snapshot(publicSnapshotService.shows());
     }
 
     @GetMapping("/initialization-status")
-    public ResponseEntity<Map<String, Object>> getInitializationStatus() {
-        List<Show> shows = showRepository.findAllByOrderByDateAscStartTimeAsc();
-        String classPhotoData = settingsService.getValue("class_photo_data", null);
-        boolean hasShows = !shows.isEmpty();
-        boolean hasClassPhoto = classPhotoData != null && !classPhotoData.trim().isEmpty();
-        boolean isInitialized = hasShows && hasClassPhoto;
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("isInitialized", isInitialized);
-        response.put("hasShows", hasShows);
-        response.put("hasClassPhoto", hasClassPhoto);
-        response.put("message", isInitialized ? null
-                : "Systemet är under initialisering. Bokning kommer att vara tillgänglig när all konfiguration är klar.");
-
-        return ResponseEntity.ok(response);
+    public ResponseEntity<byte[]> getInitializationStatus() {
+        return snapshot(publicSnapshotService.initializationStatus());
     }
 
     @GetMapping("/shows/{id}/availability")
@@ -105,6 +106,42 @@ public class PublicApiController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/shows/{id}/holds")
+    public ResponseEntity<Map<String, Object>> holdSeats(@PathVariable Long id,
+            @Valid @RequestBody SeatHoldRequest request, HttpServletRequest httpRequest) {
+        SeatHold hold;
+        try {
+            // The client's address as seen by nginx (server.forward-headers-strategy)
+            hold = seatHoldService.hold(id, request.getSeats(), httpRequest.getRemoteAddr());
+        } catch (IllegalStateException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            // Sold out conflicts with the show's current state; a seat count out of range is the client's error
+            HttpStatus status = SeatHoldService.NOT_ENOUGH_TICKETS.equals(e.getMessage())
+                    ? HttpStatus.CONFLICT : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(error);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", hold.getToken());
+        response.put("showId", hold.getShowId());
+        response.put("seats", hold.getSeats());
+        response.put("expiresAt", hold.getExpiresAt());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/holds/{token}")
+    public ResponseEntity<Void> releaseHold(@PathVariable String token) {
+        // Idempotent: a hold that was already used or has expired needs no release
+        seatHoldService.release(token);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/bookings")
     public ResponseEntity<BookingResponse> createBooking(@Valid @RequestBody BookingRequest request) {
         Long showId = Objects.requireNonNull(request.getShowId(), "Show ID cannot be null");
@@ -126,7 +163,7 @@ public class PublicApiController {
         booking.setTotalAmount((request.getAdultTickets() * adultPrice) +
                 (request.getStudentTickets() * studentPrice));
 
-        Booking created = bookingService.createBooking(booking);
+        Booking created = bookingService.createBooking(booking, request.getHoldToken());
 
         // Send confirmation email
         try {
@@ -211,12 +248,32 @@ public class PublicApiController {
     }
 
     @PostMapping("/tickets/validate")
+    @Timed(value = "ticketbroker.ticket.validate", histogram = true)
     public ResponseEntity<Map<String, Object>> validateTicket(@Valid @RequestBody TicketValidationRequest request) {
-        Ticket ticket = ticketService.findByReference(request.getTicketReference())
-                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
-
         Map<String, Object> response = new HashMap<>();
 
+        // Signed QR payloads are checked before touching the database
+        TicketPayloadSigner.DecodedPayload payload = ticketPayloadSigner.decode(request.getTicketReference());
+        if (!payload.authentic()) {
+            response.put("valid", false);
+            response.put("message", "Ogiltig biljett");
+            response.put("status", payload.signed() ? "forged" : "unsigned");
+            response.put("ticketReference", payload.ticketReference());
+            return ResponseEntity.ok(response);
+        }
+        if (payload.signed() && request.getShowId() != null && !request.getShowId().equals(payload.showId())) {
+            response.put("valid", false);
+            response.put("message", "Biljett för fel föreställning");
+            response.put("status", "wrong_show");
+            response.put("ticketReference", payload.ticketReference());
+            response.put("ticketShowId", payload.showId());
+            response.put("validationShowId", request.getShowId());
+            return ResponseEntity.ok(response);
+        }
+
+        Ticket ticket = ticketService.findByReference(payload.ticketReference())
+                .orElseThrow(() -> new IllegalArgumentException("Ticket not found"));
+
         // Check if ticket is already used
         if (ticket.getIsUsed()) {
             response.put("valid", false);
@@ -253,7 +310,16 @@ public class PublicApiController {
         }
 
         // Mark ticket as used
-        ticketService.markTicketAsUsed(ticket, "Door validation");
+        try {
+            ticketService.markTicketAsUsed(ticket, "Door validation");
+        } catch (IllegalArgumentException e) {
+            // Admitted at another door between the check above and the update
+            response.put("valid", false);
+            response.put("message", "Biljett redan använd");
+            response.put("status", "used");
+            response.put("ticketReference", ticket.getTicketReference());
+            return ResponseEntity.ok(response);
+        }
 
         // Return success response
         response.put("valid", true);
@@ -268,25 +334,8 @@ public class PublicApiController {
     }
 
     @GetMapping("/settings")
-    public ResponseEntity<Map<String, String>> getSettings() {
-        Map<String, String> settings = new HashMap<>();
-        settings.put("concertName", settingsService.getValue("concert_name", "Klasskonsert 24C"));
-        // welcome_message removed - now uses localized "Welcome to [concert name]"
-        // concertDate removed - dates are now managed via shows
-        settings.put("concertVenue", settingsService.getValue("concert_venue", "Aulan på Rytmus Stockholm"));
-        settings.put("adultPrice", settingsService.getValue("adult_ticket_price", "200"));
-        settings.put("studentPrice", settingsService.getValue("student_ticket_price", "100"));
-        settings.put("swishNumber", settingsService.getValue("swish_number", "012 345 67 89"));
-        settings.put("contactEmail", settingsService.getValue("contact_email", "admin@example.com"));
-
-        // Include class photo data if available
-        String classPhotoData = settingsService.getValue("class_photo_data", null);
-        if (classPhotoData != null) {
-            settings.put("classPhotoData", classPhotoData);
-            settings.put("classPhotoContentType", settingsService.getValue("class_photo_content_type", "image/jpeg"));
-        }
-
-        return ResponseEntity.ok(settings);
+    public ResponseEntity<byte[]> getSettings() {
+        return snapshot(publicSnapshotService.settings());
     }
 
     @PostMapping("/contact")
@@ -386,4 +435,15 @@ public class PublicApiController {
             return ResponseEntity.ok(response);
         }
     }
+
+    /**
+     * Serves precomputed JSON. Spring answers 304 itself when If-None-Match matches the ETag.
+     */
+    private static ResponseEntity<byte[]> snapshot(PublicSnapshotService.Snapshot snapshot) {
+        return ResponseEntity.ok()
+                .eTag(snapshot.eTag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.body());
+    }
 }
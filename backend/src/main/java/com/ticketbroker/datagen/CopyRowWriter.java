@@ -0,0 +1,95 @@
+package com.ticketbroker.datagen;
+
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Streams rows into one table with COPY ... FROM STDIN (FORMAT csv), flushing every ~1 MB.
+ */
+final class CopyRowWriter implements SyntheticDataset.RowWriter {
+    private static final int FLUSH_CHARS = 1 << 20;
+
+    private final CopyIn copyIn;
+    private final StringBuilder buffer = new StringBuilder(FLUSH_CHARS + 4096);
+    private long rows;
+
+    CopyRowWriter(CopyManager copyManager, String table, String[] columns) throws SQLException {
+        this.copyIn = copyManager.copyIn(
+                "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT csv)");
+    }
+
+    @Override
+    public void row(Object... columns) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                buffer.append(',');
+            }
+            append(columns[i]);
+        }
+        buffer.append('\n');
+        rows++;
+        if (buffer.length() >= FLUSH_CHARS) {
+            flush();
+        }
+    }
+
+    private void append(Object value) {
+        if (value == null) {
+            // Unquoted empty field is NULL in CSV format
+            return;
+        }
+        if (value instanceof String text) {
+            buffer.append('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    buffer.append('"');
+                }
+                buffer.append(c);
+            }
+            buffer.append('"');
+        } else {
+            buffer.append(value);
+        }
+    }
+
+    private void flush() throws IOException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        buffer.setLength(0);
+        try {
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+        } catch (SQLException e) {
+            throw new IOException("COPY failed", e);
+        }
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    /**
+     * Sends the remaining rows and completes the COPY.
+     */
+    void finish() throws IOException {
+        flush();
+        try {
+            copyIn.endCopy();
+        } catch (SQLException e) {
+            throw new IOException("COPY failed", e);
+        }
+    }
+
+    void cancel() {
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException e) {
+            // The transaction is rolled back anyway
+        }
+    }
+}
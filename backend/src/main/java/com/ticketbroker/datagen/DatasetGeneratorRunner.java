@@ -0,0 +1,151 @@
+package com.ticketbroker.datagen;
+
+import com.ticketbroker.util.BookingReferenceGenerator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Fills the database with a synthetic dataset and exits. Run with the datagen profile, e.g.
+ * {@code java -jar ticketbroker-api.jar --spring.profiles.active=datagen --app.datagen.bookings=500000}.
+ * Refuses to run against a database that already has bookings unless app.datagen.truncate is set. Stop the
+ * application first: booking references are reserved from booking_reference_seq in one go.
+ */
+@Component
+@Profile("datagen")
+public class DatasetGeneratorRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGeneratorRunner.class);
+
+    private final DataSource dataSource;
+    private final ConfigurableApplicationContext context;
+    private final BookingReferenceGenerator bookingReferenceGenerator;
+    private final int shows;
+    private final int bookings;
+    private final double repeatBuyerRate;
+    private final long seed;
+    private final boolean truncate;
+
+    public DatasetGeneratorRunner(DataSource dataSource, ConfigurableApplicationContext context,
+                                  BookingReferenceGenerator bookingReferenceGenerator,
+                                  @Value("${app.datagen.shows:20}") int shows,
+                                  @Value("${app.datagen.bookings:100000}") int bookings,
+                                  @Value("${app.datagen.repeat-buyer-rate:0.2}") double repeatBuyerRate,
+                                  @Value("${app.datagen.seed:42}") long seed,
+                                  @Value("${app.datagen.truncate:false}") boolean truncate) {
+        this.dataSource = dataSource;
+        this.context = context;
+        this.bookingReferenceGenerator = bookingReferenceGenerator;
+        this.shows = shows;
+        this.bookings = bookings;
+        this.repeatBuyerRate = repeatBuyerRate;
+        this.seed = seed;
+        this.truncate = truncate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long started = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                generate(connection);
+                connection.commit();
+            } catch (Exception e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+        logger.info("Synthetic dataset committed in {} ms", (System.nanoTime() - started) / 1_000_000);
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private void generate(Connection connection) throws SQLException, IOException {
+        try (Statement statement = connection.createStatement()) {
+            if (truncate) {
+                statement.execute("TRUNCATE seat_holds, tickets, buyers, bookings, shows RESTART IDENTITY");
+            } else if (count(statement, "SELECT count(*) FROM bookings") > 0
+                    || count(statement, "SELECT count(*) FROM shows") > 0) {
+                throw new IllegalStateException(
+                        "Database already has shows or bookings; set app.datagen.truncate=true to replace them");
+            }
+
+            Set<String> legacyReferences = new HashSet<>();
+            try (ResultSet rows = statement.executeQuery("SELECT reference FROM legacy_booking_references")) {
+                while (rows.next()) {
+                    legacyReferences.add(rows.getString(1));
+                }
+            }
+            long firstReferenceIndex = count(statement, "SELECT nextval('booking_reference_seq')");
+
+            SyntheticDataset dataset = new SyntheticDataset(shows, bookings, repeatBuyerRate, seed,
+                    LocalDateTime.now().withNano(0), bookingReferenceGenerator.getPermutation(),
+                    firstReferenceIndex, legacyReferences);
+            logger.info("Generating {} shows, {} bookings, {} buyers and {} tickets (seed {})",
+                    dataset.getShowCount(), dataset.getBookingCount(), dataset.getBuyerCount(),
+                    dataset.getTicketCount(), seed);
+
+            CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            copy(copyManager, "shows", SyntheticDataset.SHOW_COLUMNS, dataset::writeShows);
+            copy(copyManager, "bookings", SyntheticDataset.BOOKING_COLUMNS, dataset::writeBookings);
+            copy(copyManager, "buyers", SyntheticDataset.BUYER_COLUMNS, dataset::writeBuyers);
+            copy(copyManager, "tickets", SyntheticDataset.TICKET_COLUMNS, dataset::writeTickets);
+
+            // Ids were written explicitly; move the identity sequences past them
+            for (String table : new String[] { "shows", "bookings", "buyers", "tickets" }) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "(SELECT COALESCE(max(id), 0) + 1 FROM " + table + "), false)");
+            }
+            // The next nextval hands the application the block after the last reference used here
+            long blocks = Math.max(1, (dataset.getReferenceIndexesUsed() + BookingReferenceGenerator.BLOCK_SIZE - 1)
+                    / BookingReferenceGenerator.BLOCK_SIZE);
+            statement.execute("SELECT setval('booking_reference_seq', "
+                    + (firstReferenceIndex + (blocks - 1) * BookingReferenceGenerator.BLOCK_SIZE) + ")");
+        }
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    @FunctionalInterface
+    private interface TableContent {
+        void write(SyntheticDataset.RowWriter writer) throws IOException;
+    }
+
+    private static void copy(CopyManager copyManager, String table, String[] columns, TableContent content)
+            throws SQLException, IOException {
+        long started = System.nanoTime();
+        CopyRowWriter writer = new CopyRowWriter(copyManager, table, columns);
+        try {
+            content.write(writer);
+            writer.finish();
+        } catch (IOException | RuntimeException e) {
+            writer.cancel();
+            throw e;
+        }
+        long millis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        logger.info("Copied {} rows into {} in {} ms ({} rows/s)", writer.getRows(), table, millis,
+                writer.getRows() * 1000 / millis);
+    }
+}
@@ -0,0 +1,302 @@
+package com.ticketbroker.datagen;
+
+import com.ticketbroker.util.BookingReferencePermutation;
+import com.ticketbroker.util.TicketReferenceGenerator;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic shows, bookings, buyers and tickets for performance testing. The same seed, sizes,
+ * reference range and "now" always produce the same rows.
+ *
+ * The constructor plans every booking (show, ticket counts, status, buyer, reference) in a few compact arrays;
+ * the write methods then emit one table at a time, re-deriving the remaining columns from a random generator
+ * seeded per booking, so a table can be streamed without holding the others in memory. Rows are consistent
+ * with what the application itself would have written: tickets and a buyer only for confirmed bookings, one
+ * buyer per phone number, available tickets = total minus reserved and confirmed tickets.
+ */
+public final class SyntheticDataset {
+    public static final String[] SHOW_COLUMNS = {
+            "id", "date", "start_time", "end_time", "total_tickets", "available_tickets", "created_at" };
+    public static final String[] BOOKING_COLUMNS = {
+            "id", "show_id", "booking_reference", "first_name", "last_name", "email", "phone", "adult_tickets",
+            "student_tickets", "total_amount", "status", "buyer_confirmed_payment", "swish_payment_initiated",
+            "swish_payment_initiated_at", "created_at", "confirmed_at" };
+    public static final String[] BUYER_COLUMNS = {
+            "id", "phone", "first_name", "last_name", "email", "created_at", "updated_at" };
+    public static final String[] TICKET_COLUMNS = {
+            "id", "ticket_reference", "booking_id", "show_id", "buyer_id", "ticket_type", "ticket_number",
+            "is_used", "used_at", "checked_by", "created_at" };
+
+    private static final String[] FIRST_NAMES = {
+            "Anna", "Erik", "Maria", "Lars", "Karin", "Johan", "Sara", "Anders", "Emma", "Per", "Elin", "Mikael",
+            "Ida", "Nils", "Linnea", "Oskar", "Sofia", "Gustav", "Maja", "Björn" };
+    private static final String[] LAST_NAMES = {
+            "Andersson", "Johansson", "Karlsson", "Nilsson", "Eriksson", "Larsson", "Olsson", "Persson",
+            "Svensson", "Gustafsson", "Pettersson", "Jonsson", "Jansson", "Hansson", "Bengtsson", "Lindberg",
+            "Lindqvist", "Åberg", "Ström", "Holm" };
+    private static final String[][] SHOW_TIMES = { { "15:00", "17:00" }, { "19:00", "21:00" } };
+    private static final int ADULT_PRICE = 200;
+    private static final int STUDENT_PRICE = 100;
+    // Multiplier of a bijection on 0..10^8-1, so every buyer gets a distinct phone number
+    private static final long PHONE_MULTIPLIER = 37_139_213L;
+
+    private static final byte RESERVED = 0;
+    private static final byte RESERVED_PAYMENT_INITIATED = 1;
+    private static final byte RESERVED_BUYER_CONFIRMED = 2;
+    private static final byte CONFIRMED = 3;
+
+    private final long seed;
+    private final LocalDateTime now;
+    private final BookingReferencePermutation permutation;
+    private final TicketReferenceGenerator ticketReferences = new TicketReferenceGenerator();
+
+    private final LocalDate[] showDates;
+    private final int[] showBooked;
+    private final int[] showOf;
+    private final byte[] adults;
+    private final byte[] students;
+    private final byte[] status;
+    private final int[] personOf;
+    private final long[] referenceIndex;
+    private final int[] buyerOfPerson;
+    private final long firstReferenceIndex;
+    private final long nextReferenceIndex;
+    private final int ticketCount;
+    private final int buyerCount;
+
+    /**
+     * @param firstReferenceIndex first booking reference index to use, reserved from booking_reference_seq
+     * @param skipReferences references that must not be issued (legacy references)
+     */
+    public SyntheticDataset(int shows, int bookings, double repeatBuyerRate, long seed, LocalDateTime now,
+                            BookingReferencePermutation permutation, long firstReferenceIndex,
+                            Set<String> skipReferences) {
+        if (shows < 1 || bookings < 0) {
+            throw new IllegalArgumentException("Need at least one show and a non-negative number of bookings");
+        }
+        if (repeatBuyerRate < 0 || repeatBuyerRate >= 1) {
+            throw new IllegalArgumentException("Repeat buyer rate must be in [0, 1)");
+        }
+        this.seed = seed;
+        this.now = now;
+        this.permutation = permutation;
+        this.firstReferenceIndex = firstReferenceIndex;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        showDates = new LocalDate[shows];
+        double[] popularity = new double[shows];
+        double totalPopularity = 0;
+        for (int s = 0; s < shows; s++) {
+            // Two shows a day, about half of them already played
+            showDates[s] = now.toLocalDate().plusDays(s / 2 - shows / 4);
+            totalPopularity += 0.25 + random.nextDouble();
+            popularity[s] = totalPopularity;
+        }
+
+        showBooked = new int[shows];
+        showOf = new int[bookings];
+        adults = new byte[bookings];
+        students = new byte[bookings];
+        status = new byte[bookings];
+        personOf = new int[bookings];
+        referenceIndex = new long[bookings];
+        int[] buyers = new int[Math.max(1, bookings)];
+        int persons = 0;
+        int buyersAssigned = 0;
+        int tickets = 0;
+        long reference = firstReferenceIndex;
+
+        for (int i = 0; i < bookings; i++) {
+            int show = Arrays.binarySearch(popularity, random.nextDouble() * totalPopularity);
+            show = show >= 0 ? show : Math.min(-show - 1, shows - 1);
+            showOf[i] = show;
+
+            // 1-4 tickets per booking (max_tickets_per_booking), mostly pairs, some with students
+            double size = random.nextDouble();
+            int count = size < 0.25 ? 1 : size < 0.65 ? 2 : size < 0.80 ? 3 : 4;
+            int studentCount = random.nextDouble() < 0.3 ? 1 + random.nextInt(count) : 0;
+            adults[i] = (byte) (count - studentCount);
+            students[i] = (byte) studentCount;
+            showBooked[show] += count;
+
+            boolean played = isPlayed(show);
+            double state = random.nextDouble();
+            status[i] = played
+                    ? (state < 0.97 ? CONFIRMED : RESERVED)
+                    : (state < 0.65 ? CONFIRMED
+                            : state < 0.80 ? RESERVED_PAYMENT_INITIATED
+                            : state < 0.90 ? RESERVED_BUYER_CONFIRMED
+                            : RESERVED);
+
+            int person = persons > 0 && random.nextDouble() < repeatBuyerRate ? random.nextInt(persons) : persons++;
+            personOf[i] = person;
+            if (status[i] == CONFIRMED) {
+                tickets += count;
+                if (buyers[person] == 0) {
+                    buyers[person] = ++buyersAssigned;
+                }
+            }
+
+            String candidate;
+            do {
+                if (reference >= BookingReferencePermutation.DOMAIN_SIZE) {
+                    throw new IllegalStateException("Booking reference space exhausted");
+                }
+                candidate = permutation.reference(reference++);
+            } while (skipReferences.contains(candidate));
+            referenceIndex[i] = reference - 1;
+        }
+
+        buyerOfPerson = buyers;
+        nextReferenceIndex = reference;
+        ticketCount = tickets;
+        buyerCount = buyersAssigned;
+    }
+
+    @FunctionalInterface
+    public interface RowWriter {
+        void row(Object... columns) throws IOException;
+    }
+
+    public int getShowCount() {
+        return showDates.length;
+    }
+
+    public int getBookingCount() {
+        return showOf.length;
+    }
+
+    public int getBuyerCount() {
+        return buyerCount;
+    }
+
+    public int getTicketCount() {
+        return ticketCount;
+    }
+
+    /**
+     * Number of booking reference indexes consumed, including skipped ones.
+     */
+    public long getReferenceIndexesUsed() {
+        return nextReferenceIndex - firstReferenceIndex;
+    }
+
+    public void writeShows(RowWriter writer) throws IOException {
+        for (int s = 0; s < showDates.length; s++) {
+            // Capacity in steps of 50 with some seats left, as set up by an admin
+            int total = Math.max(100, (showBooked[s] * 11 / 10 + 49) / 50 * 50);
+            String[] times = SHOW_TIMES[s % SHOW_TIMES.length];
+            writer.row(s + 1, showDates[s], times[0], times[1], total, total - showBooked[s],
+                    showStart(s).minusDays(90));
+        }
+    }
+
+    public void writeBookings(RowWriter writer) throws IOException {
+        for (int i = 0; i < showOf.length; i++) {
+            BookingTimes times = new BookingTimes(i);
+            int person = personOf[i];
+            int total = adults[i] * ADULT_PRICE + students[i] * STUDENT_PRICE;
+            writer.row(i + 1, showOf[i] + 1, permutation.reference(referenceIndex[i]),
+                    firstName(person), lastName(person), email(person), phone(person),
+                    adults[i], students[i], total,
+                    status[i] == CONFIRMED ? "confirmed" : "reserved",
+                    status[i] >= RESERVED_BUYER_CONFIRMED,
+                    status[i] >= RESERVED_PAYMENT_INITIATED,
+                    times.paymentInitiated, times.created, times.confirmed);
+        }
+    }
+
+    public void writeBuyers(RowWriter writer) throws IOException {
+        int next = 1;
+        for (int i = 0; i < showOf.length && next <= buyerCount; i++) {
+            int person = personOf[i];
+            if (status[i] == CONFIRMED && buyerOfPerson[person] == next) {
+                LocalDateTime created = new BookingTimes(i).confirmed;
+                writer.row(next, phone(person), firstName(person), lastName(person), email(person), created, created);
+                next++;
+            }
+        }
+    }
+
+    public void writeTickets(RowWriter writer) throws IOException {
+        long id = 1;
+        for (int i = 0; i < showOf.length; i++) {
+            if (status[i] != CONFIRMED) {
+                continue;
+            }
+            BookingTimes times = new BookingTimes(i);
+            String bookingReference = permutation.reference(referenceIndex[i]);
+            boolean played = isPlayed(showOf[i]);
+            int count = adults[i] + students[i];
+            for (int number = 1; number <= count; number++) {
+                String type = number <= adults[i] ? "normal" : "student";
+                // Most tickets of played shows were scanned at the door, around the start time
+                boolean used = played && times.random.nextDouble() < 0.93;
+                LocalDateTime usedAt = used
+                        ? showStart(showOf[i]).plusMinutes(times.random.nextInt(50) - 30)
+                        : null;
+                writer.row(id++, ticketReferences.generateTicketReference(bookingReference, type, number),
+                        i + 1, showOf[i] + 1, buyerOfPerson[personOf[i]], type, number,
+                        used, usedAt, used ? "door" : null, times.confirmed);
+            }
+        }
+    }
+
+    private boolean isPlayed(int show) {
+        return showStart(show).isBefore(now);
+    }
+
+    private LocalDateTime showStart(int show) {
+        return showDates[show].atTime(LocalTime.parse(SHOW_TIMES[show % SHOW_TIMES.length][0]));
+    }
+
+    private static String firstName(int person) {
+        return FIRST_NAMES[person % FIRST_NAMES.length];
+    }
+
+    private static String lastName(int person) {
+        return LAST_NAMES[(person / FIRST_NAMES.length) % LAST_NAMES.length];
+    }
+
+    private static String email(int person) {
+        return "buyer" + person + "@example.com";
+    }
+
+    private static String phone(int person) {
+        return String.format("07%08d", (person * PHONE_MULTIPLIER) % 100_000_000L);
+    }
+
+    /**
+     * Timestamps of one booking, drawn from a generator seeded by the booking, so every table sees the same
+     * values. The generator is left positioned for the booking's tickets.
+     */
+    private final class BookingTimes {
+        final SplittableRandom random;
+        final LocalDateTime created;
+        final LocalDateTime paymentInitiated;
+        final LocalDateTime confirmed;
+
+        BookingTimes(int booking) {
+            random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + booking);
+            LocalDateTime bookedAt = showStart(showOf[booking])
+                    .minusDays(1 + random.nextInt(60))
+                    .minusMinutes(random.nextInt(24 * 60));
+            created = bookedAt.isAfter(now) ? now.minusMinutes(1 + random.nextInt(24 * 60)) : bookedAt;
+            LocalDateTime initiated = created.plusMinutes(1 + random.nextInt(30));
+            paymentInitiated = status[booking] >= RESERVED_PAYMENT_INITIATED ? earliest(initiated, now) : null;
+            LocalDateTime confirmedAt = initiated.plusHours(random.nextInt(48)).plusMinutes(random.nextInt(60));
+            confirmed = status[booking] == CONFIRMED ? earliest(confirmedAt, now) : null;
+        }
+
+        private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+            return a.isBefore(b) ? a : b;
+        }
+    }
+}
@@ -30,4 +30,9 @@ public class BookingRequest {
 
     @Min(value = 0, message = "Student tickets cannot be negative")
     private Integer studentTickets = 0;
+
+    // Optional seat hold from POST /api/public/shows/{id}/holds; the booking falls back to the open
+    // inventory when it has expired
+    @Size(max = 36, message = "Hold token must be less than 36 characters")
+    private String holdToken;
 }
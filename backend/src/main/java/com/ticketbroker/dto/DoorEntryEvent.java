@@ -0,0 +1,22 @@
+package com.ticketbroker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DoorEntryEvent {
+    private String type; // snapshot, admitted, reset, issued, removed
+    private Long showId;
+    private String ticketReference;
+    private String ticketType;
+    private String checkedBy;
+    private LocalDateTime at;
+    private Integer admitted;
+    private Integer issued;
+    private Integer remaining;
+}
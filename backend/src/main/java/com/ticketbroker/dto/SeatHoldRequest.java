@@ -0,0 +1,12 @@
+package com.ticketbroker.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class SeatHoldRequest {
+    @NotNull(message = "Seats are required")
+    @Min(value = 1, message = "At least one seat must be held")
+    private Integer seats;
+}
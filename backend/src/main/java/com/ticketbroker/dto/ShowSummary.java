@@ -0,0 +1,12 @@
+package com.ticketbroker.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Columns of a show needed by the public show list, selected directly by ShowRepository.findSummaries.
+ * Serializes to the same JSON as ShowResponse.
+ */
+public record ShowSummary(Long id, LocalDate date, String startTime, String endTime, Integer totalTickets,
+                          Integer availableTickets, LocalDateTime createdAt) {
+}
@@ -0,0 +1,55 @@
+package com.ticketbroker.logging;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * One audit event as produced by AuditService. Details and old/new values are flat name/value pairs
+ * (name0, value0, name1, value1, ...) so creating an event needs no maps; they are turned into JSON
+ * objects by AuditLogWriter.
+ */
+public record AuditEvent(LocalDateTime timestamp,
+                         String action,
+                         String entityType,
+                         Long entityId,
+                         String userType,
+                         String userIdentifier,
+                         Object[] details,
+                         Object[] oldValue,
+                         Object[] newValue) {
+
+    public static Object[] pairs(Object... namesAndValues) {
+        if (namesAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Audit values must be name/value pairs");
+        }
+        return namesAndValues;
+    }
+
+    public static Object[] pairs(Map<String, Object> values) {
+        if (values == null) {
+            return null;
+        }
+        Object[] pairs = new Object[values.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            pairs[i++] = entry.getKey();
+            pairs[i++] = entry.getValue();
+        }
+        return pairs;
+    }
+
+    /**
+     * Value of a detail by name, or null when the event has no such detail.
+     */
+    public Object detail(String name) {
+        if (details == null) {
+            return null;
+        }
+        for (int i = 0; i < details.length; i += 2) {
+            if (name.equals(details[i])) {
+                return details[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,219 @@
+package com.ticketbroker.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Writes audit events to the audit log on a single background thread.
+ * Callers only enqueue an AuditEvent; JSON serialization and log formatting happen here in batches, using one
+ * reusable JsonGenerator that writes straight into a reusable line buffer. The queue is drained completely
+ * on shutdown. Enqueueing never blocks: callers are often inside a booking or payment transaction that holds
+ * row locks, so when the writer falls behind and the queue is full the event is dropped and counted.
+ * Each written batch is also appended to the local AuditStore.
+ */
+@Component
+public class AuditLogWriter {
+    // Same logger name as before so the audit appender and Promtail pipeline keep working
+    private static final Logger auditLogger = LoggerFactory.getLogger("com.ticketbroker.service.AuditService");
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final int DRAIN_BATCH = 256;
+
+    private final BlockingQueue<AuditEvent> queue;
+    private final AuditStore auditStore;
+    private final ObjectMapper objectMapper;
+    private final StringBuilder line = new StringBuilder(512);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Counter written;
+    private final Counter dropped;
+    private JsonGenerator generator;
+    private volatile boolean running;
+    private Thread worker;
+
+    public AuditLogWriter(AuditStore auditStore,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.audit.queue-capacity:8192}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.auditStore = auditStore;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.generator = createGenerator();
+        this.written = Counter.builder("ticketbroker.audit.events")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("ticketbroker.audit.events")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        Gauge.builder("ticketbroker.audit.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        // Anything still queued is written by the shutdown thread
+        drain();
+    }
+
+    public void submit(AuditEvent event) {
+        if (queue.offer(event)) {
+            return;
+        }
+        dropped.increment();
+        logger.warn("Audit queue full, dropped event action={}, entity={}, entityId={}",
+                event.action(), event.entityType(), event.entityId());
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                AuditEvent event = queue.poll(1, TimeUnit.SECONDS);
+                if (event != null) {
+                    List<AuditEvent> batch = new ArrayList<>(DRAIN_BATCH);
+                    batch.add(event);
+                    queue.drainTo(batch, DRAIN_BATCH - 1);
+                    write(batch);
+                    drain();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        List<AuditEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        while (queue.drainTo(batch, DRAIN_BATCH) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        // Normally only the worker writes; the lock covers the final drain if the worker did not stop in time
+        writeLock.lock();
+        try {
+            for (AuditEvent event : batch) {
+                write(event);
+            }
+            auditStore.append(batch);
+        } finally {
+            writeLock.unlock();
+        }
+        written.increment(batch.size());
+    }
+
+    private void write(AuditEvent event) {
+        try {
+            auditLogger.info(format(event));
+        } catch (IOException e) {
+            // The generator may be left mid-object, so start over with a fresh one
+            generator = createGenerator();
+            auditLogger.warn("AUDIT: action={}, entity={}, entityId={}, userType={}, userIdentifier={} (JSON serialization failed: {})",
+                    event.action(), event.entityType(), event.entityId(), event.userType(), event.userIdentifier(),
+                    e.getMessage());
+        }
+    }
+
+    String format(AuditEvent event) throws IOException {
+        line.setLength(0);
+        line.append("AUDIT: action=").append(event.action())
+                .append(", entity=").append(event.entityType())
+                .append(", entityId=").append(event.entityId())
+                .append(", userType=").append(event.userType())
+                .append(", userIdentifier=").append(event.userIdentifier())
+                .append(", details=");
+        appendJson(event.details());
+        line.append(", oldValue=");
+        appendJson(event.oldValue());
+        line.append(", newValue=");
+        appendJson(event.newValue());
+        return line.toString();
+    }
+
+    private void appendJson(Object[] pairs) throws IOException {
+        if (pairs == null) {
+            line.append("null");
+            return;
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < pairs.length; i += 2) {
+            generator.writeFieldName(String.valueOf(pairs[i]));
+            generator.writeObject(pairs[i + 1]);
+        }
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private JsonGenerator createGenerator() {
+        try {
+            JsonGenerator created = objectMapper.getFactory().createGenerator(new LineWriter(line));
+            created.setRootValueSeparator(null);
+            return created;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create audit JSON generator", e);
+        }
+    }
+
+    /**
+     * Appends everything the generator writes to the current line buffer.
+     */
+    private static final class LineWriter extends Writer {
+        private final StringBuilder target;
+
+        LineWriter(StringBuilder target) {
+            this.target = target;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            target.append(chars, offset, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) {
+            target.append(str, offset, offset + length);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.ticketbroker.logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One append-only audit segment: a file of newline separated JSON events plus an index from key
+ * (entity, booking reference, ticket reference, action) to the position of every matching line.
+ * The active segment keeps its index in memory only; sealing writes it next to the data file so the
+ * segment never has to be scanned again. Positions are packed as offset &lt;&lt; 24 | length and stored
+ * delta-encoded as varints. The index also records whether the segment is the output of a compaction.
+ */
+final class AuditSegment {
+    private static final int INDEX_MAGIC = 0x41494458; // AIDX
+    private static final int LENGTH_BITS = 24;
+    private static final long MAX_LINE_LENGTH = (1L << LENGTH_BITS) - 1;
+
+    private final long id;
+    private final Path dataFile;
+    private final Path indexFile;
+    private final Map<String, Postings> index = new HashMap<>();
+    private final FileChannel channel;
+    private long size;
+    private long oldestTimestamp = Long.MAX_VALUE;
+    private long newestTimestamp = Long.MIN_VALUE;
+    private int eventCount;
+    private boolean sealed;
+    private boolean compacted;
+
+    private AuditSegment(long id, Path dataFile, Path indexFile, FileChannel channel, long size) {
+        this.id = id;
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.channel = channel;
+        this.size = size;
+    }
+
+    static Path dataFile(Path dir, long id) {
+        return dir.resolve(String.format("segment-%012d.log", id));
+    }
+
+    static Path indexFile(Path dir, long id) {
+        return dir.resolve(String.format("segment-%012d.idx", id));
+    }
+
+    static AuditSegment openActive(Path dir, long id) throws IOException {
+        return open(id, dataFile(dir, id), indexFile(dir, id));
+    }
+
+    static AuditSegment open(long id, Path data, Path index) throws IOException {
+        FileChannel channel = FileChannel.open(data, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        return new AuditSegment(id, data, index, channel, channel.size());
+    }
+
+    /**
+     * Opens a sealed segment from its index file; returns null when the index is missing or unreadable,
+     * in which case the caller rebuilds it by scanning the data file.
+     */
+    static AuditSegment openSealed(Path dir, long id) throws IOException {
+        Path index = indexFile(dir, id);
+        if (!Files.exists(index)) {
+            return null;
+        }
+        AuditSegment segment = new AuditSegment(id, dataFile(dir, id), index,
+                FileChannel.open(dataFile(dir, id), StandardOpenOption.READ), 0);
+        try {
+            segment.readIndex(index);
+        } catch (IOException e) {
+            segment.close();
+            return null;
+        }
+        segment.size = segment.channel.size();
+        segment.sealed = true;
+        return segment;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    long getSize() {
+        return size;
+    }
+
+    int getEventCount() {
+        return eventCount;
+    }
+
+    long getOldestTimestamp() {
+        return oldestTimestamp;
+    }
+
+    long getNewestTimestamp() {
+        return newestTimestamp;
+    }
+
+    boolean isSealed() {
+        return sealed;
+    }
+
+    boolean isCompacted() {
+        return compacted;
+    }
+
+    /**
+     * Marks a segment written by compaction; must be called before sealing so the flag is persisted.
+     */
+    void markCompacted() {
+        compacted = true;
+    }
+
+    Path getDataFile() {
+        return dataFile;
+    }
+
+    /**
+     * Appends a batch of complete lines in one write; entries describe each line within the batch.
+     */
+    void append(byte[] batch, int batchLength, List<Entry> entries) throws IOException {
+        if (sealed) {
+            throw new IllegalStateException("Segment " + id + " is sealed");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch, 0, batchLength);
+        long position = size;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        for (Entry entry : entries) {
+            addToIndex(entry.keys(), size + entry.offset(), entry.length(), entry.timestamp());
+        }
+        size = position;
+    }
+
+    void addToIndex(List<String> keys, long offset, int length, long timestamp) {
+        if (length > MAX_LINE_LENGTH) {
+            throw new IllegalArgumentException("Audit line too long: " + length);
+        }
+        long position = (offset << LENGTH_BITS) | length;
+        for (String key : keys) {
+            index.computeIfAbsent(key, k -> new Postings()).add(position);
+        }
+        oldestTimestamp = Math.min(oldestTimestamp, timestamp);
+        newestTimestamp = Math.max(newestTimestamp, timestamp);
+        eventCount++;
+    }
+
+    /**
+     * Positions of the lines for a key, oldest first.
+     */
+    long[] positions(String key) {
+        Postings postings = index.get(key);
+        return postings != null ? postings.toArray() : new long[0];
+    }
+
+    byte[] read(long position) throws IOException {
+        long offset = position >>> LENGTH_BITS;
+        int length = (int) (position & MAX_LINE_LENGTH);
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of audit segment " + id);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Calls the consumer for every complete line in the data file; used to rebuild a lost index.
+     * A trailing partial line (crash mid-write) is cut off.
+     */
+    void scan(LineConsumer consumer) throws IOException {
+        long fileSize = channel.size();
+        long lineStart = 0;
+        byte[] line = new byte[1024];
+        int lineLength = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(dataFile), 64 * 1024)) {
+            int b;
+            long position = 0;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n') {
+                    consumer.accept(Arrays.copyOf(line, lineLength), lineStart, lineLength + 1);
+                    lineStart = position;
+                    lineLength = 0;
+                } else {
+                    if (lineLength == line.length) {
+                        line = Arrays.copyOf(line, line.length * 2);
+                    }
+                    line[lineLength++] = (byte) b;
+                }
+            }
+        }
+        if (lineStart < fileSize && !sealed) {
+            channel.truncate(lineStart);
+        }
+        size = lineStart;
+    }
+
+    void seal() throws IOException {
+        if (sealed) {
+            return;
+        }
+        channel.force(false);
+        writeIndex(indexFile);
+        sealed = true;
+    }
+
+    void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to do with a segment that cannot be closed
+        }
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(dataFile);
+    }
+
+    private void writeIndex(Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeBoolean(compacted);
+            out.writeInt(eventCount);
+            out.writeLong(oldestTimestamp);
+            out.writeLong(newestTimestamp);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Postings> entry : index.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Postings postings = entry.getValue();
+                writeVarLong(out, postings.size);
+                long previous = 0;
+                for (int i = 0; i < postings.size; i++) {
+                    writeVarLong(out, postings.values[i] - previous);
+                    previous = postings.values[i];
+                }
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void readIndex(Path source) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                throw new IOException("Not an audit index: " + source);
+            }
+            compacted = in.readBoolean();
+            eventCount = in.readInt();
+            oldestTimestamp = in.readLong();
+            newestTimestamp = in.readLong();
+            int keys = in.readInt();
+            for (int k = 0; k < keys; k++) {
+                String key = in.readUTF();
+                int count = (int) readVarLong(in);
+                Postings postings = new Postings(count);
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    previous += readVarLong(in);
+                    postings.add(previous);
+                }
+                index.put(key, postings);
+            }
+        }
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static List<Long> ids(Path dir) throws IOException {
+        List<Long> ids = new ArrayList<>();
+        try (var files = Files.list(dir)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                    .forEach(name -> ids.add(Long.parseLong(name.substring(8, name.length() - 4))));
+        }
+        ids.sort(Long::compare);
+        return ids;
+    }
+
+    record Entry(List<String> keys, int offset, int length, long timestamp) {
+    }
+
+    @FunctionalInterface
+    interface LineConsumer {
+        void accept(byte[] line, long offset, int length) throws IOException;
+    }
+
+    private static final class Postings {
+        private long[] values;
+        private int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            this.values = new long[Math.max(1, capacity)];
+        }
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
@@ -0,0 +1,568 @@
+package com.ticketbroker.logging;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded, append-only store of audit events so the history of a booking or ticket can be looked up
+ * without Loki (e.g. when the Pi is offline).
+ * Events are appended by AuditLogWriter's thread to the active segment; segments roll by size and by day.
+ * Each segment indexes its events by entity, booking reference, ticket reference and action, so a lookup only
+ * reads the matching lines. Whenever a segment rolls, segments older than the retention period are deleted and
+ * runs of small neighbouring segments are compacted into one, on a separate maintenance thread so the writer
+ * never waits for it. A compacted segment is never compacted again, so every event is copied at most once.
+ */
+@Component
+public class AuditStore {
+    private static final Logger logger = LoggerFactory.getLogger(AuditStore.class);
+    private static final Pattern COMPACT_INDEX = Pattern.compile("compact-(\\d+)-(\\d+)\\.idx");
+    // Roughly a week of daily segments; fewer are only compacted once they fill a whole segment
+    private static final int COMPACTION_RUN_SEGMENTS = 7;
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+    private static final TypeReference<Map<String, Object>> EVENT_TYPE = new TypeReference<>() {
+    };
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long segmentBytes;
+    private final Duration retention;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ObjectMapper objectMapper;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<AuditSegment> segments = new ArrayList<>();
+    private final BatchBuffer batch = new BatchBuffer();
+    private final ExecutorService maintenance = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-store-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean maintenancePending = new AtomicBoolean();
+    private JsonGenerator generator;
+    private AuditSegment active;
+    private volatile boolean available;
+
+    public AuditStore(@Value("${app.audit-store.enabled:true}") boolean enabled,
+                      @Value("${app.audit-store.directory:/logs/audit-store}") String directory,
+                      @Value("${app.audit-store.segment-bytes:8388608}") long segmentBytes,
+                      @Value("${app.audit-store.retention-days:400}") int retentionDays) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentBytes = segmentBytes;
+        this.retention = Duration.ofDays(retentionDays);
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Files.createDirectories(directory);
+            recoverCompaction();
+            List<Long> ids = AuditSegment.ids(directory);
+            for (int i = 0; i < ids.size(); i++) {
+                boolean last = i == ids.size() - 1;
+                AuditSegment segment = AuditSegment.openSealed(directory, ids.get(i));
+                if (segment == null) {
+                    // Active segment from the previous run (or a lost index): rebuild from the data file
+                    segment = AuditSegment.openActive(directory, ids.get(i));
+                    rebuildIndex(segment);
+                    if (!last) {
+                        segment.seal();
+                    }
+                }
+                segments.add(segment);
+            }
+            if (segments.isEmpty() || segments.get(segments.size() - 1).isSealed()) {
+                long nextId = segments.isEmpty() ? 1 : segments.get(segments.size() - 1).getId() + 1;
+                segments.add(AuditSegment.openActive(directory, nextId));
+            }
+            active = segments.get(segments.size() - 1);
+            generator = createGenerator();
+            available = true;
+            logger.info("Audit store opened at {} with {} segments", directory, segments.size());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Audit store at {} is unavailable: {}", directory, e.getMessage());
+            closeSegments();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (available) {
+            scheduleMaintenance();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        // Let a running compaction finish; an interrupted one would only be discarded on the next start
+        maintenance.shutdown();
+        try {
+            if (!maintenance.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                maintenance.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            maintenance.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            if (available && active.getEventCount() > 0) {
+                // Sealing writes the index so the next start does not have to scan the segment
+                active.seal();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to seal audit segment {}: {}", active.getId(), e.getMessage());
+        } finally {
+            available = false;
+            closeSegments();
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Appends a batch of events with a single write. Only called from the audit writer thread.
+     */
+    void append(List<AuditEvent> events) {
+        if (!available || events.isEmpty()) {
+            return;
+        }
+        try {
+            LocalDate day = LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis(events.get(0).timestamp())), zone);
+            if (shouldRoll(day)) {
+                roll();
+            }
+            batch.reset();
+            List<AuditSegment.Entry> entries = new ArrayList<>(events.size());
+            for (AuditEvent event : events) {
+                int offset = batch.size();
+                writeJson(event);
+                batch.write('\n');
+                Object bookingReference = event.detail("bookingReference");
+                Object ticketReference = event.detail("ticketReference");
+                entries.add(new AuditSegment.Entry(
+                        keys(event.action(), event.entityType(), event.entityId(),
+                                bookingReference != null ? bookingReference.toString() : null,
+                                ticketReference != null ? ticketReference.toString() : null),
+                        offset, batch.size() - offset, epochMillis(event.timestamp())));
+            }
+            lock.writeLock().lock();
+            try {
+                active.append(batch.buffer(), batch.size(), entries);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException | RuntimeException e) {
+            // The generator may be left mid-object, so start over with a fresh one
+            generator = createGenerator();
+            logger.warn("Failed to append {} events to the audit store: {}", events.size(), e.getMessage());
+        }
+    }
+
+    public List<Map<String, Object>> findByBookingReference(String bookingReference, int limit) {
+        return find(bookingKey(bookingReference), limit);
+    }
+
+    public List<Map<String, Object>> findByTicketReference(String ticketReference, int limit) {
+        return find(ticketKey(ticketReference), limit);
+    }
+
+    public List<Map<String, Object>> findByEntity(String entityType, Long entityId, int limit) {
+        return find(entityKey(entityType, entityId), limit);
+    }
+
+    public List<Map<String, Object>> findByAction(String action, int limit) {
+        return find(actionKey(action), limit);
+    }
+
+    /**
+     * Most recent events for a key, returned oldest first.
+     */
+    private List<Map<String, Object>> find(String key, int limit) {
+        if (!available) {
+            throw new IllegalStateException("Audit store is not available");
+        }
+        List<byte[]> lines = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = segments.size() - 1; i >= 0 && lines.size() < limit; i--) {
+                AuditSegment segment = segments.get(i);
+                long[] positions = segment.positions(key);
+                for (int j = positions.length - 1; j >= 0 && lines.size() < limit; j--) {
+                    lines.add(segment.read(positions[j]));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read audit store", e);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Collections.reverse(lines);
+        List<Map<String, Object>> events = new ArrayList<>(lines.size());
+        for (byte[] line : lines) {
+            try {
+                events.add(objectMapper.readValue(line, EVENT_TYPE));
+            } catch (IOException e) {
+                logger.warn("Skipping unreadable audit event: {}", e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    int getSegmentCount() {
+        lock.readLock().lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean shouldRoll(LocalDate day) {
+        if (active.getEventCount() == 0) {
+            return false;
+        }
+        LocalDate activeDay = LocalDate.ofInstant(Instant.ofEpochMilli(active.getNewestTimestamp()), zone);
+        return active.getSize() >= segmentBytes || !activeDay.equals(day);
+    }
+
+    private void roll() throws IOException {
+        lock.writeLock().lock();
+        try {
+            active.seal();
+            active = AuditSegment.openActive(directory, active.getId() + 1);
+            segments.add(active);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        scheduleMaintenance();
+    }
+
+    private void scheduleMaintenance() {
+        // One pending run covers any number of rolls
+        if (maintenancePending.compareAndSet(false, true)) {
+            try {
+                maintenance.execute(() -> {
+                    maintenancePending.set(false);
+                    maintain(System.currentTimeMillis());
+                });
+            } catch (RejectedExecutionException e) {
+                maintenancePending.set(false);
+            }
+        }
+    }
+
+    /**
+     * Waits until maintenance scheduled so far has finished.
+     */
+    void awaitMaintenance() throws InterruptedException, ExecutionException {
+        maintenance.submit(() -> {
+        }).get();
+    }
+
+    /**
+     * Deletes segments past retention and compacts runs of small sealed segments. Runs on the maintenance thread.
+     */
+    void maintain(long now) {
+        try {
+            long cutoff = now - retention.toMillis();
+            lock.writeLock().lock();
+            try {
+                while (segments.size() > 1 && segments.get(0).isSealed()
+                        && segments.get(0).getNewestTimestamp() < cutoff) {
+                    AuditSegment expired = segments.remove(0);
+                    expired.delete();
+                    logger.info("Deleted audit segment {} past retention", expired.getId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            List<AuditSegment> run = findCompactionRun();
+            if (run.size() > 1) {
+                compact(run);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Audit store maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Finds consecutive sealed segments that were never compacted and are each below the segment size. A run is
+     * returned once it would fill a segment or has COMPACTION_RUN_SEGMENTS members; a shorter trailing run waits
+     * for more segments, so the output is not merged again on the next roll.
+     */
+    private List<AuditSegment> findCompactionRun() {
+        lock.readLock().lock();
+        try {
+            List<AuditSegment> run = new ArrayList<>();
+            long runBytes = 0;
+            for (AuditSegment segment : segments) {
+                if (!segment.isSealed()) {
+                    break;
+                }
+                if (segment.isCompacted() || segment.getSize() >= segmentBytes) {
+                    if (run.size() > 1) {
+                        return run;
+                    }
+                    run.clear();
+                    runBytes = 0;
+                    continue;
+                }
+                if (runBytes + segment.getSize() > segmentBytes) {
+                    if (run.size() > 1) {
+                        return run;
+                    }
+                    run.clear();
+                    runBytes = 0;
+                }
+                run.add(segment);
+                runBytes += segment.getSize();
+                if (run.size() == COMPACTION_RUN_SEGMENTS) {
+                    return run;
+                }
+            }
+            return List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compact(List<AuditSegment> run) throws IOException {
+        long firstId = run.get(0).getId();
+        long lastId = run.get(run.size() - 1).getId();
+        Path data = directory.resolve("compact-" + firstId + "-" + lastId + ".log");
+        Path index = directory.resolve("compact-" + firstId + "-" + lastId + ".idx");
+        Files.deleteIfExists(data);
+        Files.deleteIfExists(index);
+
+        // Sealed segments are immutable, so copying needs no lock
+        AuditSegment merged = AuditSegment.open(firstId, data, index);
+        for (AuditSegment segment : run) {
+            segment.scan((line, offset, length) -> appendLine(merged, line));
+        }
+        merged.markCompacted();
+        merged.seal();
+        merged.close();
+
+        lock.writeLock().lock();
+        try {
+            int position = segments.indexOf(run.get(0));
+            for (AuditSegment segment : run) {
+                segments.remove(segment);
+                segment.delete();
+            }
+            Files.move(data, AuditSegment.dataFile(directory, firstId), StandardCopyOption.ATOMIC_MOVE);
+            Files.move(index, AuditSegment.indexFile(directory, firstId), StandardCopyOption.ATOMIC_MOVE);
+            segments.add(position, AuditSegment.openSealed(directory, firstId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Compacted audit segments {}..{}", firstId, lastId);
+    }
+
+    private void appendLine(AuditSegment target, byte[] line) throws IOException {
+        byte[] withNewline = new byte[line.length + 1];
+        System.arraycopy(line, 0, withNewline, 0, line.length);
+        withNewline[line.length] = '\n';
+        target.append(withNewline, withNewline.length, List.of(entryFor(line, 0, withNewline.length)));
+    }
+
+    private void rebuildIndex(AuditSegment segment) throws IOException {
+        segment.scan((line, offset, length) -> {
+            AuditSegment.Entry entry = entryFor(line, 0, length);
+            segment.addToIndex(entry.keys(), offset, length, entry.timestamp());
+        });
+    }
+
+    private AuditSegment.Entry entryFor(byte[] line, int offset, int length) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        JsonNode details = node.path("details");
+        LocalDateTime timestamp = LocalDateTime.parse(node.path("timestamp").asText());
+        return new AuditSegment.Entry(
+                keys(node.path("action").asText(null), node.path("entity").asText(null),
+                        node.path("entityId").isNumber() ? node.path("entityId").asLong() : null,
+                        details.path("bookingReference").asText(null),
+                        details.path("ticketReference").asText(null)),
+                offset, length, epochMillis(timestamp));
+    }
+
+    // A crash during compaction leaves compact-* files; finish the swap if the index was written, else discard
+    private void recoverCompaction() throws IOException {
+        List<Path> leftovers;
+        try (var files = Files.list(directory)) {
+            leftovers = files.filter(path -> path.getFileName().toString().startsWith("compact-")).toList();
+        }
+        for (Path path : leftovers) {
+            Matcher matcher = COMPACT_INDEX.matcher(path.getFileName().toString());
+            if (!matcher.matches()) {
+                continue;
+            }
+            long firstId = Long.parseLong(matcher.group(1));
+            long lastId = Long.parseLong(matcher.group(2));
+            for (long id = firstId; id <= lastId; id++) {
+                Files.deleteIfExists(AuditSegment.indexFile(directory, id));
+                Files.deleteIfExists(AuditSegment.dataFile(directory, id));
+            }
+            Files.move(path.resolveSibling("compact-" + firstId + "-" + lastId + ".log"),
+                    AuditSegment.dataFile(directory, firstId), StandardCopyOption.ATOMIC_MOVE);
+            Files.move(path, AuditSegment.indexFile(directory, firstId), StandardCopyOption.ATOMIC_MOVE);
+        }
+        try (var files = Files.list(directory)) {
+            for (Path path : files.filter(p -> p.getFileName().toString().startsWith("compact-")
+                    || p.getFileName().toString().endsWith(".tmp")).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private void writeJson(AuditEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName("timestamp");
+        generator.writeObject(event.timestamp());
+        generator.writeStringField("action", event.action());
+        generator.writeStringField("entity", event.entityType());
+        generator.writeFieldName("entityId");
+        if (event.entityId() != null) {
+            generator.writeNumber(event.entityId());
+        } else {
+            generator.writeNull();
+        }
+        generator.writeStringField("userType", event.userType());
+        generator.writeStringField("userIdentifier", event.userIdentifier());
+        writePairs("details", event.details());
+        writePairs("oldValue", event.oldValue());
+        writePairs("newValue", event.newValue());
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    private void writePairs(String field, Object[] pairs) throws IOException {
+        generator.writeFieldName(field);
+        if (pairs == null) {
+            generator.writeNull();
+            return;
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < pairs.length; i += 2) {
+            generator.writeFieldName(String.valueOf(pairs[i]));
+            generator.writeObject(pairs[i + 1]);
+        }
+        generator.writeEndObject();
+    }
+
+    private JsonGenerator createGenerator() {
+        try {
+            JsonGenerator created = objectMapper.getFactory().createGenerator(batch);
+            created.setRootValueSeparator(null);
+            return created;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to create audit store JSON generator", e);
+        }
+    }
+
+    static List<String> keys(String action, String entityType, Long entityId,
+                             String bookingReference, String ticketReference) {
+        List<String> keys = new ArrayList<>(4);
+        if (entityType != null && entityId != null) {
+            keys.add(entityKey(entityType, entityId));
+        }
+        if (action != null) {
+            keys.add(actionKey(action));
+        }
+        if (ticketReference != null) {
+            keys.add(ticketKey(ticketReference));
+            // Ticket references are {bookingReference}-{type}{number}
+            int separator = ticketReference.lastIndexOf('-');
+            if (bookingReference == null && separator > 0) {
+                bookingReference = ticketReference.substring(0, separator);
+            }
+        }
+        if (bookingReference != null) {
+            keys.add(bookingKey(bookingReference));
+        }
+        return keys;
+    }
+
+    private static String entityKey(String entityType, Long entityId) {
+        return "e:" + entityType + ":" + entityId;
+    }
+
+    private static String actionKey(String action) {
+        return "a:" + action;
+    }
+
+    private static String bookingKey(String bookingReference) {
+        return "b:" + bookingReference.toUpperCase();
+    }
+
+    private static String ticketKey(String ticketReference) {
+        return "t:" + ticketReference.toUpperCase();
+    }
+
+    private long epochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private void closeSegments() {
+        for (AuditSegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+    }
+
+    /**
+     * Exposes the internal array so a batch can be written without copying it.
+     */
+    private static final class BatchBuffer extends ByteArrayOutputStream {
+        BatchBuffer() {
+            super(16 * 1024);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
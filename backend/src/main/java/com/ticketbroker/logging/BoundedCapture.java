@@ -0,0 +1,52 @@
+package com.ticketbroker.logging;
+
+import java.util.Arrays;
+
+/**
+ * Keeps a copy of at most the first maxBytes of a body while counting the full length.
+ * Used from the request thread only.
+ */
+class BoundedCapture {
+    private static final byte[] EMPTY = new byte[0];
+
+    private final int maxBytes;
+    private byte[] buffer;
+    private int count;
+    private long total;
+
+    BoundedCapture(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    void write(int b) {
+        if (count < maxBytes) {
+            buffer()[count++] = (byte) b;
+        }
+        total++;
+    }
+
+    void write(byte[] bytes, int offset, int length) {
+        int copy = Math.min(length, maxBytes - count);
+        if (copy > 0) {
+            System.arraycopy(bytes, offset, buffer(), count, copy);
+            count += copy;
+        }
+        total += length;
+    }
+
+    byte[] toByteArray() {
+        return buffer != null ? Arrays.copyOf(buffer, count) : EMPTY;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    // Allocated on first write so bodiless requests cost nothing
+    private byte[] buffer() {
+        if (buffer == null) {
+            buffer = new byte[maxBytes];
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,341 @@
+package com.ticketbroker.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Captures request and response payloads for the payload log.
+ * Only runs when PayloadLogger is at DEBUG and the path is included and not excluded. Bodies are streamed
+ * through and only the first max-body-bytes of textual content types are copied; binary bodies are counted
+ * but not kept. Records are handed to PayloadLogWriter, which formats and writes them off the request thread.
+ */
+@Component
+@Order(1)
+public class PayloadCaptureFilter extends OncePerRequestFilter {
+    private static final String REDACTED = "[REDACTED]";
+    private static final Set<String> SENSITIVE_HEADERS = Set.of(
+            HttpHeaders.AUTHORIZATION.toLowerCase(),
+            HttpHeaders.COOKIE.toLowerCase(),
+            HttpHeaders.SET_COOKIE.toLowerCase(),
+            HttpHeaders.PROXY_AUTHORIZATION.toLowerCase());
+
+    private final PayloadLogWriter payloadLogWriter;
+    private final BooleanSupplier enabled;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final String[] includePaths;
+    private final String[] excludePaths;
+    private final int maxBodyBytes;
+
+    @Autowired
+    public PayloadCaptureFilter(PayloadLogWriter payloadLogWriter,
+                                @Value("${app.payload-capture.include:/api/**}") String[] includePaths,
+                                @Value("${app.payload-capture.exclude:}") String[] excludePaths,
+                                @Value("${app.payload-capture.max-body-bytes:4096}") int maxBodyBytes) {
+        this(payloadLogWriter, PayloadLogger::isEnabled, includePaths, excludePaths, maxBodyBytes);
+    }
+
+    // enabled is asked on every request, so the logger level can be changed at runtime
+    PayloadCaptureFilter(PayloadLogWriter payloadLogWriter, BooleanSupplier enabled, String[] includePaths,
+                         String[] excludePaths, int maxBodyBytes) {
+        this.payloadLogWriter = payloadLogWriter;
+        this.enabled = enabled;
+        this.includePaths = includePaths;
+        this.excludePaths = excludePaths;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if (!enabled.getAsBoolean()) {
+            return true;
+        }
+        // Server-sent event streams never complete in a way that can be logged
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains("text/event-stream")) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !matchesAny(includePaths, path) || matchesAny(excludePaths, path);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        CapturingRequest capturingRequest = new CapturingRequest(request, maxBodyBytes);
+        CapturingResponse capturingResponse = new CapturingResponse(response, maxBodyBytes);
+        try {
+            filterChain.doFilter(capturingRequest, capturingResponse);
+        } finally {
+            capturingResponse.flushWriter();
+            if (!request.isAsyncStarted()) {
+                payloadLogWriter.submit(new PayloadRecord(
+                        request.getMethod(),
+                        request.getRequestURI(),
+                        request.getQueryString(),
+                        requestHeaders(request),
+                        capturingRequest.body(),
+                        response.getStatus(),
+                        responseHeaders(response),
+                        capturingResponse.body()));
+            }
+        }
+    }
+
+    private boolean matchesAny(String[] patterns, String path) {
+        for (String pattern : patterns) {
+            if (!pattern.isBlank() && pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> requestHeaders(HttpServletRequest request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        Enumeration<String> names = request.getHeaderNames();
+        for (String name : Collections.list(names)) {
+            headers.put(name, redact(name, request.getHeader(name)));
+        }
+        return headers;
+    }
+
+    private static Map<String, String> responseHeaders(HttpServletResponse response) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        Collection<String> names = response.getHeaderNames();
+        for (String name : names) {
+            headers.put(name, redact(name, response.getHeader(name)));
+        }
+        return headers;
+    }
+
+    private static String redact(String name, String value) {
+        return SENSITIVE_HEADERS.contains(name.toLowerCase()) ? REDACTED : value;
+    }
+
+    static boolean isTextual(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase();
+        return type.startsWith("text/") || type.contains("json") || type.contains("xml")
+                || type.startsWith("application/x-www-form-urlencoded");
+    }
+
+    // JSON is UTF-8 unless the content type says otherwise, whatever the container default encoding is
+    private static Charset bodyCharset(String contentType) {
+        try {
+            Charset charset = contentType != null ? MediaType.parseMediaType(contentType).getCharset() : null;
+            return charset != null ? charset : StandardCharsets.UTF_8;
+        } catch (Exception e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static Charset charset(String encoding) {
+        try {
+            return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+        } catch (Exception e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static final class CapturingRequest extends HttpServletRequestWrapper {
+        private final BoundedCapture capture;
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+
+        CapturingRequest(HttpServletRequest request, int maxBodyBytes) {
+            super(request);
+            this.capture = new BoundedCapture(isTextual(request.getContentType()) ? maxBodyBytes : 0);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new TeeInputStream(super.getInputStream(), capture);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(getInputStream(), charset(getCharacterEncoding())));
+            }
+            return reader;
+        }
+
+        PayloadRecord.Body body() {
+            if (inputStream == null) {
+                return null;
+            }
+            return new PayloadRecord.Body(capture.toByteArray(), capture.getTotal(), bodyCharset(getContentType()));
+        }
+    }
+
+    private static final class CapturingResponse extends HttpServletResponseWrapper {
+        private final int maxBodyBytes;
+        private BoundedCapture capture;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CapturingResponse(HttpServletResponse response, int maxBodyBytes) {
+            super(response);
+            this.maxBodyBytes = maxBodyBytes;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                // Content type is set before the body is written, so decide here whether to keep a copy
+                capture = new BoundedCapture(isTextual(getContentType()) ? maxBodyBytes : 0);
+                outputStream = new TeeOutputStream(super.getOutputStream(), capture);
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), charset(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        PayloadRecord.Body body() {
+            if (capture == null) {
+                return null;
+            }
+            return new PayloadRecord.Body(capture.toByteArray(), capture.getTotal(), bodyCharset(getContentType()));
+        }
+    }
+
+    private static final class TeeInputStream extends ServletInputStream {
+        private final ServletInputStream delegate;
+        private final BoundedCapture capture;
+
+        TeeInputStream(ServletInputStream delegate, BoundedCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b != -1) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = delegate.read(bytes, offset, length);
+            if (read > 0) {
+                capture.write(bytes, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+
+    private static final class TeeOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+        private final BoundedCapture capture;
+
+        TeeOutputStream(ServletOutputStream delegate, BoundedCapture capture) {
+            this.delegate = delegate;
+            this.capture = capture;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            capture.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            capture.write(bytes, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
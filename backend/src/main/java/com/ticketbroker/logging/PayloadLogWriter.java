@@ -0,0 +1,138 @@
+package com.ticketbroker.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formats and writes captured payloads on a single background thread.
+ * The queue is bounded and offer never blocks: when it is full the record is dropped and counted,
+ * so payload logging can never slow down or grow the memory of the request path.
+ */
+@Component
+public class PayloadLogWriter {
+    private static final Logger logger = LoggerFactory.getLogger(PayloadLogWriter.class);
+    private static final int DRAIN_BATCH = 64;
+
+    private final BlockingQueue<PayloadRecord> queue;
+    private final Counter dropped;
+    private final Counter written;
+    private volatile boolean running;
+    private Thread worker;
+
+    public PayloadLogWriter(MeterRegistry meterRegistry,
+                            @Value("${app.payload-capture.queue-capacity:1000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = Counter.builder("ticketbroker.payload.capture.records")
+                .tag("result", "dropped")
+                .register(meterRegistry);
+        this.written = Counter.builder("ticketbroker.payload.capture.records")
+                .tag("result", "written")
+                .register(meterRegistry);
+        Gauge.builder("ticketbroker.payload.capture.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "payload-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(2));
+        }
+        drain();
+    }
+
+    /**
+     * Hands a record to the writer thread; returns false when it was dropped because the queue is full.
+     */
+    boolean submit(PayloadRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        return false;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                PayloadRecord record = queue.poll(1, TimeUnit.SECONDS);
+                if (record != null) {
+                    write(record);
+                    drain();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.warn("Failed to write payload log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drain() {
+        List<PayloadRecord> batch = new ArrayList<>(DRAIN_BATCH);
+        while (queue.drainTo(batch, DRAIN_BATCH) > 0) {
+            for (PayloadRecord record : batch) {
+                write(record);
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(PayloadRecord record) {
+        PayloadLogger.logRequest(record.method(), record.uri(), record.queryString(),
+                formatHeaders(record.requestHeaders()), formatBody(record.requestBody()));
+        PayloadLogger.logResponse(record.method(), record.uri(), record.status(),
+                formatHeaders(record.responseHeaders()), formatBody(record.responseBody()));
+        written.increment();
+    }
+
+    static String formatHeaders(Map<String, String> headers) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!sb.isEmpty()) {
+                sb.append(", ");
+            }
+            sb.append(header.getKey()).append(": ").append(header.getValue());
+        }
+        return sb.toString();
+    }
+
+    static String formatBody(PayloadRecord.Body body) {
+        if (body == null) {
+            return "";
+        }
+        if (body.bytes().length == 0 && body.totalBytes() > 0) {
+            return "[not captured, " + body.totalBytes() + " bytes]";
+        }
+        String text = new String(body.bytes(), body.charset() != null ? body.charset() : StandardCharsets.UTF_8);
+        if (body.totalBytes() > body.bytes().length) {
+            return text + "... [truncated, " + body.totalBytes() + " bytes]";
+        }
+        return text;
+    }
+}
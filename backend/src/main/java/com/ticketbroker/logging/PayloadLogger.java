@@ -6,6 +6,10 @@ import org.slf4j.LoggerFactory;
 public class PayloadLogger {
     private static final Logger logger = LoggerFactory.getLogger(PayloadLogger.class);
     
+    public static boolean isEnabled() {
+        return logger.isDebugEnabled();
+    }
+    
     public static void logRequest(String method, String uri, String queryString, String headers, String body) {
         logger.debug("REQUEST: {} {}?{} | Headers: {} | Body: {}", 
                 method, uri, queryString != null ? queryString : "", headers, body != null ? body : "");
@@ -0,0 +1,21 @@
+package com.ticketbroker.logging;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Raw data captured for one request/response pair. Formatting into log lines happens on the writer thread.
+ * A null body means the body was not captured (binary content type or nothing written).
+ */
+record PayloadRecord(String method,
+                     String uri,
+                     String queryString,
+                     Map<String, String> requestHeaders,
+                     Body requestBody,
+                     int status,
+                     Map<String, String> responseHeaders,
+                     Body responseBody) {
+
+    record Body(byte[] bytes, long totalBytes, Charset charset) {
+    }
+}
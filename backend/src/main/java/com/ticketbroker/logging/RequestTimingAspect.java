@@ -0,0 +1,57 @@
+package com.ticketbroker.logging;
+
+import com.ticketbroker.logging.RequestTimings.Phase;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records time spent in repositories and in the settings, QR, PDF, mail and audit services into the
+ * current request's RequestTimings. Only created when app.server-timing.enabled is true.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class RequestTimingAspect {
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.DB, joinPoint);
+    }
+
+    @Around("execution(public * com.ticketbroker.service.SettingsService.*(..))")
+    public Object timeSettings(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.SETTINGS, joinPoint);
+    }
+
+    @Around("execution(public * com.ticketbroker.service.QrCodeService.*(..))")
+    public Object timeQrCode(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.QR, joinPoint);
+    }
+
+    @Around("execution(public * com.ticketbroker.service.PdfService.*(..))")
+    public Object timePdf(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.PDF, joinPoint);
+    }
+
+    @Around("execution(public * com.ticketbroker.service.EmailService.*(..))")
+    public Object timeMail(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.MAIL, joinPoint);
+    }
+
+    @Around("execution(public * com.ticketbroker.service.AuditService.*(..))")
+    public Object timeAudit(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Phase.AUDIT, joinPoint);
+    }
+
+    private static Object time(Phase phase, ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = RequestTimings.enter(phase);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            RequestTimings.exit(phase, start);
+        }
+    }
+}
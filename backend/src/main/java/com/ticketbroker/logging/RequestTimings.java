@@ -0,0 +1,117 @@
+package com.ticketbroker.logging;
+
+import java.util.Locale;
+
+/**
+ * Per-request phase durations (database, settings, QR, PDF, mail, audit), kept in a ThreadLocal by
+ * ServerTimingFilter and filled in by RequestTimingAspect. Phases are inclusive: PDF time contains the QR
+ * codes rendered for it, settings time contains its database reads. A nested call of the same phase is
+ * not counted twice. Outside a recorded request every method here is a ThreadLocal read and nothing else.
+ */
+public final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    public enum Phase {
+        DB, SETTINGS, QR, PDF, MAIL, AUDIT;
+
+        final String metricName = name().toLowerCase(Locale.ROOT);
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private final int[] depth = new int[PHASES.length];
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marks the start of a phase; returns the start time to pass to exit, or -1 when nothing is recorded.
+     */
+    public static long enter(Phase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || timings.depth[phase.ordinal()]++ > 0) {
+            return -1;
+        }
+        return System.nanoTime();
+    }
+
+    public static void exit(Phase phase, long start) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            return;
+        }
+        int i = phase.ordinal();
+        timings.depth[i]--;
+        if (start >= 0) {
+            timings.nanos[i] += System.nanoTime() - start;
+            timings.counts[i]++;
+        }
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    long nanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int count(Phase phase) {
+        return counts[phase.ordinal()];
+    }
+
+    /**
+     * Server-Timing header value, e.g. {@code db;dur=12.4;desc="9 calls", mail;dur=801.0;desc="1 calls", app;dur=830.2}.
+     */
+    String headerValue() {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count > 0) {
+                header.append(phase.metricName).append(";dur=");
+                appendMillis(header, nanos[phase.ordinal()]);
+                header.append(";desc=\"").append(count).append(" calls\", ");
+            }
+        }
+        header.append("app;dur=");
+        appendMillis(header, elapsedNanos());
+        return header.toString();
+    }
+
+    /**
+     * Phase breakdown for the slow request log, e.g. {@code db=12.4ms/9, mail=801.0ms/1}.
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder(64);
+        for (Phase phase : PHASES) {
+            int count = counts[phase.ordinal()];
+            if (count > 0) {
+                if (!summary.isEmpty()) {
+                    summary.append(", ");
+                }
+                summary.append(phase.metricName).append('=');
+                appendMillis(summary, nanos[phase.ordinal()]);
+                summary.append("ms/").append(count);
+            }
+        }
+        return summary.toString();
+    }
+
+    // One decimal without String.format
+    private static void appendMillis(StringBuilder target, long nanos) {
+        long tenths = (nanos + 50_000) / 100_000;
+        target.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
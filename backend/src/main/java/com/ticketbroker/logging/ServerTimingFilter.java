@@ -0,0 +1,119 @@
+package com.ticketbroker.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds a Server-Timing header with the phase breakdown recorded by RequestTimingAspect and logs requests
+ * slower than the threshold with the same breakdown. The header is set just before the response body is
+ * written, so it covers everything the controller did. Only created when app.server-timing.enabled is true.
+ */
+@Component
+@Order(2)
+@ConditionalOnProperty(name = "app.server-timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+    static final String HEADER = "Server-Timing";
+    private static final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final boolean exposeHeader;
+    private final long slowRequestNanos;
+
+    public ServerTimingFilter(@Value("${app.server-timing.expose-header:true}") boolean exposeHeader,
+                              @Value("${app.server-timing.slow-request-ms:2000}") long slowRequestMs) {
+        this.exposeHeader = exposeHeader;
+        this.slowRequestNanos = TimeUnit.MILLISECONDS.toNanos(slowRequestMs);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        TimingResponse timingResponse = exposeHeader ? new TimingResponse(response, timings) : null;
+        try {
+            filterChain.doFilter(request, timingResponse != null ? timingResponse : response);
+        } finally {
+            RequestTimings.end();
+            if (timingResponse != null) {
+                timingResponse.addTimingHeader();
+            }
+            long elapsed = timings.elapsedNanos();
+            if (elapsed >= slowRequestNanos && !request.isAsyncStarted()) {
+                logger.warn("SLOW_REQUEST: method={}, uri={}, status={}, durationMs={}, phases=[{}]",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(),
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), timings.summary());
+            }
+        }
+    }
+
+    /**
+     * Sets the header the first time anything may commit the response.
+     */
+    private static final class TimingResponse extends HttpServletResponseWrapper {
+        private final RequestTimings timings;
+        private boolean headerAdded;
+
+        TimingResponse(HttpServletResponse response, RequestTimings timings) {
+            super(response);
+            this.timings = timings;
+        }
+
+        void addTimingHeader() {
+            if (!headerAdded && !isCommitted()) {
+                setHeader(HEADER, timings.headerValue());
+            }
+            headerAdded = true;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addTimingHeader();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addTimingHeader();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addTimingHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addTimingHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addTimingHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addTimingHeader();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ticketbroker.logging;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tags statements with the repository method that issued them, e.g. TicketRepository.findByShowId.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = "app.jdbc-stats.enabled", havingValue = "true")
+public class StatementAttributionAspect {
+    private final ConcurrentMap<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("target(org.springframework.data.repository.Repository)")
+    public Object attribute(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = repositoryName(joinPoint.getTarget()) + "." + joinPoint.getSignature().getName();
+        String previous = StatementListener.enterRepositoryMethod(method);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            StatementListener.exitRepositoryMethod(previous);
+        }
+    }
+
+    // Repositories are proxies; name them after the application interface, not CrudRepository
+    private String repositoryName(Object repository) {
+        return repositoryNames.computeIfAbsent(repository.getClass(), type -> {
+            for (Class<?> candidate : AopProxyUtils.proxiedUserInterfaces(repository)) {
+                if (candidate.getName().startsWith("com.ticketbroker.")) {
+                    return candidate.getSimpleName();
+                }
+            }
+            return type.getSimpleName();
+        });
+    }
+}
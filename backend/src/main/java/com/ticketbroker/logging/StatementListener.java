@@ -0,0 +1,119 @@
+package com.ticketbroker.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives every statement and ResultSet call from the proxied DataSource. Statements are counted into the
+ * open StatementScope and into per repository method meters; statements issued outside a repository call
+ * (typically lazy loading from an entity) are tagged as such. Connections taken from and returned to the
+ * DataSource are reported to the scope so it can measure how long they were held.
+ */
+@Component
+@ConditionalOnProperty(name = "app.jdbc-stats.enabled", havingValue = "true")
+public class StatementListener implements QueryExecutionListener, MethodExecutionListener {
+    static final String OUTSIDE_REPOSITORY = "outside_repository";
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public StatementListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Attributes statements on this thread to a repository method until it returns; nested calls keep the
+     * outermost method. Returns the previous value to restore.
+     */
+    static String enterRepositoryMethod(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        if (previous == null) {
+            REPOSITORY_METHOD.set(method);
+        }
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int count = execInfo.isBatch() ? Math.max(1, execInfo.getBatchSize()) : 1;
+        long elapsed = execInfo.getElapsedTime();
+        for (QueryInfo queryInfo : queryInfoList) {
+            StatementScope.statementExecuted(queryInfo.getQuery(), count, elapsed);
+        }
+        String method = REPOSITORY_METHOD.get();
+        Meters methodMeters = meters.computeIfAbsent(method != null ? method : OUTSIDE_REPOSITORY, this::createMeters);
+        methodMeters.statements.record(elapsed, TimeUnit.MILLISECONDS);
+        if (execInfo.getResult() instanceof Integer updated && updated > 0) {
+            methodMeters.rows.increment(updated);
+            StatementScope.rowsRead(updated);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (executionContext.getThrown() == null) {
+            if (executionContext.getTarget() instanceof DataSource
+                    && "getConnection".equals(executionContext.getMethod().getName())) {
+                StatementScope.connectionOpened();
+                return;
+            }
+            if (executionContext.getTarget() instanceof Connection
+                    && "close".equals(executionContext.getMethod().getName())) {
+                StatementScope.connectionClosed();
+                return;
+            }
+        }
+        // Rows read are counted one ResultSet.next() at a time
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            String method = REPOSITORY_METHOD.get();
+            meters.computeIfAbsent(method != null ? method : OUTSIDE_REPOSITORY, this::createMeters).rows.increment();
+            StatementScope.rowsRead(1);
+        }
+    }
+
+    private Meters createMeters(String method) {
+        return new Meters(
+                Timer.builder("ticketbroker.jdbc.statements")
+                        .tag("repository_method", method)
+                        .register(meterRegistry),
+                Counter.builder("ticketbroker.jdbc.rows")
+                        .tag("repository_method", method)
+                        .register(meterRegistry));
+    }
+
+    private record Meters(Timer statements, Counter rows) {
+    }
+}
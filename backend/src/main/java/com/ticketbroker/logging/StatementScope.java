@@ -0,0 +1,143 @@
+package com.ticketbroker.logging;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Counts JDBC statements, rows and time for a unit of work on the current thread (an HTTP request, or a
+ * block of test code). Scopes nest: a statement counts towards every open scope on the thread. Statements
+ * are also grouped by shape (SQL with literals and IN-lists collapsed) so repeated identical queries, the
+ * typical N+1 from lazy loading in a loop, can be reported. The scope also adds up how long the thread held
+ * at least one JDBC connection, from getConnection() to close().
+ */
+public final class StatementScope implements AutoCloseable {
+    private static final ThreadLocal<StatementScope> CURRENT = new ThreadLocal<>();
+    private static final int MAX_SHAPES = 256;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final StatementScope parent;
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int statements;
+    private long rows;
+    private long elapsedMillis;
+    private int openConnections;
+    private long connectionOpenedAt;
+    private long connectionHoldNanos;
+    private boolean closed;
+
+    private StatementScope(StatementScope parent) {
+        this.parent = parent;
+    }
+
+    public static StatementScope open() {
+        StatementScope scope = new StatementScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static StatementScope current() {
+        return CURRENT.get();
+    }
+
+    static void statementExecuted(String sql, int count, long elapsedMillis) {
+        StatementScope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        String shape = shape(sql);
+        for (; scope != null; scope = scope.parent) {
+            scope.statements += count;
+            scope.elapsedMillis += elapsedMillis;
+            if (scope.shapes.size() < MAX_SHAPES || scope.shapes.containsKey(shape)) {
+                scope.shapes.merge(shape, count, Integer::sum);
+            }
+        }
+    }
+
+    static void rowsRead(long count) {
+        for (StatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows += count;
+        }
+    }
+
+    static void connectionOpened() {
+        long now = System.nanoTime();
+        for (StatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope.openConnections++ == 0) {
+                scope.connectionOpenedAt = now;
+            }
+        }
+    }
+
+    static void connectionClosed() {
+        long now = System.nanoTime();
+        for (StatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope.openConnections > 0 && --scope.openConnections == 0) {
+                scope.connectionHoldNanos += now - scope.connectionOpenedAt;
+            }
+        }
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public int getStatementCount() {
+        return statements;
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Time at least one connection was held in this scope; a connection still open when the scope closes
+     * counts up to that point.
+     */
+    public long getConnectionHoldNanos() {
+        return connectionHoldNanos;
+    }
+
+    /**
+     * Statement shapes executed at least threshold times in this scope, most frequent first.
+     */
+    public Map<String, Integer> repeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (openConnections > 0) {
+            connectionHoldNanos += System.nanoTime() - connectionOpenedAt;
+            openConnections = 0;
+        }
+        if (CURRENT.get() == this) {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.ticketbroker.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens a StatementScope per request, records the statement count and connection hold time per endpoint
+ * and logs a suspected N+1 when the same statement shape runs at least n-plus-one-threshold times in one
+ * request.
+ */
+@Component
+@Order(3)
+@ConditionalOnProperty(name = "app.jdbc-stats.enabled", havingValue = "true")
+public class StatementStatsFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(StatementStatsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public StatementStatsFilter(MeterRegistry meterRegistry,
+                                @Value("${app.jdbc-stats.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        StatementScope scope = StatementScope.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            scope.close();
+            record(request, scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, StatementScope scope) {
+        if (scope.getStatementCount() == 0) {
+            return;
+        }
+        // The mapped pattern keeps the tag bounded (/api/public/bookings/{reference}, not every reference)
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNMAPPED";
+        DistributionSummary.builder("ticketbroker.jdbc.request.statements")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getStatementCount());
+        // With open-in-view off this covers the service calls only, not serialization, PDFs or mail
+        Timer.builder("ticketbroker.jdbc.request.connection.hold")
+                .description("Time the request held a JDBC connection")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeated = scope.repeatedShapes(nPlusOneThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("ticketbroker.jdbc.n_plus_one")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            Map.Entry<String, Integer> worst = repeated.entrySet().iterator().next();
+            logger.warn("N_PLUS_ONE_SUSPECTED: method={}, uri={}, statements={}, rows={}, repeated={}x [{}]",
+                    request.getMethod(), uri, scope.getStatementCount(), scope.getRowCount(),
+                    worst.getValue(), worst.getKey());
+        }
+    }
+}
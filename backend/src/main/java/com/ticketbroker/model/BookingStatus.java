@@ -2,6 +2,8 @@ package com.ticketbroker.model;
 
 public enum BookingStatus {
     RESERVED,
-    CONFIRMED
+    CONFIRMED,
+    // Unpaid reservation whose tickets were released by ReservationExpiryService
+    EXPIRED
 }
 
@@ -0,0 +1,42 @@
+package com.ticketbroker.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seats taken from a show for a few minutes while the buyer fills in the booking form. The row is the
+ * source of truth: whoever deletes it (the booking consuming the token, or expiry) owns the seats.
+ */
+@Entity
+@Table(name = "seat_holds")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHold {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String token;
+
+    @Column(name = "show_id", nullable = false)
+    private Long showId;
+
+    @Column(nullable = false)
+    private Integer seats;
+
+    // Remote address of the buyer, for the per-client cap on held seats
+    @Column(name = "client_key", length = 64)
+    private String clientKey;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
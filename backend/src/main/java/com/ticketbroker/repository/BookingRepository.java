@@ -2,28 +2,94 @@ package com.ticketbroker.repository;
 
 import com.ticketbroker.model.Booking;
 import com.ticketbroker.model.BookingStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    // Open-in-view is off: a booking leaves the repository with everything its callers read after the
+    // transaction, i.e. the show for BookingResponse, exports and emails, and the tickets for PDFs
+    
+    // findAll and findByStatus run in read-only transactions that may be routed to the read replica; shows
+    // loaded there can lag behind the primary and are kept out of the second-level cache
+    
+    @Override
+    @EntityGraph(attributePaths = "show")
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    List<Booking> findAll();
+    
+    @EntityGraph(attributePaths = "show")
+    Optional<Booking> findWithShowById(Long id);
+    
+    @EntityGraph(attributePaths = {"show", "tickets"})
+    Optional<Booking> findWithShowAndTicketsById(Long id);
+    
+    @EntityGraph(attributePaths = "show")
+    List<Booking> findWithShowByIdIn(List<Long> ids);
+    
+    @EntityGraph(attributePaths = "show")
     Optional<Booking> findByBookingReference(String bookingReference);
     
+    @EntityGraph(attributePaths = "show")
     Optional<Booking> findByBookingReferenceAndEmail(String bookingReference, String email);
     
     List<Booking> findByShowId(Long showId);
     
+    @EntityGraph(attributePaths = "show")
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
     List<Booking> findByStatus(BookingStatus status);
     
+    @EntityGraph(attributePaths = {"show", "tickets"})
     List<Booking> findByEmail(String email);
     
+    @EntityGraph(attributePaths = "show")
     List<Booking> findByEmailAndLastName(String email, String lastName);
     
+    boolean existsByShowId(Long showId);
+    
+    // Show id and number of bookings, for shows that have any
+    @Query("SELECT b.show.id, COUNT(b) FROM Booking b GROUP BY b.show.id")
+    List<Object[]> countBookingsPerShow();
+    
     @Query("SELECT b FROM Booking b WHERE b.status = com.ticketbroker.model.BookingStatus.CONFIRMED AND b.show.id = :showId")
     List<Booking> findConfirmedBookingsByShowId(Long showId);
+    
+    // Start of the next block of booking reference indexes (see BookingReferenceGenerator)
+    @Query(value = "SELECT nextval('booking_reference_seq')", nativeQuery = true)
+    long nextBookingReferenceBlock();
+    
+    @Query(value = "SELECT reference FROM legacy_booking_references", nativeQuery = true)
+    List<String> findLegacyBookingReferences();
+    
+    @Query("SELECT b.bookingReference FROM Booking b")
+    List<String> findAllBookingReferences();
+    
+    // Current status with a row lock held until commit, so a confirmation and the reservation expiry job
+    // never change the same booking at once
+    @Query(value = "SELECT status FROM bookings WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> lockStatus(@Param("id") Long id);
+    
+    /**
+     * Locks up to limit reservations created before unpaidBefore, oldest first. A reservation where the buyer
+     * started or confirmed a Swish payment is only included once it is older than paymentStartedBefore. Rows
+     * locked by another node's run are skipped rather than waited for. Uses idx_bookings_status_created_at.
+     */
+    @Query(value = "SELECT id FROM bookings WHERE status = 'reserved' AND created_at < :unpaidBefore "
+            + "AND (created_at < :paymentStartedBefore "
+            + "OR NOT (swish_payment_initiated OR buyer_confirmed_payment)) "
+            + "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockExpiredReservationIds(@Param("unpaidBefore") LocalDateTime unpaidBefore,
+                                         @Param("paymentStartedBefore") LocalDateTime paymentStartedBefore,
+                                         @Param("limit") int limit);
 }
 
@@ -0,0 +1,47 @@
+package com.ticketbroker.repository;
+
+import com.ticketbroker.model.SeatHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<SeatHold> findWithLockByToken(String token);
+
+    /**
+     * Deletes the hold if it is still valid for this show and seat count. Returns 0 when it expired, was
+     * released or was already used, in which case the seats are no longer the caller's.
+     */
+    @Modifying
+    @Query("DELETE FROM SeatHold h WHERE h.token = :token AND h.showId = :showId AND h.seats = :seats "
+            + "AND h.expiresAt > :now")
+    int consume(@Param("token") String token, @Param("showId") Long showId, @Param("seats") int seats,
+                @Param("now") LocalDateTime now);
+
+    // Expired holds not locked by another node's sweep
+    @Query(value = "SELECT * FROM seat_holds WHERE expires_at <= :now ORDER BY expires_at LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<SeatHold> lockExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Serializes the holds of one client until commit, so parallel requests cannot all pass the per-client cap
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(hashtext(:clientKey))", nativeQuery = true)
+    int lockClient(@Param("clientKey") String clientKey);
+
+    @Query("SELECT COALESCE(SUM(h.seats), 0) FROM SeatHold h "
+            + "WHERE h.clientKey = :clientKey AND h.expiresAt > :now")
+    long sumActiveSeatsByClientKey(@Param("clientKey") String clientKey, @Param("now") LocalDateTime now);
+
+    // Seats held for the show, which a recount of available tickets must leave out
+    @Query("SELECT COALESCE(SUM(h.seats), 0) FROM SeatHold h WHERE h.showId = :showId")
+    long sumSeatsByShowId(@Param("showId") Long showId);
+}
@@ -1,13 +1,31 @@
 package com.ticketbroker.repository;
 
 import com.ticketbroker.model.Settings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SettingsRepository extends JpaRepository<Settings, Long> {
+    // SettingsService.getValue runs this for every setting a PDF, email or price calculation reads
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Settings> findByKey(String key);
+
+    /**
+     * Key and value only, without the id and timestamp of the entity.
+     */
+    interface KeyValue {
+        String getKey();
+
+        String getValue();
+    }
+
+    List<KeyValue> findByKeyIn(Collection<String> keys);
 }
 
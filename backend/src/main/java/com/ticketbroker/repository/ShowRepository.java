@@ -1,13 +1,63 @@
 package com.ticketbroker.repository;
 
+import com.ticketbroker.dto.ShowSummary;
 import com.ticketbroker.model.Show;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface ShowRepository extends JpaRepository<Show, Long> {
+    // Cached show ids; the shows themselves come from the Show entity region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Show> findAllByOrderByDateAscStartTimeAsc();
+
+    @Query("SELECT new com.ticketbroker.dto.ShowSummary(s.id, s.date, s.startTime, s.endTime, s.totalTickets, "
+            + "s.availableTickets, s.createdAt) FROM Show s ORDER BY s.date, s.startTime")
+    List<ShowSummary> findSummaries();
+
+    /**
+     * Takes tickets from the show only if enough are left. Returns 0 when the show is sold out. Like every
+     * bulk update, it evicts the Show cache region and the cached show queries when it runs.
+     */
+    @Modifying
+    @Query("UPDATE Show s SET s.availableTickets = s.availableTickets - :count "
+            + "WHERE s.id = :id AND s.availableTickets >= :count")
+    int reserveTickets(@Param("id") Long id, @Param("count") int count);
+
+    // Gives tickets of expired reservations back to the show, never above its total
+    @Modifying
+    @Query("UPDATE Show s SET s.availableTickets = LEAST(s.availableTickets + :count, s.totalTickets) "
+            + "WHERE s.id = :id")
+    int releaseTickets(@Param("id") Long id, @Param("count") int count);
+
+    /**
+     * Deletes the show only if it has no bookings. Returns 0 when it has, so a booking made between a check
+     * and the delete cannot be removed with it.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Show s WHERE s.id = :id "
+            + "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.show.id = :id)")
+    int deleteIfUnbooked(@Param("id") Long id);
+
+    /**
+     * Writes the ticket counts of a detached show. Saving it instead would merge the show, which cascades into
+     * its bookings and tickets and loads every one of them.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Show s SET s.totalTickets = :totalTickets, s.availableTickets = :availableTickets "
+            + "WHERE s.id = :id")
+    int updateTicketCounts(@Param("id") Long id, @Param("totalTickets") int totalTickets,
+            @Param("availableTickets") int availableTickets);
 }
 
@@ -1,16 +1,36 @@
 package com.ticketbroker.repository;
 
 import com.ticketbroker.model.Ticket;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
+    // Admin listings and the door scan read the booking, buyer and show of a ticket. findAll runs in a read-only
+    // transaction that may be routed to the read replica, so its shows are kept out of the second-level cache
+    @Override
+    @EntityGraph(attributePaths = {"booking", "buyer", "show"})
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "BYPASS"))
+    List<Ticket> findAll();
+    
+    @EntityGraph(attributePaths = {"booking", "buyer", "show"})
     Optional<Ticket> findByTicketReference(String ticketReference);
     
+    // Deleting a ticket updates its booking and the booking's show
+    @EntityGraph(attributePaths = {"booking", "booking.show"})
+    Optional<Ticket> findWithBookingById(Long id);
+    
     List<Ticket> findByBookingId(Long bookingId);
     
     List<Ticket> findByShowId(Long showId);
@@ -18,5 +38,21 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     List<Ticket> findByBuyerId(Long buyerId);
     
     List<Ticket> findByIsUsed(Boolean isUsed);
+    
+    long countByShowId(Long showId);
+    
+    long countByShowIdAndIsUsed(Long showId, Boolean isUsed);
+    
+    @Query("SELECT t.ticketReference FROM Ticket t")
+    List<String> findAllTicketReferences();
+    
+    /**
+     * Marks the ticket used only if it is still unused. Returns 0 when someone else admitted it first.
+     */
+    @Modifying
+    @Query("UPDATE Ticket t SET t.isUsed = true, t.usedAt = :usedAt, t.checkedBy = :checkedBy "
+            + "WHERE t.id = :id AND t.isUsed = false")
+    int markUsed(@Param("id") Long id, @Param("usedAt") LocalDateTime usedAt,
+                 @Param("checkedBy") String checkedBy);
 }
 
@@ -1,133 +1,128 @@
 package com.ticketbroker.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.ticketbroker.logging.AuditEvent;
+import com.ticketbroker.logging.AuditLogWriter;
 import com.ticketbroker.model.Booking;
 import com.ticketbroker.model.Ticket;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import static com.ticketbroker.logging.AuditEvent.pairs;
+
 @Service
 public class AuditService {
-    private static final Logger auditLogger = LoggerFactory.getLogger(AuditService.class);
-    private final ObjectMapper objectMapper;
+    private final AuditLogWriter auditLogWriter;
     
-    public AuditService() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    public AuditService(AuditLogWriter auditLogWriter) {
+        this.auditLogWriter = auditLogWriter;
     }
     
     public void logAuditEvent(String actionType, String entityType, Long entityId,
                              String userType, String userIdentifier,
                              Map<String, Object> details, Map<String, Object> oldValue,
                              Map<String, Object> newValue) {
-        try {
-            // Log to audit log file (Promtail will pick this up and send to Loki)
-            String detailsJson = details != null ? objectMapper.writeValueAsString(details) : null;
-            String oldValueJson = oldValue != null ? objectMapper.writeValueAsString(oldValue) : null;
-            String newValueJson = newValue != null ? objectMapper.writeValueAsString(newValue) : null;
-            
-            auditLogger.info("AUDIT: action={}, entity={}, entityId={}, userType={}, userIdentifier={}, details={}, oldValue={}, newValue={}",
-                    actionType, entityType, entityId, userType, userIdentifier, detailsJson, oldValueJson, newValueJson);
-        } catch (JsonProcessingException e) {
-            // If JSON serialization fails, log without JSON formatting
-            auditLogger.warn("AUDIT: action={}, entity={}, entityId={}, userType={}, userIdentifier={} (JSON serialization failed: {})",
-                    actionType, entityType, entityId, userType, userIdentifier, e.getMessage());
-        }
+        logAuditEvent(actionType, entityType, entityId, userType, userIdentifier,
+                pairs(details), pairs(oldValue), pairs(newValue));
+    }
+    
+    private void logAuditEvent(String actionType, String entityType, Long entityId,
+                               String userType, String userIdentifier,
+                               Object[] details, Object[] oldValue, Object[] newValue) {
+        // Serialized and written to the audit log (picked up by Promtail/Loki) on the audit writer thread
+        auditLogWriter.submit(new AuditEvent(LocalDateTime.now(), actionType, entityType, entityId,
+                userType, userIdentifier, details, oldValue, newValue));
     }
     
     public void logBookingCreated(Booking booking) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("bookingReference", booking.getBookingReference());
-        details.put("showTime", booking.getShow().getStartTime() + "-" + booking.getShow().getEndTime());
-        details.put("adultTickets", booking.getAdultTickets());
-        details.put("studentTickets", booking.getStudentTickets());
-        details.put("totalAmount", booking.getTotalAmount());
+        Object[] details = pairs(
+                "bookingReference", booking.getBookingReference(),
+                "showTime", booking.getShow().getStartTime() + "-" + booking.getShow().getEndTime(),
+                "adultTickets", booking.getAdultTickets(),
+                "studentTickets", booking.getStudentTickets(),
+                "totalAmount", booking.getTotalAmount());
         
         logAuditEvent("booking_created", "booking", booking.getId(),
                 "buyer", booking.getPhone(), details, null, null);
     }
     
     public void logPaymentInitiated(Booking booking) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("bookingReference", booking.getBookingReference());
-        details.put("amount", booking.getTotalAmount());
-        details.put("initiatedAt", booking.getSwishPaymentInitiatedAt());
+        Object[] details = pairs(
+                "bookingReference", booking.getBookingReference(),
+                "amount", booking.getTotalAmount(),
+                "initiatedAt", booking.getSwishPaymentInitiatedAt());
         
         logAuditEvent("payment_initiated", "booking", booking.getId(),
                 "buyer", booking.getPhone(), details, null, null);
     }
     
     public void logPaymentConfirmed(Booking booking, String adminUser) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("bookingReference", booking.getBookingReference());
-        details.put("amount", booking.getTotalAmount());
-        details.put("confirmedAt", booking.getConfirmedAt());
+        Object[] details = pairs(
+                "bookingReference", booking.getBookingReference(),
+                "amount", booking.getTotalAmount(),
+                "confirmedAt", booking.getConfirmedAt());
         
         logAuditEvent("payment_confirmed", "booking", booking.getId(),
                 "admin", adminUser, details, null, null);
     }
     
     public void logTicketGenerated(Ticket ticket, Booking booking) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("ticketReference", ticket.getTicketReference());
-        details.put("ticketType", ticket.getTicketType());
-        details.put("bookingReference", booking.getBookingReference());
+        Object[] details = pairs(
+                "ticketReference", ticket.getTicketReference(),
+                "ticketType", ticket.getTicketType(),
+                "bookingReference", booking.getBookingReference());
         
         logAuditEvent("ticket_generated", "ticket", ticket.getId(),
                 "admin", "system", details, null, null);
     }
     
     public void logTicketUsed(Ticket ticket, String checkerUser) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("ticketReference", ticket.getTicketReference());
-        details.put("usedAt", ticket.getUsedAt());
+        Object[] details = pairs(
+                "ticketReference", ticket.getTicketReference(),
+                "usedAt", ticket.getUsedAt());
         
         logAuditEvent("ticket_used", "ticket", ticket.getId(),
                 "admin", checkerUser, details, null, null);
     }
     
     public void logTicketDeleted(Ticket ticket, String adminUser, String reason) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("ticketReference", ticket.getTicketReference());
-        details.put("ticketType", ticket.getTicketType());
-        details.put("reason", reason);
+        Object[] details = pairs(
+                "ticketReference", ticket.getTicketReference(),
+                "ticketType", ticket.getTicketType(),
+                "reason", reason);
         
         logAuditEvent("ticket_deleted", "ticket", ticket.getId(),
                 "admin", adminUser, details, null, null);
     }
     
     public void logSettingsChanged(String key, String oldValue, String newValue, String adminUser) {
-        Map<String, Object> oldVal = new HashMap<>();
-        oldVal.put("value", oldValue);
-        Map<String, Object> newVal = new HashMap<>();
-        newVal.put("value", newValue);
-        Map<String, Object> details = new HashMap<>();
-        details.put("settingKey", key);
-        
         logAuditEvent("settings_changed", "settings", 0L,
-                "admin", adminUser, details, oldVal, newVal);
+                "admin", adminUser, pairs("settingKey", key), pairs("value", oldValue), pairs("value", newValue));
     }
     
     public void logBuyerConfirmedPayment(Booking booking) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("bookingReference", booking.getBookingReference());
-        details.put("amount", booking.getTotalAmount());
+        Object[] details = pairs(
+                "bookingReference", booking.getBookingReference(),
+                "amount", booking.getTotalAmount());
         
         logAuditEvent("buyer_payment_confirmed", "booking", booking.getId(),
                 "buyer", booking.getPhone(), details, null, null);
     }
     
+    public void logReservationExpired(Booking booking) {
+        Object[] details = pairs(
+                "bookingReference", booking.getBookingReference(),
+                "releasedTickets", booking.getTotalTickets(),
+                "createdAt", booking.getCreatedAt());
+        
+        logAuditEvent("reservation_expired", "booking", booking.getId(),
+                "system", "reservation-expiry", details, null, null);
+    }
+    
     public void logBookingUpdated(Booking booking, Map<String, Object> changedFields, String adminUser) {
-        Map<String, Object> details = new HashMap<>();
-        details.put("bookingReference", booking.getBookingReference());
+        Object[] details = pairs("bookingReference", booking.getBookingReference());
         
         Map<String, Object> oldValue = new HashMap<>();
         Map<String, Object> newValue = new HashMap<>();
@@ -149,8 +144,8 @@ public class AuditService {
         }
         
         logAuditEvent("booking_updated", "booking", booking.getId(),
-                "admin", adminUser, details, oldValue.isEmpty() ? null : oldValue, 
-                newValue.isEmpty() ? null : newValue);
+                "admin", adminUser, details, oldValue.isEmpty() ? null : pairs(oldValue), 
+                newValue.isEmpty() ? null : pairs(newValue));
     }
     
 }
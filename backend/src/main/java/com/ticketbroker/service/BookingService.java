@@ -1,10 +1,14 @@
 package com.ticketbroker.service;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,6 +18,7 @@ import com.ticketbroker.model.Show;
 import com.ticketbroker.repository.BookingRepository;
 import com.ticketbroker.repository.ShowRepository;
 import com.ticketbroker.repository.TicketRepository;
+import com.ticketbroker.service.ReferenceFilterService.ReferenceKind;
 import com.ticketbroker.util.BookingReferenceGenerator;
 
 @Service
@@ -24,29 +29,64 @@ public class BookingService {
     private final AuditService auditService;
     private final TicketService ticketService;
     private final TicketRepository ticketRepository;
+    private final DoorEntryFeedService doorEntryFeedService;
+    private final ReferenceFilterService referenceFilterService;
+    private final PublicSnapshotService publicSnapshotService;
+    private final SeatHoldService seatHoldService;
 
     public BookingService(BookingRepository bookingRepository, ShowRepository showRepository,
             BookingReferenceGenerator bookingReferenceGenerator,
             AuditService auditService, TicketService ticketService,
-            TicketRepository ticketRepository) {
+            TicketRepository ticketRepository, DoorEntryFeedService doorEntryFeedService,
+            ReferenceFilterService referenceFilterService, PublicSnapshotService publicSnapshotService,
+            SeatHoldService seatHoldService) {
         this.bookingRepository = bookingRepository;
         this.showRepository = showRepository;
         this.bookingReferenceGenerator = bookingReferenceGenerator;
         this.auditService = auditService;
         this.ticketService = ticketService;
         this.ticketRepository = ticketRepository;
+        this.doorEntryFeedService = doorEntryFeedService;
+        this.referenceFilterService = referenceFilterService;
+        this.publicSnapshotService = publicSnapshotService;
+        this.seatHoldService = seatHoldService;
     }
 
+    // Timed here as well: the call below does not go through the proxy
     @Transactional
+    @Timed(value = "ticketbroker.booking.create", histogram = true)
     public Booking createBooking(Booking booking) {
+        return createBooking(booking, null);
+    }
+
+    /**
+     * Creates a reserved booking. With a valid seat hold for the same show and ticket count the held seats are
+     * used as they are; without one the tickets are taken from the show as usual. An expired or mismatched
+     * hold is released first, so its seats are not counted twice.
+     */
+    @Transactional
+    @Timed(value = "ticketbroker.booking.create", histogram = true)
+    public Booking createBooking(Booking booking, String holdToken) {
         Objects.requireNonNull(booking.getShow(), "Booking show cannot be null");
         Long showId = Objects.requireNonNull(booking.getShow().getId(), "Show ID cannot be null");
+        // Before the show is read: a hold that cannot be used gives its seats back to the show first
+        boolean held = holdToken != null && seatHoldService.consume(holdToken, showId, booking.getTotalTickets());
         Show show = showRepository.findById(showId)
                 .orElseThrow(() -> new IllegalArgumentException("Show not found"));
 
-        // Check availability
-        if (show.getAvailableTickets() < booking.getTotalTickets()) {
-            throw new IllegalArgumentException("Not enough tickets available");
+        if (!held) {
+            // Check availability
+            if (show.getAvailableTickets() < booking.getTotalTickets()) {
+                throw new IllegalArgumentException("Not enough tickets available");
+            }
+
+            // Decrease available tickets immediately when booking is created (RESERVED)
+            // The conditional update re-checks availability in the database, so concurrent bookings cannot
+            // oversell the show. The loaded show keeps its old count and is not written back.
+            if (showRepository.reserveTickets(showId, booking.getTotalTickets()) == 0) {
+                throw new IllegalArgumentException("Not enough tickets available");
+            }
+            publicSnapshotService.showsChanged();
         }
 
         // Generate booking reference
@@ -56,11 +96,7 @@ public class BookingService {
         booking.setShow(show);
 
         Booking saved = bookingRepository.save(booking);
-
-        // Decrease available tickets immediately when booking is created (RESERVED)
-        // This prevents overbooking when multiple customers book before admin confirms
-        show.setAvailableTickets(Math.max(0, show.getAvailableTickets() - saved.getTotalTickets()));
-        showRepository.save(show);
+        referenceFilterService.referenceAdded(ReferenceKind.BOOKING, saved.getBookingReference());
 
         // Log booking creation
         auditService.logBookingCreated(saved);
@@ -69,21 +105,26 @@ public class BookingService {
     }
 
     public Optional<Booking> findByReference(String bookingReference) {
-        return bookingRepository.findByBookingReference(bookingReference);
+        return referenceFilterService.lookup(ReferenceKind.BOOKING, bookingReference,
+                () -> bookingRepository.findByBookingReference(bookingReference));
     }
 
     public Optional<Booking> findByReferenceAndEmail(String bookingReference, String email) {
-        return bookingRepository.findByBookingReferenceAndEmail(bookingReference, email);
+        return referenceFilterService.lookup(ReferenceKind.BOOKING, bookingReference,
+                () -> bookingRepository.findByBookingReferenceAndEmail(bookingReference, email));
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByShow(Long showId) {
         return bookingRepository.findByShowId(showId);
     }
 
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByStatus(BookingStatus status) {
         return bookingRepository.findByStatus(status);
     }
@@ -98,6 +139,9 @@ public class BookingService {
 
     @Transactional
     public void initiatePayment(Booking booking) {
+        if (booking.getStatus() == BookingStatus.EXPIRED) {
+            throw new IllegalArgumentException("Reservation has expired");
+        }
         booking.setSwishPaymentInitiated(true);
         booking.setSwishPaymentInitiatedAt(LocalDateTime.now());
         bookingRepository.save(booking);
@@ -114,7 +158,12 @@ public class BookingService {
     }
 
     @Transactional
+    @Timed(value = "ticketbroker.booking.confirm_payment", histogram = true)
     public Booking confirmPaymentByAdmin(Booking booking, String adminUser) {
+        if (lockCurrentStatus(booking) == BookingStatus.EXPIRED) {
+            // Late payment: the tickets were released and have to be taken again
+            retakeTickets(booking);
+        }
         booking.setStatus(BookingStatus.CONFIRMED);
         booking.setConfirmedAt(LocalDateTime.now());
         Booking saved = bookingRepository.save(booking);
@@ -140,8 +189,11 @@ public class BookingService {
                 .filter(b -> b.getStatus() == BookingStatus.RESERVED || b.getStatus() == BookingStatus.CONFIRMED)
                 .mapToInt(b -> b.getAdultTickets() + b.getStudentTickets())
                 .sum();
-        show.setAvailableTickets(Math.max(0, show.getTotalTickets() - totalBooked));
+        // Held seats are already taken from the show and come back on their own when the hold expires
+        long held = seatHoldService.heldSeats(show.getId());
+        show.setAvailableTickets((int) Math.max(0, show.getTotalTickets() - totalBooked - held));
         showRepository.save(show);
+        publicSnapshotService.showsChanged();
     }
 
     @Transactional
@@ -156,14 +208,30 @@ public class BookingService {
         if (show != null && (booking.getStatus() == BookingStatus.RESERVED || booking.getStatus() == BookingStatus.CONFIRMED)) {
             show.setAvailableTickets(Math.min(show.getTotalTickets(), show.getAvailableTickets() + booking.getTotalTickets()));
             showRepository.save(show);
+            publicSnapshotService.showsChanged();
         }
         
         bookingRepository.deleteById(bookingId);
+        referenceFilterService.referencesRemoved(ReferenceKind.BOOKING, 1);
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            referenceFilterService.referencesRemoved(ReferenceKind.TICKET, booking.getTotalTickets());
+        }
+        if (show != null && booking.getStatus() == BookingStatus.CONFIRMED) {
+            // Tickets are removed by cascade, so the door counters have to be reseeded
+            doorEntryFeedService.invalidate(show.getId());
+        }
     }
 
     @Transactional
     public Booking updateBookingStatus(Booking booking, BookingStatus newStatus, String adminUser) {
-        BookingStatus oldStatus = booking.getStatus();
+        if (newStatus == BookingStatus.EXPIRED) {
+            throw new IllegalArgumentException("Bookings are only expired by the reservation expiry job");
+        }
+        BookingStatus oldStatus = lockCurrentStatus(booking);
+
+        if (oldStatus == BookingStatus.EXPIRED) {
+            retakeTickets(booking);
+        }
 
         // If changing from confirmed to something else
         if (oldStatus == BookingStatus.CONFIRMED && newStatus != BookingStatus.CONFIRMED) {
@@ -182,6 +250,10 @@ public class BookingService {
                 auditService.logTicketDeleted(ticket, adminUser,
                         "Booking status changed from confirmed to " + newStatus.name());
             }
+            if (!tickets.isEmpty()) {
+                doorEntryFeedService.invalidate(booking.getShow().getId());
+                referenceFilterService.referencesRemoved(ReferenceKind.TICKET, tickets.size());
+            }
 
             // Update show availability
             // When changing from CONFIRMED to RESERVED, tickets are still "booked" so available tickets remain decreased
@@ -203,4 +275,42 @@ public class BookingService {
         booking.setStatus(newStatus);
         return bookingRepository.save(booking);
     }
+
+    /**
+     * Expires one batch of unpaid reservations and gives their tickets back to the shows. Rows another node is
+     * expiring at the same time are skipped, so each booking is expired, and its buyer notified, once.
+     */
+    @Transactional
+    public List<Booking> expireReservations(LocalDateTime unpaidBefore, LocalDateTime paymentStartedBefore,
+            int limit) {
+        List<Long> ids = bookingRepository.lockExpiredReservationIds(unpaidBefore, paymentStartedBefore, limit);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Booking> expired = bookingRepository.findWithShowByIdIn(ids);
+        Map<Long, Integer> releasedPerShow = new HashMap<>();
+        for (Booking booking : expired) {
+            booking.setStatus(BookingStatus.EXPIRED);
+            releasedPerShow.merge(booking.getShow().getId(), booking.getTotalTickets(), Integer::sum);
+            auditService.logReservationExpired(booking);
+        }
+        bookingRepository.saveAll(expired);
+        releasedPerShow.forEach(showRepository::releaseTickets);
+        publicSnapshotService.showsChanged();
+        return expired;
+    }
+
+    // Row lock against the expiry job; also sees an expiry that committed after the booking was loaded
+    private BookingStatus lockCurrentStatus(Booking booking) {
+        return bookingRepository.lockStatus(booking.getId())
+                .map(status -> BookingStatus.valueOf(status.toUpperCase(Locale.ROOT)))
+                .orElseThrow(() -> new IllegalArgumentException("Booking not found"));
+    }
+
+    private void retakeTickets(Booking booking) {
+        if (showRepository.reserveTickets(booking.getShow().getId(), booking.getTotalTickets()) == 0) {
+            throw new IllegalArgumentException("Not enough tickets available");
+        }
+        publicSnapshotService.showsChanged();
+    }
 }
@@ -0,0 +1,419 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.dto.DoorEntryEvent;
+import com.ticketbroker.model.Show;
+import com.ticketbroker.model.Ticket;
+import com.ticketbroker.repository.ShowRepository;
+import com.ticketbroker.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes door scans and running admitted/remaining counts to admin clients over SSE.
+ * Counts are kept in memory per show and only seeded from the database the first time a show is seen; scans
+ * and ticket changes adjust them by their delta once their transaction has committed, without any query.
+ * A seed only counts when no ticket change committed while its queries ran, so a change is either in the seed
+ * or applied to it as a delta, never both.
+ * Delivery happens on a small dispatcher pool with a bounded queue per client, so a slow client
+ * is dropped instead of ever blocking the thread that marks the ticket as used.
+ */
+@Service
+public class DoorEntryFeedService {
+    private static final Logger logger = LoggerFactory.getLogger(DoorEntryFeedService.class);
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int MAX_PENDING_EVENTS = 64;
+    private static final int DISPATCHER_THREADS = 2;
+    private static final int MAX_SEED_ATTEMPTS = 5;
+    private static final long SEED_WAIT_MS = 200;
+
+    private final TicketRepository ticketRepository;
+    private final ShowRepository showRepository;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final Counter counterHits;
+    private final Counter counterMisses;
+
+    // Guards counters, committing and changes
+    private final ReentrantLock countersLock = new ReentrantLock();
+    private final Condition noCommitInProgress = countersLock.newCondition();
+    private final Map<Long, ShowCounters> counters = new HashMap<>();
+    // Ticket changes between their commit and the delta being applied
+    private int committing;
+    // Ticket changes that started committing, ever; a seed is stale when this moved during its queries
+    private long changes;
+
+    public DoorEntryFeedService(TicketRepository ticketRepository, ShowRepository showRepository,
+                                MeterRegistry meterRegistry) {
+        this.ticketRepository = ticketRepository;
+        this.showRepository = showRepository;
+        this.counterHits = Counter.builder("ticketbroker.cache.requests")
+                .tag("cache", "door_counters")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.counterMisses = Counter.builder("ticketbroker.cache.requests")
+                .tag("cache", "door_counters")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(DISPATCHER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "door-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SseEmitter subscribe(Long showId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, showId);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Initial snapshot so the client has counts before the first scan
+        List<Long> showIds = showId != null
+                ? List.of(showId)
+                : showRepository.findAllByOrderByDateAscStartTimeAsc().stream().map(Show::getId).toList();
+        for (Long id : showIds) {
+            subscriber.offer(snapshot(id));
+        }
+
+        subscribers.add(subscriber);
+        subscriber.scheduleDrain();
+        return emitter;
+    }
+
+    public DoorEntryEvent snapshot(Long showId) {
+        DoorEntryEvent event = new DoorEntryEvent("snapshot", showId, null, null, null, LocalDateTime.now(),
+                null, null, null);
+        seed(showId);
+        countersLock.lock();
+        try {
+            counters.get(showId).copyTo(event);
+        } finally {
+            countersLock.unlock();
+        }
+        return event;
+    }
+
+    public void ticketAdmitted(Ticket ticket) {
+        publishOnCommit(ticket, "admitted", 1, 0);
+    }
+
+    public void ticketReset(Ticket ticket) {
+        publishOnCommit(ticket, "reset", -1, 0);
+    }
+
+    public void ticketsIssued(List<Ticket> tickets) {
+        if (tickets.isEmpty()) {
+            return;
+        }
+        Ticket first = tickets.get(0);
+        Long showId = first.getShow() != null ? first.getShow().getId() : null;
+        if (showId == null) {
+            return;
+        }
+        int count = tickets.size();
+        DoorEntryEvent event = new DoorEntryEvent("issued", showId, null, null, null, LocalDateTime.now(),
+                null, null, null);
+        onCommit(() -> publish(event, 0, count));
+    }
+
+    public void ticketRemoved(Ticket ticket) {
+        publishOnCommit(ticket, "removed", Boolean.TRUE.equals(ticket.getIsUsed()) ? -1 : 0, -1);
+    }
+
+    /**
+     * Drops the cached counters for a show so they are reseeded from the database on next use.
+     * Used where tickets are removed in bulk outside of TicketService.
+     */
+    public void invalidate(Long showId) {
+        if (showId != null) {
+            onCommit(() -> {
+                countersLock.lock();
+                try {
+                    counters.remove(showId);
+                } finally {
+                    countersLock.unlock();
+                }
+            });
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+
+    private void publishOnCommit(Ticket ticket, String type, int admittedDelta, int issuedDelta) {
+        Long showId = ticket.getShow() != null ? ticket.getShow().getId() : null;
+        if (showId == null) {
+            return;
+        }
+        // Capture the ticket state now; the entity may change before the transaction commits
+        DoorEntryEvent event = new DoorEntryEvent(type, showId, ticket.getTicketReference(), ticket.getTicketType(),
+                ticket.getCheckedBy(), LocalDateTime.now(), null, null, null);
+        onCommit(() -> publish(event, admittedDelta, issuedDelta));
+    }
+
+    // Runs the action after commit and marks the change as committing from just before the commit until then
+    private void onCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean started;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    startCommit();
+                    started = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (started) {
+                        endCommit();
+                    }
+                }
+            });
+        } else {
+            startCommit();
+            try {
+                action.run();
+            } finally {
+                endCommit();
+            }
+        }
+    }
+
+    private void startCommit() {
+        countersLock.lock();
+        try {
+            committing++;
+            changes++;
+        } finally {
+            countersLock.unlock();
+        }
+    }
+
+    private void endCommit() {
+        countersLock.lock();
+        try {
+            if (--committing == 0) {
+                noCommitInProgress.signalAll();
+            }
+        } finally {
+            countersLock.unlock();
+        }
+    }
+
+    private void publish(DoorEntryEvent event, int admittedDelta, int issuedDelta) {
+        countersLock.lock();
+        try {
+            ShowCounters showCounters = counters.get(event.getShowId());
+            if (showCounters != null) {
+                counterHits.increment();
+                showCounters.admitted += admittedDelta;
+                showCounters.issued += issuedDelta;
+                showCounters.copyTo(event);
+            }
+        } finally {
+            countersLock.unlock();
+        }
+
+        if (event.getIssued() == null) {
+            // First change for this show: seed off the committing thread, the seed then includes this change
+            if (hasSubscribers(event.getShowId())) {
+                dispatcher.execute(() -> {
+                    try {
+                        DoorEntryEvent snapshot = snapshot(event.getShowId());
+                        event.setAdmitted(snapshot.getAdmitted());
+                        event.setIssued(snapshot.getIssued());
+                        event.setRemaining(snapshot.getRemaining());
+                        deliver(event);
+                    } catch (Exception e) {
+                        logger.warn("Failed to seed door counters for show {}: {}", event.getShowId(),
+                                e.getMessage());
+                    }
+                });
+            }
+            return;
+        }
+        deliver(event);
+    }
+
+    private void deliver(DoorEntryEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.wants(event.getShowId())) {
+                continue;
+            }
+            if (!subscriber.offer(event)) {
+                logger.info("Dropping slow door feed client ({} pending events)", MAX_PENDING_EVENTS);
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            subscriber.scheduleDrain();
+        }
+    }
+
+    private boolean hasSubscribers(Long showId) {
+        return subscribers.stream().anyMatch(subscriber -> subscriber.wants(showId));
+    }
+
+    /**
+     * Counts the show's tickets unless its counters are already cached. The counts are only kept when no ticket
+     * change started committing while they ran; otherwise the seed is retried, and after MAX_SEED_ATTEMPTS kept
+     * anyway with a warning.
+     */
+    private void seed(Long showId) {
+        for (int attempt = 1; ; attempt++) {
+            long changesBefore;
+            countersLock.lock();
+            try {
+                if (counters.containsKey(showId)) {
+                    if (attempt == 1) {
+                        counterHits.increment();
+                    }
+                    return;
+                }
+                if (attempt == 1) {
+                    counterMisses.increment();
+                }
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SEED_WAIT_MS);
+                while (committing > 0 && System.nanoTime() < deadline) {
+                    noCommitInProgress.awaitNanos(deadline - System.nanoTime());
+                }
+                changesBefore = changes;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while seeding door counters", e);
+            } finally {
+                countersLock.unlock();
+            }
+
+            int issued = (int) ticketRepository.countByShowId(showId);
+            int admitted = (int) ticketRepository.countByShowIdAndIsUsed(showId, true);
+
+            countersLock.lock();
+            try {
+                if (counters.containsKey(showId)) {
+                    return;
+                }
+                boolean consistent = committing == 0 && changes == changesBefore;
+                if (consistent || attempt == MAX_SEED_ATTEMPTS) {
+                    if (!consistent) {
+                        logger.warn("Door counters for show {} seeded while tickets kept changing; "
+                                + "counts may be off until the next reseed", showId);
+                    }
+                    counters.put(showId, new ShowCounters(issued, admitted));
+                    return;
+                }
+            } finally {
+                countersLock.unlock();
+            }
+        }
+    }
+
+    // Guarded by countersLock
+    private static class ShowCounters {
+        private int issued;
+        private int admitted;
+
+        ShowCounters(int issued, int admitted) {
+            this.issued = issued;
+            this.admitted = admitted;
+        }
+
+        void copyTo(DoorEntryEvent event) {
+            event.setAdmitted(admitted);
+            event.setIssued(issued);
+            event.setRemaining(Math.max(0, issued - admitted));
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Long showId;
+        private final BlockingQueue<DoorEntryEvent> pending = new ArrayBlockingQueue<>(MAX_PENDING_EVENTS);
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+
+        Subscriber(SseEmitter emitter, Long showId) {
+            this.emitter = emitter;
+            this.showId = showId;
+        }
+
+        boolean wants(Long eventShowId) {
+            return showId == null || showId.equals(eventShowId);
+        }
+
+        boolean offer(DoorEntryEvent event) {
+            return pending.offer(event);
+        }
+
+        void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (Exception e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                DoorEntryEvent event;
+                while ((event = pending.poll()) != null) {
+                    emitter.send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                pending.clear();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // An event may have been queued between the last poll and releasing the flag
+            if (!pending.isEmpty() && subscribers.contains(this)) {
+                scheduleDrain();
+            }
+        }
+    }
+}
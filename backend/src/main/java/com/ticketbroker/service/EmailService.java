@@ -3,7 +3,13 @@ package com.ticketbroker.service;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -11,17 +17,34 @@ import org.springframework.stereotype.Service;
 
 import com.ticketbroker.model.Booking;
 
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
 @Service
+@Timed(value = "ticketbroker.email.send", histogram = true)
 public class EmailService {
+    // Concurrent SMTP conversations when requests run on virtual threads
+    private static final int SMTP_THREADS = 4;
+
     private final JavaMailSender mailSender;
     private final SettingsService settingsService;
+    private final ExecutorService smtpExecutor;
 
     public EmailService(JavaMailSender mailSender, SettingsService settingsService) {
         this.mailSender = mailSender;
         this.settingsService = settingsService;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.smtpExecutor = Executors.newFixedThreadPool(SMTP_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        smtpExecutor.shutdown();
     }
 
     public void sendBookingConfirmation(Booking booking, String paymentUrl) throws MessagingException {
@@ -46,7 +69,7 @@ public class EmailService {
         Objects.requireNonNull(htmlContent, "HTML content cannot be null");
         helper.setText(htmlContent, true);
 
-        mailSender.send(message);
+        send(message);
     }
 
     public void sendPaymentConfirmed(Booking booking, byte[] pdfData) throws MessagingException {
@@ -88,7 +111,7 @@ public class EmailService {
         helper.addAttachment("biljetter_" + bookingReference + ".pdf",
                 new ByteArrayResource(pdfData));
 
-        mailSender.send(message);
+        send(message);
     }
 
     private String formatDateForSwedish(LocalDate date) {
@@ -113,7 +136,33 @@ public class EmailService {
         Objects.requireNonNull(htmlContent, "HTML content cannot be null");
         helper.setText(htmlContent, true);
 
-        mailSender.send(message);
+        send(message);
+    }
+
+    public void sendReservationExpired(Booking booking) throws MessagingException {
+        String adminEmail = Objects.requireNonNull(
+                settingsService.getValue("admin_email", "klasskonsertgruppen@gmail.com"), "Admin email cannot be null");
+        String concertName = Objects.requireNonNull(settingsService.getValue("concert_name", "Klasskonsert 24C"),
+                "Concert name cannot be null");
+        String contactEmail = Objects.requireNonNull(settingsService.getValue("contact_email", "admin@example.com"),
+                "Contact email cannot be null");
+        String bookingEmail = Objects.requireNonNull(booking.getEmail(), "Booking email cannot be null");
+        String bookingReference = Objects.requireNonNull(booking.getBookingReference(),
+                "Booking reference cannot be null");
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, StandardCharsets.UTF_8.name());
+
+        helper.setFrom(adminEmail);
+        helper.setTo(bookingEmail);
+        helper.setReplyTo(contactEmail);
+        helper.setSubject("Reservationen har gått ut - " + bookingReference);
+
+        String htmlContent = buildReservationExpiredEmail(booking, concertName, contactEmail);
+        Objects.requireNonNull(htmlContent, "HTML content cannot be null");
+        helper.setText(htmlContent, true);
+
+        send(message);
     }
 
     private String buildBookingConfirmationEmail(Booking booking, String paymentUrl,
@@ -298,6 +347,38 @@ public class EmailService {
                 contactEmail);
     }
 
+    private String buildReservationExpiredEmail(Booking booking, String concertName, String contactEmail) {
+        return String.format("""
+                <h2>Din reservation har gått ut</h2>
+                <p>Hej %s,</p>
+                <p>Vi har inte fått någon betalning för din reservation till %s, så biljetterna har släppts till andra besökare.</p>
+
+                <h3>Bokningsreferens: <strong>%s</strong></h3>
+
+                <ul>
+                    <li><strong>Datum:</strong> %s</li>
+                    <li><strong>Tid:</strong> %s-%s</li>
+                    <li><strong>Ordinariebiljetter:</strong> %d st</li>
+                    <li><strong>Studentbiljetter:</strong> %d st</li>
+                </ul>
+
+                <p>Vill du fortfarande gå kan du göra en ny reservation på hemsidan så länge det finns biljetter kvar. Har du redan betalat? Kontakta oss på <a href="mailto:%s">%s</a> och ange bokningsreferensen.</p>
+
+                <p>Med vänliga hälsningar,<br>%s-gruppen</p>
+                """,
+                booking.getFirstName(),
+                concertName,
+                booking.getBookingReference(),
+                booking.getShow().getDate() != null ? formatDateForSwedish(booking.getShow().getDate()) : "",
+                booking.getShow().getStartTime(),
+                booking.getShow().getEndTime(),
+                booking.getAdultTickets(),
+                booking.getStudentTickets(),
+                contactEmail,
+                contactEmail,
+                concertName);
+    }
+
     private String buildAdminNotificationEmail(Booking booking) {
         return String.format("""
                 <h2>Ny biljettreservation</h2>
@@ -381,6 +462,34 @@ public class EmailService {
 
         Objects.requireNonNull(htmlContent, "HTML content cannot be null");
         helper.setText(htmlContent, true);
-        mailSender.send(mimeMessage);
+        send(mimeMessage);
+    }
+
+    /**
+     * Angus Mail does the whole SMTP conversation inside synchronized methods of SMTPTransport, which pins a
+     * virtual thread to its carrier until the server answers. On a virtual thread the send is handed to a
+     * small platform pool and the caller just waits for it, which unmounts cleanly.
+     */
+    private void send(MimeMessage message) throws MessagingException {
+        if (!Thread.currentThread().isVirtual()) {
+            mailSender.send(message);
+            return;
+        }
+        Future<?> sent = smtpExecutor.submit(() -> mailSender.send(message));
+        try {
+            sent.get();
+        } catch (InterruptedException e) {
+            sent.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while sending mail", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new MessagingException("Failed to send mail", (Exception) e.getCause());
+        }
     }
 }
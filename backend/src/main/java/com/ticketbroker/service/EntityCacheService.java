@@ -0,0 +1,33 @@
+package com.ticketbroker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Eviction hook for the Hibernate second-level cache (Show, Settings and the cached queries, see ehcache.xml)
+ * and the public snapshots built from them. Writes made through Hibernate keep both current on their own;
+ * this is for changes made around it, such as SQL run against the database or writes by another instance.
+ */
+@Service
+public class EntityCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheService.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final PublicSnapshotService publicSnapshotService;
+
+    public EntityCacheService(EntityManagerFactory entityManagerFactory,
+                              PublicSnapshotService publicSnapshotService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.publicSnapshotService = publicSnapshotService;
+    }
+
+    public void evictAll() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        publicSnapshotService.showsChanged();
+        publicSnapshotService.settingsChanged();
+        logger.info("Evicted the second-level cache and the public snapshots");
+    }
+}
@@ -3,6 +3,7 @@ package com.ticketbroker.service;
 import com.ticketbroker.model.Booking;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -11,6 +12,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 @Service
+@Lazy
 public class ExcelService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
     
@@ -82,7 +84,7 @@ public class ExcelService {
                     .filter(b -> b.getStatus() == com.ticketbroker.model.BookingStatus.CONFIRMED)
                     .toList();
             List<Booking> reservedBookings = bookings.stream()
-                    .filter(b -> b.getStatus() != com.ticketbroker.model.BookingStatus.CONFIRMED)
+                    .filter(b -> b.getStatus() == com.ticketbroker.model.BookingStatus.RESERVED)
                     .toList();
             
             int totalRevenue = confirmedBookings.stream()
@@ -0,0 +1,63 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Show;
+import com.ticketbroker.repository.ShowRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Publishes total and available tickets per show as gauges.
+ * Shows are read on a fixed delay rather than per scrape, so a Prometheus scrape never touches the database.
+ */
+@Service
+public class InventoryMetricsService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryMetricsService.class);
+
+    private final ShowRepository showRepository;
+    private final MultiGauge totalTickets;
+    private final MultiGauge availableTickets;
+
+    public InventoryMetricsService(ShowRepository showRepository, MeterRegistry meterRegistry) {
+        this.showRepository = showRepository;
+        this.totalTickets = MultiGauge.builder("ticketbroker.show.tickets.total")
+                .description("Tickets for sale per show")
+                .register(meterRegistry);
+        this.availableTickets = MultiGauge.builder("ticketbroker.show.tickets.available")
+                .description("Tickets still available per show")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.inventory-refresh-ms:30000}", initialDelay = 5000)
+    public void refresh() {
+        List<Show> shows;
+        try {
+            shows = showRepository.findAllByOrderByDateAscStartTimeAsc();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh inventory metrics: {}", e.getMessage());
+            return;
+        }
+        // overwrite=true drops gauges for deleted shows
+        totalTickets.register(shows.stream()
+                .<MultiGauge.Row<?>>map(show -> MultiGauge.Row.of(tags(show),
+                        Objects.requireNonNullElse(show.getTotalTickets(), 0)))
+                .toList(), true);
+        availableTickets.register(shows.stream()
+                .<MultiGauge.Row<?>>map(show -> MultiGauge.Row.of(tags(show),
+                        Objects.requireNonNullElse(show.getAvailableTickets(), 0)))
+                .toList(), true);
+    }
+
+    private static Tags tags(Show show) {
+        return Tags.of("show", String.valueOf(show.getId()),
+                "date", String.valueOf(show.getDate()),
+                "start", String.valueOf(show.getStartTime()));
+    }
+}
@@ -2,6 +2,8 @@ package com.ticketbroker.service;
 
 import com.ticketbroker.model.Booking;
 import com.ticketbroker.model.Ticket;
+import com.ticketbroker.util.TicketPayloadSigner;
+import io.micrometer.core.annotation.Timed;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
@@ -9,6 +11,7 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
@@ -20,16 +23,23 @@ import java.time.LocalDate;
 import java.util.Base64;
 import java.util.Objects;
 
+// Created on first use, like QrCodeService and ExcelService (injection points are @Lazy too), so startup
+// does not load PDFBox, POI, ZXing and AWT
 @Service
+@Lazy
 public class PdfService {
     private final QrCodeService qrCodeService;
     private final SettingsService settingsService;
+    private final TicketPayloadSigner ticketPayloadSigner;
     
-    public PdfService(QrCodeService qrCodeService, SettingsService settingsService) {
+    public PdfService(QrCodeService qrCodeService, SettingsService settingsService,
+                      TicketPayloadSigner ticketPayloadSigner) {
         this.qrCodeService = qrCodeService;
         this.settingsService = settingsService;
+        this.ticketPayloadSigner = ticketPayloadSigner;
     }
     
+    @Timed(value = "ticketbroker.pdf.tickets", histogram = true)
     public byte[] generateTicketsPdf(Booking booking) throws IOException {
         try (PDDocument document = new PDDocument()) {
             String concertName = settingsService.getValue("concert_name", "Klasskonsert 24C");
@@ -157,12 +167,13 @@ public class PdfService {
         contentStream.endText();
         y -= 40;
         
-        // QR Code
+        // QR Code (signed payload when ticket signing is enabled)
+        String qrPayload = ticketPayloadSigner.qrPayload(ticket.getTicketReference(), booking.getShow().getId());
         String qrCodeBase64;
         if (logoBytes != null) {
-            qrCodeBase64 = qrCodeService.generateQrCodeWithLogoBase64(ticket.getTicketReference(), logoBytes);
+            qrCodeBase64 = qrCodeService.generateQrCodeWithLogoBase64(qrPayload, logoBytes);
         } else {
-            qrCodeBase64 = qrCodeService.generateQrCodeBase64(ticket.getTicketReference());
+            qrCodeBase64 = qrCodeService.generateQrCodeBase64(qrPayload);
         }
         
         byte[] qrCodeBytes = Base64.getDecoder().decode(qrCodeBase64);
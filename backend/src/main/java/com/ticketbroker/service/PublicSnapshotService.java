@@ -0,0 +1,206 @@
+package com.ticketbroker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketbroker.repository.SettingsRepository;
+import com.ticketbroker.repository.ShowRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Serialized JSON of the hottest public read endpoints (show list, public settings, initialization status),
+ * kept as bytes with an ETag so a request does no ORM or Jackson work. A snapshot is rebuilt by the first
+ * request after a change: writers call showsChanged() or settingsChanged(), which take effect when their
+ * transaction commits. Snapshots are also rebuilt once they are older than max-age, which picks up changes
+ * made by another backend instance or directly in the database.
+ */
+@Service
+public class PublicSnapshotService {
+    private static final String INITIALIZING_MESSAGE =
+            "Systemet är under initialisering. Bokning kommer att vara tillgänglig när all konfiguration är klar.";
+    private static final List<String> PUBLIC_SETTING_KEYS = List.of("concert_name", "concert_venue",
+            "adult_ticket_price", "student_ticket_price", "swish_number", "contact_email", "class_photo_data",
+            "class_photo_content_type");
+
+    public record Snapshot(byte[] body, String eTag) {
+    }
+
+    private final ShowRepository showRepository;
+    private final SettingsRepository settingsRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long maxAgeNanos;
+    private final AtomicLong showsVersion = new AtomicLong();
+    private final AtomicLong settingsVersion = new AtomicLong();
+    private final Cached shows;
+    private final Cached settings;
+    private final Cached initializationStatus;
+
+    public PublicSnapshotService(ShowRepository showRepository, SettingsRepository settingsRepository,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${app.public-snapshot.max-age-ms:30000}") long maxAgeMillis) {
+        this.showRepository = showRepository;
+        this.settingsRepository = settingsRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+        this.shows = new Cached("public_shows", showsVersion::get, showRepository::findSummaries);
+        this.settings = new Cached("public_settings", settingsVersion::get, this::publicSettings);
+        // Both counters only grow, so their sum changes whenever either does
+        this.initializationStatus = new Cached("public_initialization_status",
+                () -> showsVersion.get() + settingsVersion.get(), this::buildInitializationStatus);
+    }
+
+    public Snapshot shows() {
+        return shows.get();
+    }
+
+    public Snapshot settings() {
+        return settings.get();
+    }
+
+    public Snapshot initializationStatus() {
+        return initializationStatus.get();
+    }
+
+    /**
+     * A show was created, changed or deleted, or its available tickets changed.
+     */
+    public void showsChanged() {
+        afterCommit(showsVersion::incrementAndGet);
+    }
+
+    public void settingsChanged() {
+        afterCommit(settingsVersion::incrementAndGet);
+    }
+
+    private Map<String, String> publicSettings() {
+        Map<String, String> values = new HashMap<>();
+        for (SettingsRepository.KeyValue setting : settingsRepository.findByKeyIn(PUBLIC_SETTING_KEYS)) {
+            values.put(setting.getKey(), setting.getValue());
+        }
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("concertName", values.getOrDefault("concert_name", "Klasskonsert 24C"));
+        settings.put("concertVenue", values.getOrDefault("concert_venue", "Aulan på Rytmus Stockholm"));
+        settings.put("adultPrice", values.getOrDefault("adult_ticket_price", "200"));
+        settings.put("studentPrice", values.getOrDefault("student_ticket_price", "100"));
+        settings.put("swishNumber", values.getOrDefault("swish_number", "012 345 67 89"));
+        settings.put("contactEmail", values.getOrDefault("contact_email", "admin@example.com"));
+        String classPhotoData = values.get("class_photo_data");
+        if (classPhotoData != null) {
+            settings.put("classPhotoData", classPhotoData);
+            settings.put("classPhotoContentType", values.getOrDefault("class_photo_content_type", "image/jpeg"));
+        }
+        return settings;
+    }
+
+    private Map<String, Object> buildInitializationStatus() {
+        boolean hasShows = showRepository.count() > 0;
+        boolean hasClassPhoto = settingsRepository.findByKeyIn(List.of("class_photo_data")).stream()
+                .anyMatch(setting -> setting.getValue() != null && !setting.getValue().trim().isEmpty());
+        boolean isInitialized = hasShows && hasClassPhoto;
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("isInitialized", isInitialized);
+        status.put("hasShows", hasShows);
+        status.put("hasClassPhoto", hasClassPhoto);
+        status.put("message", isInitialized ? null : INITIALIZING_MESSAGE);
+        return status;
+    }
+
+    private Snapshot serialize(Object content) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(content);
+            return new Snapshot(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize public snapshot", e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Built(Snapshot snapshot, long version, long builtAt) {
+    }
+
+    /**
+     * One snapshot and the version of the data it was built from. Requests that find it outdated queue on
+     * a lock, so a change costs one rebuild however many requests are waiting for it.
+     */
+    private final class Cached {
+        private final LongSupplier version;
+        private final Supplier<Object> content;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Counter hits;
+        private final Counter misses;
+        private volatile Built built;
+
+        Cached(String name, LongSupplier version, Supplier<Object> content) {
+            this.version = version;
+            this.content = content;
+            this.hits = Counter.builder("ticketbroker.cache.requests")
+                    .tag("cache", name)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("ticketbroker.cache.requests")
+                    .tag("cache", name)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+        }
+
+        Snapshot get() {
+            Built current = built;
+            if (isFresh(current)) {
+                hits.increment();
+                return current.snapshot();
+            }
+            lock.lock();
+            try {
+                current = built;
+                if (isFresh(current)) {
+                    hits.increment();
+                    return current.snapshot();
+                }
+                misses.increment();
+                // Read the version before the data: a change committed meanwhile leaves this snapshot outdated
+                long buildVersion = version.getAsLong();
+                long builtAt = System.nanoTime();
+                Snapshot snapshot = serialize(content.get());
+                built = new Built(snapshot, buildVersion, builtAt);
+                return snapshot;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isFresh(Built current) {
+            return current != null && current.version() == version.getAsLong()
+                    && System.nanoTime() - current.builtAt() < maxAgeNanos;
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
@@ -18,6 +20,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 @Service
+@Lazy
+@Timed(value = "ticketbroker.qr.generate", histogram = true)
 public class QrCodeService {
     private static final int QR_CODE_SIZE = 300;
     private static final int LOGO_SIZE = 45; // 15% of QR code size
@@ -0,0 +1,242 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.repository.BookingRepository;
+import com.ticketbroker.repository.TicketRepository;
+import com.ticketbroker.util.ReferenceBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Keeps in-memory Bloom filters of existing booking and ticket references so lookups for references
+ * that cannot exist (typos, enumeration) are answered without a database round trip.
+ * References are added when they are created; deletions only make the filter stale, so it is rebuilt
+ * from the database once enough rows have been removed. Until the first build at startup completes
+ * every lookup goes to the database.
+ * The filters are per node and only learn references created through this instance, so this is off by default
+ * and must only be enabled when a single backend instance is the only writer of bookings and tickets.
+ */
+@Service
+public class ReferenceFilterService {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceFilterService.class);
+
+    public enum ReferenceKind { BOOKING, TICKET }
+
+    private final BookingRepository bookingRepository;
+    private final TicketRepository ticketRepository;
+    private final boolean enabled;
+    private final long minCapacity;
+    private final double falsePositiveRate;
+    private final double rebuildRemovedRatio;
+    private final Map<ReferenceKind, Guard> guards = new EnumMap<>(ReferenceKind.class);
+    private final ExecutorService rebuilder;
+
+    public ReferenceFilterService(BookingRepository bookingRepository, TicketRepository ticketRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.reference-filter.enabled:false}") boolean enabled,
+                                  @Value("${app.reference-filter.min-capacity:100000}") long minCapacity,
+                                  @Value("${app.reference-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${app.reference-filter.rebuild-removed-ratio:0.1}") double rebuildRemovedRatio) {
+        this.bookingRepository = bookingRepository;
+        this.ticketRepository = ticketRepository;
+        this.enabled = enabled;
+        this.minCapacity = minCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildRemovedRatio = rebuildRemovedRatio;
+        for (ReferenceKind kind : ReferenceKind.values()) {
+            guards.put(kind, new Guard(kind, meterRegistry));
+        }
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reference-filter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            for (ReferenceKind kind : ReferenceKind.values()) {
+                scheduleRebuild(kind);
+            }
+        }
+    }
+
+    /**
+     * Runs the loader only if the reference may exist; definite misses return empty without touching the database.
+     */
+    public <T> Optional<T> lookup(ReferenceKind kind, String reference, Supplier<Optional<T>> loader) {
+        Guard guard = guards.get(kind);
+        ReferenceBloomFilter filter = guard.current;
+        if (!enabled || filter == null || reference == null) {
+            guard.bypassed.increment();
+            return loader.get();
+        }
+        if (!filter.mightContain(reference)) {
+            guard.rejected.increment();
+            return Optional.empty();
+        }
+        Optional<T> result = loader.get();
+        if (result.isPresent()) {
+            guard.found.increment();
+        } else {
+            guard.falsePositives.increment();
+        }
+        return result;
+    }
+
+    public void referenceAdded(ReferenceKind kind, String reference) {
+        if (!enabled) {
+            return;
+        }
+        Guard guard = guards.get(kind);
+        // Added right away so a lookup just after commit never misses it, and again after commit
+        // in case a rebuild swapped the filter while the transaction was open
+        guard.put(reference);
+        afterCommit(() -> {
+            guard.put(reference);
+            if (guard.entries.incrementAndGet() > guard.capacity) {
+                scheduleRebuild(kind);
+            }
+        });
+    }
+
+    public void referencesRemoved(ReferenceKind kind, int count) {
+        if (!enabled || count <= 0) {
+            return;
+        }
+        Guard guard = guards.get(kind);
+        afterCommit(() -> {
+            long removed = guard.removed.addAndGet(count);
+            if (removed >= Math.max(1, guard.entries.get() * rebuildRemovedRatio)) {
+                scheduleRebuild(kind);
+            }
+        });
+    }
+
+    public boolean isReady(ReferenceKind kind) {
+        return guards.get(kind).current != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    void scheduleRebuild(ReferenceKind kind) {
+        Guard guard = guards.get(kind);
+        if (guard.rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> rebuild(kind));
+        }
+    }
+
+    void rebuild(ReferenceKind kind) {
+        Guard guard = guards.get(kind);
+        try {
+            long existing = guard.kind == ReferenceKind.BOOKING ? bookingRepository.count() : ticketRepository.count();
+            long capacity = Math.max(minCapacity, existing * 2);
+            ReferenceBloomFilter next = new ReferenceBloomFilter(capacity, falsePositiveRate);
+
+            // Publish before reading so references committed while loading also end up in the new filter
+            guard.building = next;
+            List<String> references = guard.kind == ReferenceKind.BOOKING
+                    ? bookingRepository.findAllBookingReferences()
+                    : ticketRepository.findAllTicketReferences();
+            references.forEach(next::put);
+
+            guard.capacity = capacity;
+            guard.entries.set(references.size());
+            guard.removed.set(0);
+            guard.current = next;
+            logger.info("Rebuilt {} reference filter with {} entries ({} bits, {} hashes)",
+                    guard.kind.name().toLowerCase(Locale.ROOT), references.size(), next.getBitCount(), next.getHashCount());
+        } catch (Exception e) {
+            logger.warn("Failed to rebuild {} reference filter, lookups keep using the previous state",
+                    guard.kind.name().toLowerCase(Locale.ROOT), e);
+        } finally {
+            guard.building = null;
+            guard.rebuilding.set(false);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Guard {
+        private final ReferenceKind kind;
+        private volatile ReferenceBloomFilter current;
+        private volatile ReferenceBloomFilter building;
+        private volatile long capacity = Long.MAX_VALUE;
+        private final AtomicLong entries = new AtomicLong();
+        private final AtomicLong removed = new AtomicLong();
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+        private final Counter rejected;
+        private final Counter found;
+        private final Counter falsePositives;
+        private final Counter bypassed;
+
+        Guard(ReferenceKind kind, MeterRegistry meterRegistry) {
+            this.kind = kind;
+            String type = kind.name().toLowerCase(Locale.ROOT);
+            this.rejected = lookupCounter(meterRegistry, type, "rejected");
+            this.found = lookupCounter(meterRegistry, type, "found");
+            this.falsePositives = lookupCounter(meterRegistry, type, "false_positive");
+            this.bypassed = lookupCounter(meterRegistry, type, "bypassed");
+            Gauge.builder("ticketbroker.reference.filter.entries", entries, AtomicLong::get)
+                    .tag("kind", type)
+                    .register(meterRegistry);
+            Gauge.builder("ticketbroker.reference.filter.removed", removed, AtomicLong::get)
+                    .description("Rows removed since the last rebuild; the filter still reports them as present")
+                    .tag("kind", type)
+                    .register(meterRegistry);
+        }
+
+        private static Counter lookupCounter(MeterRegistry meterRegistry, String type, String result) {
+            return Counter.builder("ticketbroker.reference.filter.lookups")
+                    .tag("kind", type)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private void put(String reference) {
+            ReferenceBloomFilter filter = current;
+            if (filter != null) {
+                filter.put(reference);
+            }
+            ReferenceBloomFilter next = building;
+            if (next != null) {
+                next.put(reference);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.repository.BookingRepository;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+
+/**
+ * Admin exports. Each runs in one read-only transaction, so the query and the lazy loads behind the workbook
+ * go to the read replica when one is configured.
+ */
+@Service
+public class ReportService {
+    private final BookingRepository bookingRepository;
+    private final ExcelService excelService;
+
+    public ReportService(BookingRepository bookingRepository, @Lazy ExcelService excelService) {
+        this.bookingRepository = bookingRepository;
+        this.excelService = excelService;
+    }
+
+    @Transactional(readOnly = true)
+    public byte[] exportBookings() throws IOException {
+        return excelService.exportBookingsToExcel(bookingRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public byte[] exportRevenueReport() throws IOException {
+        return excelService.exportRevenueReport(bookingRepository.findAll());
+    }
+}
@@ -0,0 +1,92 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expires reservations that were never paid and gives their tickets back to the show, so a show is not sold
+ * out by buyers who never pay. A reservation expires ttl-hours after it was made; if the buyer started or
+ * confirmed a Swish payment it gets payment-grace-hours more, since the admin may not have checked the
+ * account yet. Each batch is its own transaction and buyers are mailed after it commits.
+ * Safe to run on every node: batches lock their rows with SKIP LOCKED (BookingService.expireReservations).
+ * Off unless app.reservation-expiry.enabled is set, because the first run expires every reservation that is
+ * already past its TTL.
+ */
+@Service
+public class ReservationExpiryService {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryService.class);
+
+    private final BookingService bookingService;
+    private final EmailService emailService;
+    private final boolean enabled;
+    private final long ttlHours;
+    private final long paymentGraceHours;
+    private final int batchSize;
+    private final Counter expiredBookings;
+    private final Counter releasedTickets;
+
+    public ReservationExpiryService(BookingService bookingService, EmailService emailService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.reservation-expiry.enabled:false}") boolean enabled,
+                                    @Value("${app.reservation-expiry.ttl-hours:48}") long ttlHours,
+                                    @Value("${app.reservation-expiry.payment-grace-hours:72}") long paymentGraceHours,
+                                    @Value("${app.reservation-expiry.batch-size:100}") int batchSize) {
+        this.bookingService = bookingService;
+        this.emailService = emailService;
+        this.enabled = enabled;
+        this.ttlHours = ttlHours;
+        this.paymentGraceHours = paymentGraceHours;
+        this.batchSize = batchSize;
+        this.expiredBookings = Counter.builder("ticketbroker.reservations.expired")
+                .description("Unpaid reservations expired by this node")
+                .register(meterRegistry);
+        this.releasedTickets = Counter.builder("ticketbroker.reservations.released_tickets")
+                .description("Tickets given back to shows by expired reservations")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation-expiry.interval-ms:300000}", initialDelay = 60000)
+    public void expireReservations() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime unpaidBefore = LocalDateTime.now().minusHours(ttlHours);
+        LocalDateTime paymentStartedBefore = unpaidBefore.minusHours(paymentGraceHours);
+        List<Booking> batch;
+        do {
+            try {
+                batch = bookingService.expireReservations(unpaidBefore, paymentStartedBefore, batchSize);
+            } catch (Exception e) {
+                logger.warn("Failed to expire reservations, retrying on the next run: {}", e.getMessage());
+                return;
+            }
+            for (Booking booking : batch) {
+                expiredBookings.increment();
+                releasedTickets.increment(booking.getTotalTickets());
+                notifyBuyer(booking);
+            }
+            if (!batch.isEmpty()) {
+                logger.info("Expired {} unpaid reservations", batch.size());
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private void notifyBuyer(Booking booking) {
+        try {
+            emailService.sendReservationExpired(booking);
+        } catch (Exception e) {
+            // The reservation stays expired; the buyer can still ask the organizer
+            logger.warn("Failed to send expiry notice for booking {}: {}", booking.getBookingReference(),
+                    e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.ticketbroker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Gives the seats of expired holds back to their show. Every tick releases this node's holds that the timer
+ * wheel reports as due; the sweep catches holds made by other nodes or lost from memory by a restart, and any
+ * hold whose release failed on the tick. Safe to run on every node (SeatHoldService.releaseExpired).
+ */
+@Service
+public class SeatHoldExpiryService {
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldExpiryService.class);
+
+    private final SeatHoldService seatHoldService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter expiredHolds;
+
+    public SeatHoldExpiryService(SeatHoldService seatHoldService, MeterRegistry meterRegistry,
+                                 @Value("${app.seat-hold.expiry-enabled:true}") boolean enabled,
+                                 @Value("${app.seat-hold.sweep-batch-size:100}") int batchSize) {
+        this.seatHoldService = seatHoldService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.expiredHolds = Counter.builder("ticketbroker.seat_holds.expired")
+                .description("Seat holds released by this node after their deadline")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.seat-hold.tick-ms:1000}")
+    public void expireDueHolds() {
+        if (!enabled) {
+            return;
+        }
+        for (String token : seatHoldService.dueHolds(System.currentTimeMillis())) {
+            try {
+                // False when the booking used the hold or the buyer released it first
+                if (seatHoldService.release(token)) {
+                    expiredHolds.increment();
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to release seat hold, leaving it to the sweep: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.seat-hold.sweep-interval-ms:30000}", initialDelay = 10000)
+    public void sweepExpiredHolds() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int released;
+        do {
+            try {
+                released = seatHoldService.releaseExpired(now, batchSize);
+            } catch (Exception e) {
+                logger.warn("Failed to sweep expired seat holds, retrying on the next run: {}", e.getMessage());
+                return;
+            }
+            expiredHolds.increment(released);
+            if (released > 0) {
+                logger.info("Released {} expired seat holds", released);
+            }
+        } while (released == batchSize);
+    }
+}
@@ -0,0 +1,160 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.SeatHold;
+import com.ticketbroker.repository.SeatHoldRepository;
+import com.ticketbroker.repository.ShowRepository;
+import com.ticketbroker.util.TimerWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived seat holds: the seats are taken from the show when the buyer picks them, and the booking
+ * consumes the hold instead of checking availability again. Each hold is a seat_holds row, so holds survive a
+ * restart and are shared by all nodes; whoever deletes the row (consume, release or expiry) owns the seats.
+ * This node also keeps its own holds in a timer wheel so they expire within a second of their deadline;
+ * SeatHoldExpiryService sweeps the table for holds this node does not know about. One client (remote address)
+ * can hold at most app.seat-hold.max-seats-per-client seats at a time, across all shows and nodes.
+ */
+@Service
+public class SeatHoldService {
+    public static final String NOT_ENOUGH_TICKETS = "Not enough tickets available";
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int BUCKETS = 512;
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final ShowRepository showRepository;
+    private final PublicSnapshotService publicSnapshotService;
+    private final long ttlSeconds;
+    private final int maxSeats;
+    private final int maxSeatsPerClient;
+    private final TimerWheel<String> expiries = new TimerWheel<>(TICK_MILLIS, BUCKETS, System.currentTimeMillis());
+
+    public SeatHoldService(SeatHoldRepository seatHoldRepository, ShowRepository showRepository,
+                           PublicSnapshotService publicSnapshotService, MeterRegistry meterRegistry,
+                           @Value("${app.seat-hold.ttl-seconds:300}") long ttlSeconds,
+                           @Value("${app.seat-hold.max-seats:10}") int maxSeats,
+                           @Value("${app.seat-hold.max-seats-per-client:20}") int maxSeatsPerClient) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.showRepository = showRepository;
+        this.publicSnapshotService = publicSnapshotService;
+        this.ttlSeconds = ttlSeconds;
+        this.maxSeats = maxSeats;
+        this.maxSeatsPerClient = maxSeatsPerClient;
+        Gauge.builder("ticketbroker.seat_holds.pending", expiries, TimerWheel::size)
+                .description("Seat holds made by this node that are waiting for expiry")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes the seats from the show for the client. Throws IllegalArgumentException for a seat count out of
+     * range or, with NOT_ENOUGH_TICKETS, when the show has fewer seats left; IllegalStateException when the
+     * client's unexpired holds would then exceed the per-client cap.
+     */
+    @Transactional
+    public SeatHold hold(Long showId, int seats, String clientKey) {
+        if (seats < 1 || seats > maxSeats) {
+            throw new IllegalArgumentException("Seats must be between 1 and " + maxSeats);
+        }
+        seatHoldRepository.lockClient(clientKey);
+        if (seatHoldRepository.sumActiveSeatsByClientKey(clientKey, LocalDateTime.now()) + seats > maxSeatsPerClient) {
+            throw new IllegalStateException("Too many seats held");
+        }
+        if (showRepository.reserveTickets(showId, seats) == 0) {
+            throw new IllegalArgumentException(NOT_ENOUGH_TICKETS);
+        }
+        SeatHold hold = new SeatHold();
+        hold.setToken(UUID.randomUUID().toString());
+        hold.setShowId(showId);
+        hold.setSeats(seats);
+        hold.setClientKey(clientKey);
+        hold.setExpiresAt(LocalDateTime.now().plusSeconds(ttlSeconds));
+        SeatHold saved = seatHoldRepository.save(hold);
+        publicSnapshotService.showsChanged();
+
+        long deadline = System.currentTimeMillis() + ttlSeconds * 1000;
+        afterCommit(() -> expiries.schedule(saved.getToken(), deadline));
+        return saved;
+    }
+
+    /**
+     * Uses up the hold for a booking of this show and seat count. Returns true when the hold was still valid;
+     * its seats then belong to the booking and must not be taken from the show again. A hold that is still
+     * there but has expired (and was not swept yet) or was made for other seats is released instead, so its
+     * seats are back in the show before the booking takes its own. Runs in the booking's transaction, so a
+     * failed booking keeps the hold.
+     */
+    @Transactional
+    public boolean consume(String token, Long showId, int seats) {
+        if (seatHoldRepository.consume(token, showId, seats, LocalDateTime.now()) == 1) {
+            return true;
+        }
+        release(token);
+        return false;
+    }
+
+    // Gives the held seats back; false when the hold was already used, released or expired elsewhere
+    @Transactional
+    public boolean release(String token) {
+        Optional<SeatHold> hold = seatHoldRepository.findWithLockByToken(token);
+        if (hold.isEmpty()) {
+            return false;
+        }
+        seatHoldRepository.delete(hold.get());
+        showRepository.releaseTickets(hold.get().getShowId(), hold.get().getSeats());
+        publicSnapshotService.showsChanged();
+        return true;
+    }
+
+    /**
+     * Releases up to limit expired holds from the table, including holds made by other nodes or before a
+     * restart. Rows locked by another node's sweep are skipped. Returns the number of holds released.
+     */
+    @Transactional
+    public int releaseExpired(LocalDateTime now, int limit) {
+        List<SeatHold> expired = seatHoldRepository.lockExpired(now, limit);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        seatHoldRepository.deleteAllInBatch(expired);
+        Map<Long, Integer> seatsByShow = expired.stream()
+                .collect(Collectors.groupingBy(SeatHold::getShowId, Collectors.summingInt(SeatHold::getSeats)));
+        seatsByShow.forEach(showRepository::releaseTickets);
+        publicSnapshotService.showsChanged();
+        return expired.size();
+    }
+
+    // Tokens of this node's holds whose deadline has passed
+    public List<String> dueHolds(long nowMillis) {
+        return expiries.advance(nowMillis);
+    }
+
+    public long heldSeats(Long showId) {
+        return seatHoldRepository.sumSeatsByShowId(showId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.ticketbroker.repository.BookingRepository;
 import com.ticketbroker.repository.BuyerRepository;
 import com.ticketbroker.repository.ShowRepository;
 import com.ticketbroker.repository.TicketRepository;
+import com.ticketbroker.service.ReferenceFilterService.ReferenceKind;
 import com.ticketbroker.util.TicketReferenceGenerator;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,17 +27,27 @@ public class TicketService {
     private final ShowRepository showRepository;
     private final TicketReferenceGenerator ticketReferenceGenerator;
     private final AuditService auditService;
+    private final DoorEntryFeedService doorEntryFeedService;
+    private final ReferenceFilterService referenceFilterService;
+    private final PublicSnapshotService publicSnapshotService;
+    private final SeatHoldService seatHoldService;
     
     public TicketService(TicketRepository ticketRepository, BuyerRepository buyerRepository,
                        BookingRepository bookingRepository, ShowRepository showRepository,
                        TicketReferenceGenerator ticketReferenceGenerator,
-                       AuditService auditService) {
+                       AuditService auditService, DoorEntryFeedService doorEntryFeedService,
+                       ReferenceFilterService referenceFilterService,
+                       PublicSnapshotService publicSnapshotService, SeatHoldService seatHoldService) {
         this.ticketRepository = ticketRepository;
         this.buyerRepository = buyerRepository;
         this.bookingRepository = bookingRepository;
         this.showRepository = showRepository;
         this.ticketReferenceGenerator = ticketReferenceGenerator;
         this.auditService = auditService;
+        this.doorEntryFeedService = doorEntryFeedService;
+        this.referenceFilterService = referenceFilterService;
+        this.publicSnapshotService = publicSnapshotService;
+        this.seatHoldService = seatHoldService;
     }
     
     @Transactional
@@ -110,13 +121,21 @@ public class TicketService {
         // Log ticket generation
         for (Ticket ticket : tickets) {
             auditService.logTicketGenerated(ticket, booking);
+            referenceFilterService.referenceAdded(ReferenceKind.TICKET, ticket.getTicketReference());
         }
+        doorEntryFeedService.ticketsIssued(tickets);
         
         return tickets;
     }
     
     public Optional<Ticket> findByReference(String ticketReference) {
-        return ticketRepository.findByTicketReference(ticketReference);
+        return referenceFilterService.lookup(ReferenceKind.TICKET, ticketReference,
+                () -> ticketRepository.findByTicketReference(ticketReference));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<Ticket> getAllTickets() {
+        return ticketRepository.findAll();
     }
     
     public List<Ticket> getTicketsForBooking(Booking booking) {
@@ -129,12 +148,17 @@ public class TicketService {
             throw new IllegalArgumentException("Ticket is already used");
         }
         
+        // Two scanners can read the same unused ticket; only the conditional update decides who admits it
+        LocalDateTime usedAt = LocalDateTime.now();
+        if (ticketRepository.markUsed(ticket.getId(), usedAt, checkerUser) == 0) {
+            throw new IllegalArgumentException("Ticket is already used");
+        }
         ticket.setIsUsed(true);
-        ticket.setUsedAt(LocalDateTime.now());
+        ticket.setUsedAt(usedAt);
         ticket.setCheckedBy(checkerUser);
-        ticketRepository.save(ticket);
         
         auditService.logTicketUsed(ticket, checkerUser);
+        doorEntryFeedService.ticketAdmitted(ticket);
     }
     
     @Transactional
@@ -149,6 +173,12 @@ public class TicketService {
             ticket.setCheckedBy(checkerUser);
         }
         ticketRepository.save(ticket);
+        
+        if (ticket.getIsUsed()) {
+            doorEntryFeedService.ticketAdmitted(ticket);
+        } else {
+            doorEntryFeedService.ticketReset(ticket);
+        }
     }
     
     @Transactional
@@ -168,13 +198,18 @@ public class TicketService {
         
         // Recalculate total amount (assuming prices from settings)
         booking.setTotalAmount((booking.getAdultTickets() * 200) + (booking.getStudentTickets() * 100));
-        bookingRepository.save(booking);
+        Booking merged = bookingRepository.save(booking);
+        // The merged booking comes with its tickets; left in that collection the ticket would be persisted
+        // again by the cascade at flush and the delete below dropped
+        merged.getTickets().removeIf(t -> t.getId().equals(ticket.getId()));
         
         // Log deletion
         auditService.logTicketDeleted(ticket, adminUser, reason);
         
         // Delete ticket
         ticketRepository.delete(ticket);
+        doorEntryFeedService.ticketRemoved(ticket);
+        referenceFilterService.referencesRemoved(ReferenceKind.TICKET, 1);
         
         // Update show availability if booking is confirmed or reserved
         // This ensures consistency after ticket deletion
@@ -195,8 +230,11 @@ public class TicketService {
                           || b.getStatus() == BookingStatus.CONFIRMED)
                 .mapToInt(b -> b.getAdultTickets() + b.getStudentTickets())
                 .sum();
-        show.setAvailableTickets(Math.max(0, show.getTotalTickets() - totalBooked));
-        showRepository.save(show);
+        // Held seats are already taken from the show and come back on their own when the hold expires
+        long held = seatHoldService.heldSeats(show.getId());
+        show.setAvailableTickets((int) Math.max(0, show.getTotalTickets() - totalBooked - held));
+        showRepository.updateTicketCounts(show.getId(), show.getTotalTickets(), show.getAvailableTickets());
+        publicSnapshotService.showsChanged();
     }
 }
 
@@ -0,0 +1,174 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.model.BookingStatus;
+import com.ticketbroker.model.Show;
+import com.ticketbroker.model.Ticket;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Renders a throwaway QR code, ticket PDF and Excel workbook and loads the settings once the application is
+ * ready, so class loading, font parsing and the first JIT compilation of AWT/ImageIO, ZXing, PDFBox and POI
+ * happen on a background thread instead of on the first admin request. Nothing is written to the database.
+ * Readiness (/actuator/health/readiness) reports WARMING_UP until the warm-up has finished or has run longer
+ * than app.warm-up.timeout-seconds; a failing or hanging step is logged, it does not keep the instance out of
+ * service.
+ */
+@Service
+public class WarmUpService {
+    private static final Logger logger = LoggerFactory.getLogger(WarmUpService.class);
+
+    public enum State { PENDING, RUNNING, COMPLETED, TIMED_OUT, DISABLED }
+
+    private final SettingsService settingsService;
+    private final PublicSnapshotService publicSnapshotService;
+    private final QrCodeService qrCodeService;
+    private final PdfService pdfService;
+    private final ExcelService excelService;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final AtomicBoolean timeoutLogged = new AtomicBoolean();
+    private final List<String> failedSteps = new CopyOnWriteArrayList<>();
+    private volatile State state;
+    private volatile Duration duration;
+    private volatile long startedAt;
+
+    public WarmUpService(SettingsService settingsService, PublicSnapshotService publicSnapshotService,
+                         @Lazy QrCodeService qrCodeService, @Lazy PdfService pdfService,
+                         @Lazy ExcelService excelService, MeterRegistry meterRegistry,
+                         @Value("${app.warm-up.enabled:true}") boolean enabled,
+                         @Value("${app.warm-up.timeout-seconds:60}") long timeoutSeconds) {
+        this.settingsService = settingsService;
+        this.publicSnapshotService = publicSnapshotService;
+        this.qrCodeService = qrCodeService;
+        this.pdfService = pdfService;
+        this.excelService = excelService;
+        this.meterRegistry = meterRegistry;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (state == State.PENDING) {
+            Thread.ofPlatform()
+                    .name("warm-up")
+                    .daemon()
+                    .priority(Thread.MIN_PRIORITY)
+                    .start(this::warmUp);
+        }
+    }
+
+    public State getState() {
+        State current = state;
+        if (current == State.RUNNING && System.nanoTime() - startedAt > timeout.toNanos()) {
+            if (timeoutLogged.compareAndSet(false, true)) {
+                logger.warn("Warm-up still running after {} s, reporting ready anyway", timeout.toSeconds());
+            }
+            return State.TIMED_OUT;
+        }
+        return current;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public List<String> getFailedSteps() {
+        return List.copyOf(failedSteps);
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        startedAt = start;
+        state = State.RUNNING;
+        // Settings first: the PDF step reads them as well and then hits the warm caches like a real request
+        step("settings", () -> {
+            settingsService.getValue("concert_name", null);
+            settingsService.getValue("concert_venue", null);
+            settingsService.getValue("qr_logo_data", null);
+            publicSnapshotService.settings();
+        });
+        step("qr", () -> qrCodeService.generateQrCodeBase64("WARMUP"));
+        Booking booking = sampleBooking();
+        step("pdf", () -> pdfService.generateTicketsPdf(booking));
+        step("excel", () -> excelService.exportBookingsToExcel(List.of(booking)));
+
+        duration = Duration.ofNanos(System.nanoTime() - start);
+        record("total", failedSteps.isEmpty(), duration.toNanos());
+        state = State.COMPLETED;
+        logger.info("Warm-up finished in {} ms{}", duration.toMillis(),
+                failedSteps.isEmpty() ? "" : ", failed steps: " + failedSteps);
+    }
+
+    private void step(String name, Step step) {
+        long start = System.nanoTime();
+        boolean success = true;
+        try {
+            step.run();
+        } catch (Exception e) {
+            success = false;
+            failedSteps.add(name);
+            logger.warn("Warm-up step {} failed, the first real request will pay for it", name, e);
+        }
+        record(name, success, System.nanoTime() - start);
+    }
+
+    private void record(String step, boolean success, long nanos) {
+        Timer.builder("ticketbroker.warmup")
+                .description("Background warm-up after startup, per step and in total")
+                .tag("step", step)
+                .tag("result", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(Duration.ofNanos(nanos));
+    }
+
+    // Transient entities shaped like a confirmed booking with one ticket; never persisted
+    private static Booking sampleBooking() {
+        Show show = new Show();
+        show.setId(0L);
+        show.setDate(LocalDate.now());
+        show.setStartTime("18:00");
+        show.setEndTime("20:00");
+
+        Booking booking = new Booking();
+        booking.setId(0L);
+        booking.setShow(show);
+        booking.setBookingReference("WARMUP");
+        booking.setFirstName("Warm");
+        booking.setLastName("Up");
+        booking.setEmail("warmup@example.com");
+        booking.setPhone("0");
+        booking.setAdultTickets(1);
+        booking.setTotalAmount(0);
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        Ticket ticket = new Ticket();
+        ticket.setBooking(booking);
+        ticket.setShow(show);
+        ticket.setTicketReference("WARMUP-01");
+        ticket.setTicketType("normal");
+        ticket.setTicketNumber(1);
+        booking.getTickets().add(ticket);
+        return booking;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run() throws Exception;
+    }
+}
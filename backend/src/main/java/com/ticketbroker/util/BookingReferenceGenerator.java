@@ -1,35 +1,99 @@
 package com.ticketbroker.util;
 
 import com.ticketbroker.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.stereotype.Component;
 
-import java.util.Random;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Generates booking references without probing the bookings table.
+ * Each node reserves a block of sequence numbers from booking_reference_seq (one nextval per block) and maps
+ * every number through a keyed permutation, so references are unique across nodes and not sequential.
+ * References that existed before the sequence was introduced are skipped.
+ * The key must never change once references have been issued, otherwise uniqueness is lost.
+ * Outside the dev and test profiles the key must be configured, since anyone knowing it can predict references.
+ */
 @Component
 public class BookingReferenceGenerator {
-    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int REFERENCE_LENGTH = 5;
-    private final Random random = new Random();
+    private static final Logger logger = LoggerFactory.getLogger(BookingReferenceGenerator.class);
+    // Only used in the dev and test profiles; it is public and must never protect real bookings
+    private static final String DEVELOPMENT_KEY = "ticketbroker-booking-reference";
+
+    // Must match INCREMENT BY of booking_reference_seq
+    public static final int BLOCK_SIZE = 50;
+
     private final BookingRepository bookingRepository;
-    
-    public BookingReferenceGenerator(BookingRepository bookingRepository) {
+    private final BookingReferencePermutation permutation;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Set<String> legacyReferences;
+    private long nextIndex;
+    private long blockEnd;
+
+    @Autowired
+    public BookingReferenceGenerator(BookingRepository bookingRepository,
+                                     @Value("${app.booking-reference.key:}") String key,
+                                     Environment environment) {
+        this(bookingRepository, requireKey(key, environment));
+    }
+
+    public BookingReferenceGenerator(BookingRepository bookingRepository, String key) {
         this.bookingRepository = bookingRepository;
+        this.permutation = new BookingReferencePermutation(key);
+    }
+
+    /**
+     * The permutation in use, so the dataset generator issues the same references as this application.
+     */
+    public BookingReferencePermutation getPermutation() {
+        return permutation;
     }
-    
+
     public String generateUniqueReference() {
-        String reference;
-        do {
-            reference = generateReference();
-        } while (bookingRepository.findByBookingReference(reference).isPresent());
-        return reference;
+        lock.lock();
+        try {
+            if (legacyReferences == null) {
+                legacyReferences = new HashSet<>(bookingRepository.findLegacyBookingReferences());
+            }
+            String reference;
+            do {
+                reference = permutation.reference(nextIndex());
+            } while (legacyReferences.contains(reference));
+            return reference;
+        } finally {
+            lock.unlock();
+        }
     }
-    
-    private String generateReference() {
-        StringBuilder sb = new StringBuilder(REFERENCE_LENGTH);
-        for (int i = 0; i < REFERENCE_LENGTH; i++) {
-            sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
+
+    private static String requireKey(String key, Environment environment) {
+        if (key != null && !key.isBlank() && !key.equals(DEVELOPMENT_KEY)) {
+            return key;
         }
-        return sb.toString();
+        if (environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+            logger.warn("app.booking-reference.key is not set, using the public development key");
+            return DEVELOPMENT_KEY;
+        }
+        throw new IllegalStateException(
+                "app.booking-reference.key (BOOKING_REFERENCE_KEY) must be set to a secret value outside the dev and test profiles");
     }
-}
 
+    private long nextIndex() {
+        if (nextIndex >= blockEnd) {
+            // Sequence starts at 1; index 0 is never handed out
+            long blockStart = bookingRepository.nextBookingReferenceBlock();
+            nextIndex = blockStart;
+            blockEnd = blockStart + BLOCK_SIZE;
+        }
+        if (nextIndex >= BookingReferencePermutation.DOMAIN_SIZE) {
+            throw new IllegalStateException("Booking reference space exhausted");
+        }
+        return nextIndex++;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ticketbroker.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Keyed, format-preserving permutation of [0, 36^5) used to turn sequence numbers into booking references.
+ * A balanced Feistel network over 26 bits is applied with cycle walking until the result falls inside the
+ * domain, so every index maps to a distinct 5 character reference and the order is not guessable without
+ * the key.
+ */
+public class BookingReferencePermutation {
+    static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    static final int REFERENCE_LENGTH = 5;
+    public static final long DOMAIN_SIZE = 60_466_176L; // 36^5
+
+    private static final int HALF_BITS = 13;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 6;
+
+    private final long[] roundKeys = new long[ROUNDS];
+
+    public BookingReferencePermutation(String key) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("Booking reference key must not be empty");
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            for (int i = 0; i < ROUNDS; i++) {
+                // 32 bytes give four longs; reuse them rotated for the remaining rounds
+                roundKeys[i] = Long.rotateLeft(buffer.getLong((i % 4) * 8), i * 11);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public long permute(long index) {
+        if (index < 0 || index >= DOMAIN_SIZE) {
+            throw new IllegalArgumentException("Index outside booking reference domain: " + index);
+        }
+        long value = index;
+        do {
+            value = encrypt((int) value);
+        } while (value >= DOMAIN_SIZE);
+        return value;
+    }
+
+    public String reference(long index) {
+        return format(permute(index));
+    }
+
+    public long inverse(long value) {
+        if (value < 0 || value >= DOMAIN_SIZE) {
+            throw new IllegalArgumentException("Value outside booking reference domain: " + value);
+        }
+        long index = value;
+        do {
+            index = decrypt((int) index);
+        } while (index >= DOMAIN_SIZE);
+        return index;
+    }
+
+    public static String format(long value) {
+        char[] chars = new char[REFERENCE_LENGTH];
+        long remaining = value;
+        for (int i = REFERENCE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CHARACTERS.charAt((int) (remaining % CHARACTERS.length()));
+            remaining /= CHARACTERS.length();
+        }
+        return new String(chars);
+    }
+
+    public static long parse(String reference) {
+        if (reference == null || reference.length() != REFERENCE_LENGTH) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < REFERENCE_LENGTH; i++) {
+            int digit = CHARACTERS.indexOf(reference.charAt(i));
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * CHARACTERS.length() + digit;
+        }
+        return value;
+    }
+
+    private int encrypt(int value) {
+        int left = (value >>> HALF_BITS) & HALF_MASK;
+        int right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ roundFunction(right, round);
+            left = right;
+            right = next;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private int decrypt(int value) {
+        int left = (value >>> HALF_BITS) & HALF_MASK;
+        int right = value & HALF_MASK;
+        for (int round = ROUNDS - 1; round >= 0; round--) {
+            int previous = right ^ roundFunction(left, round);
+            right = left;
+            left = previous;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private int roundFunction(int half, int round) {
+        // 64-bit finalizer mix (SplitMix64) keyed per round
+        long z = (half + roundKeys[round]) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) z & HALF_MASK;
+    }
+}
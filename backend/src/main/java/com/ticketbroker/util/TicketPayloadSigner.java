@@ -0,0 +1,127 @@
+package com.ticketbroker.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+/**
+ * Signs ticket QR payloads so forged or wrong-show codes can be rejected without a database lookup.
+ * Signed format: {ticketReference}.{showId in base 36}.{first 40 bits of HMAC-SHA256 in base 32},
+ * e.g. AB12C-N01.1.KF3JD2QX. Every character is in the QR alphanumeric set, which keeps the code at
+ * version 2 with high error correction.
+ */
+@Component
+public class TicketPayloadSigner {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String BASE32_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
+    private static final int MAC_BYTES = 5; // 40 bits -> 8 base32 characters
+    private static final char SEPARATOR = '.';
+
+    private final boolean enabled;
+    private final boolean requireSigned;
+    private final SecretKeySpec key;
+
+    public TicketPayloadSigner(@Value("${app.ticket-signing.enabled:false}") boolean enabled,
+                               @Value("${app.ticket-signing.require-signed:false}") boolean requireSigned,
+                               @Value("${app.ticket-signing.secret:}") String secret) {
+        if (enabled && (secret == null || secret.isEmpty())) {
+            throw new IllegalStateException("app.ticket-signing.secret must be set when ticket signing is enabled");
+        }
+        this.enabled = enabled;
+        this.requireSigned = enabled && requireSigned;
+        this.key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Content to encode in the ticket's QR code: the signed payload when signing is enabled,
+     * otherwise the plain ticket reference.
+     */
+    public String qrPayload(String ticketReference, Long showId) {
+        if (!enabled || showId == null) {
+            return ticketReference;
+        }
+        return sign(ticketReference, showId);
+    }
+
+    public String sign(String ticketReference, Long showId) {
+        String body = ticketReference + SEPARATOR + Long.toString(showId, 36).toUpperCase();
+        return body + SEPARATOR + mac(body);
+    }
+
+    /**
+     * Parses and verifies a scanned payload. Plain references are passed through as unsigned (and rejected
+     * when signed payloads are required). CPU only - never touches the database.
+     */
+    public DecodedPayload decode(String scanned) {
+        String payload = scanned.trim();
+        int macSeparator = payload.lastIndexOf(SEPARATOR);
+        if (!enabled || macSeparator < 0) {
+            return new DecodedPayload(payload, null, false, !requireSigned);
+        }
+
+        int showSeparator = payload.lastIndexOf(SEPARATOR, macSeparator - 1);
+        if (showSeparator <= 0) {
+            return new DecodedPayload(payload, null, true, false);
+        }
+
+        String reference = payload.substring(0, showSeparator);
+        String body = payload.substring(0, macSeparator);
+        String providedMac = payload.substring(macSeparator + 1);
+        Long showId;
+        try {
+            showId = Long.parseLong(payload.substring(showSeparator + 1, macSeparator), 36);
+        } catch (NumberFormatException e) {
+            return new DecodedPayload(reference, null, true, false);
+        }
+
+        boolean authentic = MessageDigest.isEqual(
+                mac(body).getBytes(StandardCharsets.US_ASCII),
+                providedMac.getBytes(StandardCharsets.US_ASCII));
+        return new DecodedPayload(reference, showId, true, authentic);
+    }
+
+    private String mac(String body) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(key);
+            byte[] digest = mac.doFinal(body.getBytes(StandardCharsets.US_ASCII));
+            return base32(digest, MAC_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to sign ticket payload", e);
+        }
+    }
+
+    private static String base32(byte[] bytes, int length) {
+        StringBuilder sb = new StringBuilder((length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < length; i++) {
+            buffer = (buffer << 8) | (bytes[i] & 0xFF);
+            bits += 8;
+            while (bits >= 5) {
+                sb.append(BASE32_ALPHABET.charAt((buffer >>> (bits - 5)) & 0x1F));
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            sb.append(BASE32_ALPHABET.charAt((buffer << (5 - bits)) & 0x1F));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Result of decoding a scanned payload.
+     * showId is only set for signed payloads; authentic is false for forged or malformed codes.
+     */
+    public record DecodedPayload(String ticketReference, Long showId, boolean signed, boolean authentic) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.ticketbroker.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel: items are put in the bucket of their deadline tick and advance() only looks at the
+ * buckets of the ticks that passed, so scheduling and expiring cost O(1) per item however many are pending.
+ * Items further away than one turn of the wheel stay in their bucket until their round comes up.
+ * Items are never returned before their deadline and at most one tick after it. Thread-safe.
+ */
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final List<Entry<T>>[] buckets;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(long tickMillis, int bucketCount, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        if (bucketCount <= 0 || Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new List[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = bucketCount - 1;
+        this.nextTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    public void schedule(T item, long deadlineMillis) {
+        // Round up so an item is never due before its deadline
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        lock.lock();
+        try {
+            tick = Math.max(tick, nextTick);
+            buckets[(int) (tick & mask)].add(new Entry<>(item, tick));
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the items whose deadline is at or before nowMillis and removes them from the wheel.
+     */
+    public List<T> advance(long nowMillis) {
+        long nowTick = Math.floorDiv(nowMillis, tickMillis);
+        List<T> due = new ArrayList<>();
+        lock.lock();
+        try {
+            if (nowTick < nextTick) {
+                return due;
+            }
+            // After a long pause every bucket is visited once rather than once per missed tick
+            long lastTick = Math.min(nowTick, nextTick + buckets.length - 1);
+            for (long tick = nextTick; tick <= lastTick; tick++) {
+                Iterator<Entry<T>> entries = buckets[(int) (tick & mask)].iterator();
+                while (entries.hasNext()) {
+                    Entry<T> entry = entries.next();
+                    if (entry.tick() <= nowTick) {
+                        due.add(entry.item());
+                        entries.remove();
+                    }
+                }
+            }
+            nextTick = nowTick + 1;
+            size -= due.size();
+            return due;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Entry<T>(T item, long tick) {
+    }
+}
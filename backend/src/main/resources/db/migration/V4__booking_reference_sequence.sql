@@ -0,0 +1,11 @@
+-- Booking references are now derived from a sequence through a keyed permutation
+-- Each application node reserves a block of 50 values per nextval (must match BookingReferenceGenerator.BLOCK_SIZE)
+CREATE SEQUENCE booking_reference_seq START WITH 1 INCREMENT BY 50;
+
+-- References issued by the old random generator; the new generator skips these to stay collision-free
+CREATE TABLE legacy_booking_references (
+    reference VARCHAR(10) PRIMARY KEY
+);
+
+INSERT INTO legacy_booking_references (reference)
+SELECT booking_reference FROM bookings;
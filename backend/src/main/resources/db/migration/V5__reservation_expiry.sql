@@ -0,0 +1,2 @@
+-- Reservation expiry scans reserved bookings by age (BookingRepository.lockExpiredReservationIds)
+CREATE INDEX idx_bookings_status_created_at ON bookings(status, created_at);
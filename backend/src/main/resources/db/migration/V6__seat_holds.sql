@@ -0,0 +1,17 @@
+-- Seats held for a few minutes while a buyer fills in the booking form (SeatHoldService).
+-- The held seats are already taken from shows.available_tickets; a row is either consumed by a booking or
+-- deleted on expiry, which gives the seats back.
+CREATE TABLE seat_holds (
+    id BIGSERIAL PRIMARY KEY,
+    token VARCHAR(36) NOT NULL UNIQUE,
+    show_id BIGINT NOT NULL REFERENCES shows(id) ON DELETE CASCADE,
+    seats INTEGER NOT NULL CHECK (seats > 0),
+    -- Remote address of the buyer, for the per-client cap on held seats
+    client_key VARCHAR(64),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_seat_holds_expires_at ON seat_holds(expires_at);
+CREATE INDEX idx_seat_holds_show_id ON seat_holds(show_id);
+CREATE INDEX idx_seat_holds_client_key ON seat_holds(client_key, expires_at);
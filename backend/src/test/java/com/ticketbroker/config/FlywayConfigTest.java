@@ -0,0 +1,35 @@
+package com.ticketbroker.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FlywayConfigTest {
+
+    @Mock
+    private Flyway flyway;
+
+    @Test
+    void flywayMigrationStrategy_ShouldMigrate_OnNormalStartup() {
+        // When
+        new FlywayConfig().flywayMigrationStrategy("").migrate(flyway);
+
+        // Then
+        verify(flyway).migrate();
+    }
+
+    @Test
+    void flywayMigrationStrategy_ShouldSkipMigration_InTrainingRun() {
+        // When
+        new FlywayConfig().flywayMigrationStrategy("onRefresh").migrate(flyway);
+
+        // Then
+        verify(flyway, never()).migrate();
+    }
+}
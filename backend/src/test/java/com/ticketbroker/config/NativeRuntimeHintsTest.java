@@ -0,0 +1,31 @@
+package com.ticketbroker.config;
+
+import com.ticketbroker.dto.ShowSummary;
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.model.Show;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeRuntimeHintsTest {
+
+    @Test
+    void registerHints_ShouldCoverEntitiesDtosAndLibraryResources() {
+        // Given
+        RuntimeHints hints = new RuntimeHints();
+
+        // When
+        new NativeRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Then
+        assertThat(RuntimeHintsPredicates.reflection().onType(Show.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(Booking.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(ShowSummary.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("org/apache/pdfbox/resources/afm/Helvetica.afm")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("org/apache/poi/schemas/ooxml/system/ooxml/index.xsb")).accepts(hints);
+    }
+}
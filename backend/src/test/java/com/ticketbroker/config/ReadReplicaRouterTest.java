@@ -0,0 +1,185 @@
+package com.ticketbroker.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadReplicaRouterTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    private MeterRegistry meterRegistry;
+    private ReadReplicaRouter router;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        meterRegistry = new SimpleMeterRegistry();
+        router = new ReadReplicaRouter(primary, replica, 5, meterRegistry);
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+        lenient().when(replicaConnection.createStatement()).thenReturn(statement);
+        lenient().when(statement.executeQuery(ReadReplicaRouter.LAG_QUERY)).thenReturn(resultSet);
+        lenient().when(resultSet.next()).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_WhenTransactionIsNotReadOnly() throws SQLException {
+        // Given
+        replicaLag(0);
+
+        // When
+        Connection connection = router.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routed("primary", "read-write")).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_ShouldUseReplica_WhenReadOnlyAndReplicaWithinBudget() throws SQLException {
+        // Given
+        replicaLag(1.5);
+        readOnlyTransaction("com.ticketbroker.service.ReportService.exportBookings");
+
+        // When
+        Connection connection = router.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(replicaConnection);
+        assertThat(routed("replica", "read-only")).isEqualTo(1);
+        assertThat(meterRegistry.get("ticketbroker.datasource.replica.lag").gauge().value()).isEqualTo(1.5);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_WhenReadOnlyTransactionIsSpringDataDefault() throws SQLException {
+        // Given
+        replicaLag(0);
+        readOnlyTransaction("org.springframework.data.jpa.repository.support.SimpleJpaRepository.findById");
+
+        // When
+        Connection connection = router.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routed("primary", "read-write")).isEqualTo(1);
+    }
+
+    @Test
+    void getConnection_ShouldUsePrimary_WhenReplicaNotCheckedYet() throws SQLException {
+        // Given
+        readOnlyTransaction("com.ticketbroker.service.ReportService.exportBookings");
+
+        // When
+        Connection connection = router.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routed("primary", "replica-unavailable")).isEqualTo(1);
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimary_WhenReplicaLagsBeyondBudget() throws SQLException {
+        // Given
+        replicaLag(12);
+        readOnlyTransaction("com.ticketbroker.service.ReportService.exportBookings");
+
+        // When
+        Connection connection = router.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routed("primary", "replica-stale")).isEqualTo(1);
+        assertThat(router.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void getConnection_ShouldFallBackToPrimary_WhenReplicaConnectionFails() throws SQLException {
+        // Given
+        replicaLag(0);
+        readOnlyTransaction("com.ticketbroker.service.ReportService.exportBookings");
+        when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        // When
+        Connection connection = router.getConnection();
+
+        // Then
+        assertThat(connection).isSameAs(primaryConnection);
+        assertThat(routed("primary", "replica-unavailable")).isEqualTo(1);
+        assertThat(router.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("ticketbroker.datasource.replica.available").gauge().value()).isZero();
+    }
+
+    @Test
+    void checkReplica_ShouldTreatUnreplayedStandbyAsStale() throws SQLException {
+        // Given
+        when(resultSet.getDouble(1)).thenReturn(0.0);
+        when(resultSet.wasNull()).thenReturn(true);
+
+        // When
+        router.checkReplica();
+
+        // Then
+        assertThat(router.isReplicaUsable()).isFalse();
+        assertThat(meterRegistry.get("ticketbroker.datasource.replica.available").gauge().value()).isEqualTo(1);
+    }
+
+    private void replicaLag(double seconds) throws SQLException {
+        when(resultSet.getDouble(1)).thenReturn(seconds);
+        router.checkReplica();
+    }
+
+    private static void readOnlyTransaction(String name) {
+        TransactionSynchronizationManager.setCurrentTransactionName(name);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    private double routed(String pool, String reason) {
+        return meterRegistry.get("ticketbroker.datasource.connections.routed")
+                .tag("pool", pool)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,406 @@
+package com.ticketbroker.controller.api;
+
+import com.jayway.jsonpath.JsonPath;
+import com.ticketbroker.support.StatementBudget;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Maximum JDBC statements and rows for every endpoint of PublicApiController and AdminApiController, measured
+ * against an embedded PostgreSQL seeded by db/budget-dataset. Open-in-view is off, so a lazy load in a
+ * controller or DTO mapper fails the request; a lazy-load loop inside a service makes the statement count grow
+ * with the dataset and fails here. Budgets are the current cost plus a little headroom; lower them when an
+ * endpoint gets cheaper.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.locations=classpath:db/migration,classpath:db/budget-dataset",
+        "spring.security.user.password=" + EndpointStatementBudgetTest.ADMIN_PASSWORD,
+        "app.jdbc-stats.enabled=true",
+        "app.ticket-signing.enabled=false",
+        // The mock JavaMailSender replaces the JavaMailSenderImpl the mail health check needs
+        "management.health.mail.enabled=false",
+        // The warm-up would build the settings snapshot and fill the caches in the background
+        "app.warm-up.enabled=false",
+        // The dataset's reservations are old enough to be expired by the scheduler
+        "app.reservation-expiry.enabled=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureEmbeddedDatabase(provider = DatabaseProvider.ZONKY)
+class EndpointStatementBudgetTest {
+    static final String ADMIN_PASSWORD = "budget-test";
+
+    // Dataset sizes, see V1000__endpoint_budget_dataset.sql
+    private static final int SHOWS = 4;
+    private static final int SHOWS_WITH_BOOKINGS = 3;
+    private static final int BOOKINGS = 180;
+    private static final int BOOKINGS_PER_SHOW = 60;
+    private static final int CONFIRMED_BOOKINGS = 90;
+    private static final int TICKETS = 2 * CONFIRMED_BOOKINGS;
+    // Tests in this class run in any order and may add or remove a few rows before a listing is measured
+    private static final int SLACK = 5;
+
+    @TempDir
+    static Path auditStoreDirectory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @DynamicPropertySource
+    static void auditStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.audit-store.directory", () -> auditStoreDirectory.toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    private void assertBudget(int maxStatements, long maxRows, MockHttpServletRequestBuilder request,
+                              ResultMatcher expected) throws Exception {
+        StatementBudget.assertAtMost(maxStatements, maxRows, () -> mockMvc.perform(request).andExpect(expected));
+    }
+
+    private static MockHttpServletRequestBuilder admin(MockHttpServletRequestBuilder request) {
+        return request.with(httpBasic("admin", ADMIN_PASSWORD));
+    }
+
+    // Public API
+
+    @Test
+    void getShows_ShouldStayWithinBudget() throws Exception {
+        // Builds the snapshot unless an earlier test already did
+        assertBudget(1, SHOWS + SLACK, get("/api/public/shows"), status().isOk());
+    }
+
+    @Test
+    void getShows_ShouldNotQuery_WhenSnapshotIsCurrent() throws Exception {
+        mockMvc.perform(get("/api/public/shows")).andExpect(status().isOk());
+
+        assertBudget(0, 0, get("/api/public/shows"), status().isOk());
+    }
+
+    @Test
+    void getInitializationStatus_ShouldStayWithinBudget() throws Exception {
+        // show count + class_photo_data
+        assertBudget(2, 2, get("/api/public/initialization-status"), status().isOk());
+    }
+
+    @Test
+    void checkAvailability_ShouldStayWithinBudget() throws Exception {
+        assertBudget(1, 1, get("/api/public/shows/1/availability"), status().isOk());
+    }
+
+    @Test
+    void checkAvailability_ShouldNotQuery_WhenShowIsCached() throws Exception {
+        mockMvc.perform(get("/api/public/shows/1/availability")).andExpect(status().isOk());
+
+        assertBudget(0, 0, get("/api/public/shows/1/availability"), status().isOk());
+    }
+
+    @Test
+    void holdSeats_ShouldStayWithinBudget() throws Exception {
+        // client lock, seats the client already holds, update show, insert hold
+        assertBudget(4, 4, post("/api/public/shows/1/holds")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"seats\": 2}"), status().isCreated());
+    }
+
+    @Test
+    void holdSeats_ShouldReturnBadRequest_WhenSeatCountIsOutOfRange() throws Exception {
+        mockMvc.perform(post("/api/public/shows/1/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seats\": 11}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Seats must be between 1 and 10"));
+    }
+
+    @Test
+    void holdSeats_ShouldReturnConflict_WhenShowHasTooFewSeatsLeft() throws Exception {
+        String show = mockMvc.perform(admin(post("/api/admin/shows")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"date\": \"" + LocalDate.now().plusDays(61)
+                                + "\", \"startTime\": \"18:00\", \"endTime\": \"20:00\", \"totalTickets\": 1}")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Number showId = JsonPath.read(show, "$.id");
+
+        mockMvc.perform(post("/api/public/shows/" + showId + "/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seats\": 2}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Not enough tickets available"));
+    }
+
+    @Test
+    void createBooking_ShouldStayWithinBudget_WhenSeatsAreHeld() throws Exception {
+        String hold = mockMvc.perform(post("/api/public/shows/1/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seats\": 2}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String token = JsonPath.read(hold, "$.token");
+
+        // Same as createBooking, with the hold deleted instead of the show updated
+        assertBudget(14, 15, post("/api/public/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"showId": 1, "firstName": "Anna", "lastName": "Berg", "email": "anna@example.com",
+                         "phone": "0709999999", "adultTickets": 1, "studentTickets": 1, "holdToken": "%s"}
+                        """.formatted(token)), status().isCreated());
+    }
+
+    @Test
+    void createBooking_ShouldStayWithinBudget() throws Exception {
+        // show, 2 prices, legacy references and nextval (first booking only), insert booking, update show,
+        // 4 settings for the two emails
+        assertBudget(14, 15, post("/api/public/bookings")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"showId": 1, "firstName": "Anna", "lastName": "Berg", "email": "anna@example.com",
+                         "phone": "0709999999", "adultTickets": 1, "studentTickets": 1}
+                        """), status().isCreated());
+    }
+
+    @Test
+    void getBooking_ShouldStayWithinBudget() throws Exception {
+        // booking joined with its show
+        assertBudget(1, 1, get("/api/public/bookings/TB0002").param("email", "buyer2@example.com"),
+                status().isOk());
+    }
+
+    @Test
+    void initiatePayment_ShouldStayWithinBudget() throws Exception {
+        // booking with its show, merge of the booking (select and update), swish number and recipient
+        assertBudget(5, 5, post("/api/public/bookings/TB0009/initiate-payment")
+                .param("email", "buyer9@example.com")
+                .header("User-Agent", "iPhone"), status().isOk());
+    }
+
+    @Test
+    void confirmPaymentByBuyer_ShouldStayWithinBudget() throws Exception {
+        // booking with its show, merge of the booking (select and update)
+        assertBudget(3, 3, post("/api/public/bookings/TB0011/confirm-payment")
+                .param("email", "buyer11@example.com"), status().isOk());
+    }
+
+    @Test
+    void validateTicket_ShouldStayWithinBudget() throws Exception {
+        // ticket joined with booking, buyer and show, conditional update; door counters are updated in memory
+        assertBudget(2, 2, post("/api/public/tickets/validate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ticketReference\": \"TB0006-N01\"}"), status().isOk());
+    }
+
+    @Test
+    void getPublicSettings_ShouldStayWithinBudget() throws Exception {
+        // All public settings in one query
+        assertBudget(1, 8, get("/api/public/settings"), status().isOk());
+    }
+
+    @Test
+    void submitContact_ShouldStayWithinBudget() throws Exception {
+        assertBudget(3, 3, post("/api/public/contact")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                        {"name": "Anna Berg", "email": "anna@example.com", "subject": "Fråga",
+                         "message": "Hej", "gdprConsent": true}
+                        """), status().isOk());
+    }
+
+    @Test
+    void searchBookings_ShouldStayWithinBudget() throws Exception {
+        // Two bookings, joined with their show
+        assertBudget(1, 2, get("/api/public/bookings/search")
+                .param("email", "buyer2@example.com")
+                .param("lastName", "Family2"), status().isOk());
+    }
+
+    @Test
+    void resendLostTickets_ShouldStayWithinBudget() throws Exception {
+        // Bookings of the email with show and tickets, then per booking (two here): PDF and email settings
+        assertBudget(13, 14, post("/api/public/lost-tickets").param("email", "buyer4@example.com"),
+                status().isOk());
+    }
+
+    // Admin API
+
+    @Test
+    void getAllBookings_ShouldStayWithinBudget() throws Exception {
+        // bookings joined with their show
+        assertBudget(1, BOOKINGS + SLACK, admin(get("/api/admin/bookings")), status().isOk());
+    }
+
+    @Test
+    void getBookingById_ShouldStayWithinBudget() throws Exception {
+        assertBudget(1, 1, admin(get("/api/admin/bookings/20")), status().isOk());
+    }
+
+    @Test
+    void updateBooking_ShouldStayWithinBudget() throws Exception {
+        assertBudget(5, 5, admin(put("/api/admin/bookings/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"phone\": \"0701111111\"}")), status().isOk());
+    }
+
+    @Test
+    void confirmPaymentByAdmin_ShouldStayWithinBudget() throws Exception {
+        // booking, status lock, buyer lookup and insert, 2 ticket inserts, bookings and held seats of the show for
+        // the availability, booking reloaded with its tickets, PDF and email settings
+        assertBudget(18, BOOKINGS_PER_SHOW + 16, admin(post("/api/admin/bookings/3/confirm-payment")),
+                status().isOk());
+    }
+
+    @Test
+    void deleteBooking_ShouldStayWithinBudget() throws Exception {
+        // booking, show, update show, tickets (cascade), delete
+        assertBudget(7, 7, admin(delete("/api/admin/bookings/5")), status().isNoContent());
+    }
+
+    @Test
+    void resendConfirmation_ShouldStayWithinBudget() throws Exception {
+        assertBudget(7, 7, admin(post("/api/admin/bookings/7/resend-confirmation")), status().isOk());
+    }
+
+    @Test
+    void resendTickets_ShouldStayWithinBudget() throws Exception {
+        // booking with show and tickets, PDF and email settings
+        assertBudget(7, 7, admin(post("/api/admin/bookings/4/resend-tickets")), status().isOk());
+    }
+
+    @Test
+    void getAllTickets_ShouldStayWithinBudget() throws Exception {
+        // tickets joined with booking, buyer and show
+        assertBudget(1, TICKETS + SLACK, admin(get("/api/admin/tickets")), status().isOk());
+    }
+
+    @Test
+    void toggleTicketState_ShouldStayWithinBudget() throws Exception {
+        // ticket, update
+        assertBudget(3, 3, admin(post("/api/admin/tickets/15/toggle-state").param("checkerUser", "door")),
+                status().isOk());
+    }
+
+    @Test
+    void getTicketByReference_ShouldStayWithinBudget() throws Exception {
+        // ticket joined with booking, buyer and show
+        assertBudget(1, 1, admin(get("/api/admin/tickets/by-reference/TB0014-N01")), status().isOk());
+    }
+
+    @Test
+    void toggleTicketStateByReference_ShouldStayWithinBudget() throws Exception {
+        assertBudget(3, 3, admin(post("/api/admin/tickets/by-reference/TB0010-N01/toggle-state")),
+                status().isOk());
+    }
+
+    @Test
+    void doorFeed_ShouldStayWithinBudget() throws Exception {
+        // Door counters of one show, unless already cached
+        assertBudget(2, 2, admin(get("/api/admin/door-feed").param("showId", "1")), request().asyncStarted());
+    }
+
+    @Test
+    void getAuditEvents_ShouldNotTouchTheDatabase() throws Exception {
+        assertBudget(0, 0, admin(get("/api/admin/audit").param("action", "booking_created")), status().isOk());
+    }
+
+    @Test
+    void deleteTicket_ShouldStayWithinBudget() throws Exception {
+        // ticket with booking and show, merge and update of the booking, delete, bookings and held seats of the
+        // show for the availability, update of the show
+        assertBudget(7, BOOKINGS_PER_SHOW + 7, admin(delete("/api/admin/tickets/24")), status().isNoContent());
+    }
+
+    @Test
+    void getAllShows_ShouldStayWithinBudget() throws Exception {
+        // shows + booking count per show
+        assertBudget(2, SHOWS + SHOWS + SLACK, admin(get("/api/admin/shows")), status().isOk());
+    }
+
+    @Test
+    void createShow_ShouldStayWithinBudget() throws Exception {
+        assertBudget(1, 1, admin(post("/api/admin/shows")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"date\": \"" + LocalDate.now().plusDays(60)
+                        + "\", \"startTime\": \"18:00\", \"endTime\": \"20:00\", \"totalTickets\": 200}")),
+                status().isCreated());
+    }
+
+    @Test
+    void updateShow_ShouldStayWithinBudget() throws Exception {
+        // show, confirmed bookings of the show, update
+        assertBudget(3, CONFIRMED_BOOKINGS / SHOWS_WITH_BOOKINGS + 3, admin(put("/api/admin/shows/2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"totalTickets\": 450}")), status().isOk());
+    }
+
+    @Test
+    void deleteShow_ShouldStayWithinBudget() throws Exception {
+        // show exists, delete unless booked
+        assertBudget(2, 2, admin(delete("/api/admin/shows/4")), status().isNoContent());
+    }
+
+    @Test
+    void evictCaches_ShouldStayWithinBudget() throws Exception {
+        assertBudget(0, 0, admin(post("/api/admin/cache/evict")), status().isNoContent());
+    }
+
+    @Test
+    void exportExcel_ShouldStayWithinBudget() throws Exception {
+        assertBudget(1, BOOKINGS + SLACK,
+                admin(get("/api/admin/export/excel")), status().isOk());
+    }
+
+    @Test
+    void exportRevenueReport_ShouldStayWithinBudget() throws Exception {
+        assertBudget(1, BOOKINGS + SLACK,
+                admin(get("/api/admin/export/revenue")), status().isOk());
+    }
+
+    @Test
+    void getAdminSettings_ShouldStayWithinBudget() throws Exception {
+        // One lookup per setting
+        assertBudget(14, 14, admin(get("/api/admin/settings")), status().isOk());
+    }
+
+    @Test
+    void updateSettings_ShouldStayWithinBudget() throws Exception {
+        // Lookup and update of one setting, then the admin settings
+        assertBudget(16, 16, admin(multipart("/api/admin/settings").param("concert_name", "Vårkonsert")),
+                status().isOk());
+    }
+}
@@ -0,0 +1,145 @@
+package com.ticketbroker.datagen;
+
+import com.ticketbroker.util.BookingReferencePermutation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticDatasetTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 20, 12, 0);
+    private final BookingReferencePermutation permutation = new BookingReferencePermutation("test-key");
+
+    @Test
+    void sameSeed_ShouldProduceSameRows() throws IOException {
+        // Given
+        SyntheticDataset first = dataset(42, Set.of());
+        SyntheticDataset second = dataset(42, Set.of());
+
+        // When / Then
+        assertThat(rows(second::writeBookings)).isEqualTo(rows(first::writeBookings));
+        assertThat(rows(second::writeTickets)).isEqualTo(rows(first::writeTickets));
+        assertThat(rows(dataset(43, Set.of())::writeBookings)).isNotEqualTo(rows(first::writeBookings));
+    }
+
+    @Test
+    void tickets_ShouldMatchConfirmedBookings() throws IOException {
+        // Given
+        SyntheticDataset dataset = dataset(42, Set.of());
+        Map<Object, Integer> expected = new HashMap<>();
+        for (List<Object> booking : rows(dataset::writeBookings)) {
+            if ("confirmed".equals(column(booking, SyntheticDataset.BOOKING_COLUMNS, "status"))) {
+                int count = (Byte) column(booking, SyntheticDataset.BOOKING_COLUMNS, "adult_tickets")
+                        + (Byte) column(booking, SyntheticDataset.BOOKING_COLUMNS, "student_tickets");
+                expected.put(booking.get(0), count);
+            }
+        }
+
+        // When
+        List<List<Object>> tickets = rows(dataset::writeTickets);
+        Map<Object, Integer> actual = new HashMap<>();
+        tickets.forEach(ticket -> actual.merge(column(ticket, SyntheticDataset.TICKET_COLUMNS, "booking_id"), 1,
+                Integer::sum));
+
+        // Then
+        assertThat(actual).isEqualTo(expected);
+        assertThat(tickets).hasSize(dataset.getTicketCount());
+        assertThat(tickets).extracting(ticket -> column(ticket, SyntheticDataset.TICKET_COLUMNS, "ticket_reference"))
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void shows_ShouldHaveAvailableTicketsMatchingBookings() throws IOException {
+        // Given
+        SyntheticDataset dataset = dataset(42, Set.of());
+        Map<Object, Integer> booked = new HashMap<>();
+        for (List<Object> booking : rows(dataset::writeBookings)) {
+            int count = (Byte) column(booking, SyntheticDataset.BOOKING_COLUMNS, "adult_tickets")
+                    + (Byte) column(booking, SyntheticDataset.BOOKING_COLUMNS, "student_tickets");
+            booked.merge(column(booking, SyntheticDataset.BOOKING_COLUMNS, "show_id"), count, Integer::sum);
+        }
+
+        // When
+        List<List<Object>> shows = rows(dataset::writeShows);
+
+        // Then
+        assertThat(shows).hasSize(10);
+        for (List<Object> show : shows) {
+            int total = (Integer) column(show, SyntheticDataset.SHOW_COLUMNS, "total_tickets");
+            int available = (Integer) column(show, SyntheticDataset.SHOW_COLUMNS, "available_tickets");
+            assertThat(available).isEqualTo(total - booked.getOrDefault(show.get(0), 0)).isNotNegative();
+        }
+    }
+
+    @Test
+    void buyers_ShouldBeOnePerPhoneNumber() throws IOException {
+        // Given
+        SyntheticDataset dataset = dataset(42, Set.of());
+
+        // When
+        List<List<Object>> buyers = rows(dataset::writeBuyers);
+
+        // Then
+        assertThat(buyers).hasSize(dataset.getBuyerCount());
+        assertThat(buyers).extracting(buyer -> column(buyer, SyntheticDataset.BUYER_COLUMNS, "phone"))
+                .doesNotHaveDuplicates();
+        for (int i = 0; i < buyers.size(); i++) {
+            assertThat(buyers.get(i).get(0)).isEqualTo(i + 1);
+        }
+        // Repeat buyers make fewer distinct phone numbers than bookings
+        Set<Object> phones = new HashSet<>();
+        rows(dataset::writeBookings).forEach(booking ->
+                phones.add(column(booking, SyntheticDataset.BOOKING_COLUMNS, "phone")));
+        assertThat(phones.size()).isLessThan(dataset.getBookingCount());
+    }
+
+    @Test
+    void bookingReferences_ShouldSkipLegacyReferences() throws IOException {
+        // Given
+        String legacy = permutation.reference(1_002);
+
+        // When
+        SyntheticDataset dataset = dataset(42, Set.of(legacy));
+        List<List<Object>> bookings = rows(dataset::writeBookings);
+
+        // Then
+        assertThat(bookings).extracting(booking -> column(booking, SyntheticDataset.BOOKING_COLUMNS,
+                "booking_reference")).doesNotContain(legacy).doesNotHaveDuplicates();
+        assertThat(dataset.getReferenceIndexesUsed()).isEqualTo(dataset.getBookingCount() + 1L);
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidRepeatBuyerRate() {
+        assertThatThrownBy(() -> new SyntheticDataset(10, 100, 1.0, 42, NOW, permutation, 0, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private SyntheticDataset dataset(long seed, Set<String> skipReferences) {
+        return new SyntheticDataset(10, 2_000, 0.3, seed, NOW, permutation, 1_000, skipReferences);
+    }
+
+    private interface Table {
+        void write(SyntheticDataset.RowWriter writer) throws IOException;
+    }
+
+    private static List<List<Object>> rows(Table table) throws IOException {
+        List<List<Object>> rows = new ArrayList<>();
+        table.write(columns -> rows.add(Arrays.asList(columns)));
+        return rows;
+    }
+
+    private static Object column(List<Object> row, String[] columns, String name) {
+        return row.get(Arrays.asList(columns).indexOf(name));
+    }
+}
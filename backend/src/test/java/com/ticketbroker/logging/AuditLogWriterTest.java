@@ -0,0 +1,91 @@
+package com.ticketbroker.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static com.ticketbroker.logging.AuditEvent.pairs;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class AuditLogWriterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AuditStore auditStore;
+
+    private AuditLogWriter auditLogWriter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        auditStore = mock(AuditStore.class);
+        auditLogWriter = new AuditLogWriter(auditStore, meterRegistry, 2);
+    }
+
+    private AuditEvent event(String action) {
+        return new AuditEvent(LocalDateTime.of(2025, 5, 20, 18, 30), action, "ticket", 7L, "admin", "door",
+                pairs("ticketReference", "ABCDE-N01", "usedAt", LocalDateTime.of(2025, 5, 20, 18, 30)),
+                null, null);
+    }
+
+    @Test
+    void format_ShouldKeepAuditLineFormat() throws Exception {
+        // When
+        String line = auditLogWriter.format(event("ticket_used"));
+
+        // Then
+        assertThat(line).isEqualTo("AUDIT: action=ticket_used, entity=ticket, entityId=7, userType=admin, "
+                + "userIdentifier=door, details={\"ticketReference\":\"ABCDE-N01\",\"usedAt\":\"2025-05-20T18:30:00\"}, "
+                + "oldValue=null, newValue=null");
+    }
+
+    @Test
+    void format_ShouldReuseGeneratorAcrossEvents() throws Exception {
+        // Given
+        auditLogWriter.format(event("ticket_used"));
+
+        // When
+        String line = auditLogWriter.format(new AuditEvent(LocalDateTime.now(), "settings_changed", "settings", 0L,
+                "admin", "admin", pairs("settingKey", "concert_name"), pairs("value", "Old"), pairs("value", "New")));
+
+        // Then
+        assertThat(line).endsWith("details={\"settingKey\":\"concert_name\"}, oldValue={\"value\":\"Old\"}, "
+                + "newValue={\"value\":\"New\"}");
+    }
+
+    @Test
+    void submit_ShouldDropAndCountWhenQueueIsFull() {
+        // Given - writer thread not started, queue capacity 2
+        auditLogWriter.submit(event("a"));
+        auditLogWriter.submit(event("b"));
+
+        // When
+        auditLogWriter.submit(event("c"));
+
+        // Then
+        assertThat(meterRegistry.get("ticketbroker.audit.events").tag("result", "dropped").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("ticketbroker.audit.queue.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void stop_ShouldFlushQueuedEvents() throws Exception {
+        // Given
+        auditLogWriter.submit(event("a"));
+        auditLogWriter.submit(event("b"));
+
+        // When
+        auditLogWriter.stop();
+
+        // Then
+        assertThat(meterRegistry.get("ticketbroker.audit.events").tag("result", "written").counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("ticketbroker.audit.queue.size").gauge().value()).isZero();
+        verify(auditStore).append(anyList());
+    }
+}
@@ -0,0 +1,153 @@
+package com.ticketbroker.logging;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.ticketbroker.logging.AuditEvent.pairs;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditStore auditStore;
+
+    @BeforeEach
+    void setUp() {
+        auditStore = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        auditStore.close();
+    }
+
+    private AuditStore open() {
+        AuditStore store = new AuditStore(true, directory.toString(), 1024 * 1024, 30);
+        store.open();
+        return store;
+    }
+
+    private static AuditEvent bookingCreated(LocalDateTime timestamp, long id, String bookingReference) {
+        return new AuditEvent(timestamp, "booking_created", "booking", id, "buyer", "0701234567",
+                pairs("bookingReference", bookingReference, "adultTickets", 2), null, null);
+    }
+
+    private static AuditEvent ticketUsed(LocalDateTime timestamp, long id, String ticketReference) {
+        return new AuditEvent(timestamp, "ticket_used", "ticket", id, "admin", "door",
+                pairs("ticketReference", ticketReference), pairs("used", false), pairs("used", true));
+    }
+
+    @Test
+    void findByBookingReference_ShouldIncludeTicketEventsOfTheBooking() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        auditStore.append(List.of(
+                bookingCreated(now, 1L, "ABCDE"),
+                bookingCreated(now, 2L, "FGHIJ"),
+                ticketUsed(now.plusSeconds(1), 10L, "ABCDE-N01")));
+
+        // When
+        List<Map<String, Object>> events = auditStore.findByBookingReference("abcde", 10);
+
+        // Then
+        assertThat(events).extracting(event -> event.get("action"))
+                .containsExactly("booking_created", "ticket_used");
+        assertThat(events.get(1).get("newValue")).isEqualTo(Map.of("used", true));
+        assertThat(auditStore.findByEntity("booking", 2L, 10)).hasSize(1);
+        assertThat(auditStore.findByTicketReference("ABCDE-N01", 10)).hasSize(1);
+    }
+
+    @Test
+    void find_ShouldReturnMostRecentEventsUpToLimitInChronologicalOrder() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 5; i++) {
+            auditStore.append(List.of(ticketUsed(now.plusSeconds(i), i, "ABCDE-N0" + i)));
+        }
+
+        // When
+        List<Map<String, Object>> events = auditStore.findByAction("ticket_used", 2);
+
+        // Then
+        assertThat(events).extracting(event -> event.get("entityId")).containsExactly(3, 4);
+    }
+
+    @Test
+    void open_ShouldRecoverEventsAfterRestart() {
+        // Given - one store closed cleanly, then an unsealed active segment from a crash
+        LocalDateTime now = LocalDateTime.now();
+        auditStore.append(List.of(bookingCreated(now, 1L, "ABCDE")));
+        auditStore.close();
+        AuditStore crashed = open();
+        crashed.append(List.of(ticketUsed(now.plusSeconds(1), 10L, "ABCDE-N01")));
+
+        // When
+        auditStore = open();
+
+        // Then
+        assertThat(auditStore.findByBookingReference("ABCDE", 10)).hasSize(2);
+        crashed.close();
+    }
+
+    @Test
+    void append_ShouldRollPerDayAndCompactAWeekOfSmallSegments() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+
+        // When - eight days: seven sealed day segments plus the active one
+        for (int day = 7; day >= 0; day--) {
+            auditStore.append(List.of(bookingCreated(now.minusDays(day), 8 - day, "ABCDE")));
+        }
+        auditStore.awaitMaintenance();
+
+        // Then - the seven sealed day segments were merged into one
+        assertThat(auditStore.getSegmentCount()).isEqualTo(2);
+        assertThat(auditStore.findByBookingReference("ABCDE", 10))
+                .extracting(event -> event.get("entityId")).containsExactly(1, 2, 3, 4, 5, 6, 7, 8);
+    }
+
+    @Test
+    void append_ShouldNotCompactACompactedSegmentAgain() throws Exception {
+        // Given - a compacted week, persisted across a restart
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        for (int day = 0; day < 8; day++) {
+            auditStore.append(List.of(bookingCreated(start.plusDays(day), day, "ABCDE")));
+        }
+        auditStore.awaitMaintenance();
+        auditStore.close();
+        auditStore = open();
+
+        // When - two more days roll
+        auditStore.append(List.of(bookingCreated(start.plusDays(8), 8L, "ABCDE")));
+        auditStore.append(List.of(bookingCreated(start.plusDays(9), 9L, "ABCDE")));
+        auditStore.awaitMaintenance();
+
+        // Then - compacted week, two small day segments waiting for a full run, and the active segment
+        assertThat(auditStore.getSegmentCount()).isEqualTo(4);
+        assertThat(auditStore.findByBookingReference("ABCDE", 20)).hasSize(10);
+    }
+
+    @Test
+    void append_ShouldDeleteSegmentsPastRetention() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        auditStore.append(List.of(bookingCreated(now.minusDays(60), 1L, "ABCDE")));
+
+        // When
+        auditStore.append(List.of(bookingCreated(now, 2L, "ABCDE")));
+        auditStore.awaitMaintenance();
+
+        // Then
+        assertThat(auditStore.findByBookingReference("ABCDE", 10))
+                .extracting(event -> event.get("entityId")).containsExactly(2);
+    }
+}
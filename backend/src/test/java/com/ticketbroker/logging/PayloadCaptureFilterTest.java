@@ -0,0 +1,140 @@
+package com.ticketbroker.logging;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadCaptureFilterTest {
+
+    @Mock
+    private PayloadLogWriter payloadLogWriter;
+
+    private PayloadCaptureFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PayloadCaptureFilter(payloadLogWriter, () -> true,
+                new String[]{"/api/**"}, new String[]{"/api/admin/settings/**"}, 16);
+    }
+
+    private PayloadRecord captureRecord() {
+        ArgumentCaptor<PayloadRecord> captor = ArgumentCaptor.forClass(PayloadRecord.class);
+        verify(payloadLogWriter).submit(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void doFilter_ShouldCaptureTruncatedTextBodiesAndRedactAuthorization() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/public/bookings");
+        request.setContentType("application/json");
+        request.setContent("{\"firstName\":\"Anna\",\"lastName\":\"Svensson\"}".getBytes(StandardCharsets.UTF_8));
+        request.addHeader("Authorization", "Basic c2VjcmV0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                StreamUtils.copyToByteArray(req.getInputStream());
+                res.setContentType("application/json");
+                res.getOutputStream().write("{\"bookingReference\":\"ABCDE\"}".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        PayloadRecord record = captureRecord();
+        assertThat(record.requestHeaders()).containsEntry("Authorization", "[REDACTED]");
+        assertThat(record.requestBody().bytes()).hasSize(16);
+        assertThat(record.requestBody().totalBytes()).isEqualTo(42);
+        assertThat(PayloadLogWriter.formatBody(record.responseBody())).startsWith("{\"bookingReferen").contains("truncated");
+        // The full body still reaches the client
+        assertThat(response.getContentAsString()).isEqualTo("{\"bookingReference\":\"ABCDE\"}");
+    }
+
+    @Test
+    void doFilter_ShouldNotKeepBinaryResponseBodies() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/bookings/ABCDE/tickets");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                res.setContentType("application/pdf");
+                res.getOutputStream().write(new byte[1024]);
+            }
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        PayloadRecord record = captureRecord();
+        assertThat(record.responseBody().bytes()).isEmpty();
+        assertThat(record.responseBody().totalBytes()).isEqualTo(1024);
+        assertThat(response.getContentAsByteArray()).hasSize(1024);
+    }
+
+    @Test
+    void doFilter_ShouldSkipExcludedAndEventStreamRequests() throws Exception {
+        // Given
+        MockHttpServletRequest settings = new MockHttpServletRequest("PUT", "/api/admin/settings");
+        MockHttpServletRequest feed = new MockHttpServletRequest("GET", "/api/admin/door-feed");
+        feed.addHeader("Accept", "text/event-stream");
+        MockHttpServletRequest frontend = new MockHttpServletRequest("GET", "/index.html");
+
+        // When
+        filter.doFilter(settings, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(feed, new MockHttpServletResponse(), new MockFilterChain());
+        filter.doFilter(frontend, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        verify(payloadLogWriter, never()).submit(any());
+    }
+
+    @Test
+    void doFilter_ShouldSkipEverything_WhenPayloadLoggerIsOff() throws Exception {
+        // Given
+        PayloadCaptureFilter disabled = new PayloadCaptureFilter(payloadLogWriter, () -> false,
+                new String[]{"/api/**"}, new String[0], 16);
+
+        // When
+        disabled.doFilter(new MockHttpServletRequest("GET", "/api/public/shows"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        // Then
+        verify(payloadLogWriter, never()).submit(any());
+    }
+
+    @Test
+    void doFilter_ShouldPassOriginalRequestThroughWhenSkipped() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/admin/settings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(chain.getResponse()).isSameAs(response);
+    }
+}
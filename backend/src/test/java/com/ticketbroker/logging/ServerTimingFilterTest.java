@@ -0,0 +1,90 @@
+package com.ticketbroker.logging;
+
+import com.ticketbroker.logging.RequestTimings.Phase;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+
+    private static void timed(Phase phase) {
+        long start = RequestTimings.enter(phase);
+        RequestTimings.exit(phase, start);
+    }
+
+    @Test
+    void doFilter_ShouldAddHeaderWithRecordedPhasesBeforeBodyIsWritten() throws Exception {
+        // Given
+        ServerTimingFilter filter = new ServerTimingFilter(true, 60_000);
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/public/bookings");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                timed(Phase.DB);
+                timed(Phase.DB);
+                timed(Phase.MAIL);
+                res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8));
+                res.flushBuffer();
+            }
+        };
+
+        // When
+        filter.doFilter(request, response, chain);
+
+        // Then
+        assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .matches("db;dur=\\d+\\.\\d;desc=\"2 calls\", mail;dur=\\d+\\.\\d;desc=\"1 calls\", app;dur=\\d+\\.\\d");
+    }
+
+    @Test
+    void doFilter_ShouldNotExposeHeaderWhenDisabled() throws Exception {
+        // Given
+        ServerTimingFilter filter = new ServerTimingFilter(false, 60_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/public/shows"), response, new MockFilterChain());
+
+        // Then
+        assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+    }
+
+    @Test
+    void enter_ShouldCountOutermostCallOfNestedPhaseOnly() {
+        // Given
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            // When
+            long outer = RequestTimings.enter(Phase.PDF);
+            timed(Phase.PDF);
+            timed(Phase.QR);
+            RequestTimings.exit(Phase.PDF, outer);
+        } finally {
+            RequestTimings.end();
+        }
+
+        // Then
+        assertThat(timings.count(Phase.PDF)).isEqualTo(1);
+        assertThat(timings.count(Phase.QR)).isEqualTo(1);
+        assertThat(timings.summary()).startsWith("qr=").contains(", pdf=");
+    }
+
+    @Test
+    void enter_ShouldRecordNothingOutsideRequest() {
+        // When
+        long start = RequestTimings.enter(Phase.DB);
+        RequestTimings.exit(Phase.DB, start);
+
+        // Then
+        assertThat(start).isEqualTo(-1);
+    }
+}
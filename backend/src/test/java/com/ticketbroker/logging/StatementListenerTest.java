@@ -0,0 +1,148 @@
+package com.ticketbroker.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StatementListenerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StatementListener statementListener;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statementListener = new StatementListener(meterRegistry);
+    }
+
+    private void execute(String sql) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setElapsedTime(2);
+        statementListener.afterQuery(executionInfo, List.of(new QueryInfo(sql)));
+    }
+
+    private void next(boolean hasRow) throws Exception {
+        statementListener.afterMethod(MethodExecutionContext.Builder.create()
+                .target(mock(ResultSet.class))
+                .method(ResultSet.class.getMethod("next"))
+                .result(hasRow)
+                .build());
+    }
+
+    private void call(Object target, Class<?> type, String method) throws Exception {
+        statementListener.afterMethod(MethodExecutionContext.Builder.create()
+                .target(target)
+                .method(type.getMethod(method))
+                .build());
+    }
+
+    @Test
+    void afterQuery_ShouldCountStatementsAndRowsInNestedScopes() throws Exception {
+        // Given
+        StatementScope outer = StatementScope.open();
+        StatementScope inner = StatementScope.open();
+
+        // When
+        execute("select * from shows");
+        next(true);
+        next(true);
+        next(false);
+        inner.close();
+        execute("select * from settings");
+        outer.close();
+
+        // Then
+        assertThat(inner.getStatementCount()).isEqualTo(1);
+        assertThat(inner.getRowCount()).isEqualTo(2);
+        assertThat(outer.getStatementCount()).isEqualTo(2);
+        assertThat(outer.getElapsedMillis()).isEqualTo(4);
+        assertThat(StatementScope.current()).isNull();
+    }
+
+    @Test
+    void repeatedShapes_ShouldGroupStatementsThatOnlyDifferInLiterals() {
+        // Given
+        StatementScope scope = StatementScope.open();
+
+        // When
+        for (int showId = 1; showId <= 5; showId++) {
+            execute("select b.id from bookings b where b.show_id = " + showId);
+        }
+        execute("select t.id from tickets t where t.id in (?, ?, ?)");
+        execute("select t.id from tickets t where t.id in (?)");
+        scope.close();
+
+        // Then
+        assertThat(scope.repeatedShapes(5))
+                .containsExactly(Map.entry("select b.id from bookings b where b.show_id = ?", 5));
+        assertThat(scope.repeatedShapes(2))
+                .containsEntry("select t.id from tickets t where t.id in (?)", 2);
+    }
+
+    @Test
+    void afterQuery_ShouldTagStatementsWithRepositoryMethod() {
+        // Given
+        String previous = StatementListener.enterRepositoryMethod("ShowRepository.findAll");
+
+        // When
+        execute("select * from shows");
+        StatementListener.exitRepositoryMethod(previous);
+        execute("select * from bookings where show_id = ?");
+
+        // Then
+        assertThat(meterRegistry.get("ticketbroker.jdbc.statements")
+                .tag("repository_method", "ShowRepository.findAll").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("ticketbroker.jdbc.statements")
+                .tag("repository_method", StatementListener.OUTSIDE_REPOSITORY).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void afterMethod_ShouldMeasureConnectionHoldTime() throws Exception {
+        // Given
+        StatementScope scope = StatementScope.open();
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+
+        // When
+        call(mock(DataSource.class), DataSource.class, "getConnection");
+        call(mock(DataSource.class), DataSource.class, "getConnection");
+        Thread.sleep(5);
+        call(first, Connection.class, "close");
+        call(second, Connection.class, "close");
+        long held = scope.getConnectionHoldNanos();
+        Thread.sleep(5);
+        scope.close();
+
+        // Then
+        assertThat(held).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(scope.getConnectionHoldNanos()).isEqualTo(held);
+    }
+
+    @Test
+    void close_ShouldCountConnectionStillHeld() throws Exception {
+        // Given
+        StatementScope scope = StatementScope.open();
+        call(mock(DataSource.class), DataSource.class, "getConnection");
+
+        // When
+        Thread.sleep(5);
+        scope.close();
+
+        // Then
+        assertThat(scope.getConnectionHoldNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+    }
+}
@@ -11,11 +11,13 @@ import com.ticketbroker.util.BookingReferenceGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -24,6 +26,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -48,6 +51,18 @@ class BookingServiceTest {
     @Mock
     private TicketRepository ticketRepository;
 
+    @Mock
+    private DoorEntryFeedService doorEntryFeedService;
+
+    @Mock
+    private ReferenceFilterService referenceFilterService;
+
+    @Mock
+    private PublicSnapshotService publicSnapshotService;
+
+    @Mock
+    private SeatHoldService seatHoldService;
+
     @InjectMocks
     private BookingService bookingService;
 
@@ -80,6 +95,7 @@ class BookingServiceTest {
     void createBooking_ShouldCreateBooking_WhenShowExistsAndTicketsAvailable() {
         // Given
         when(showRepository.findById(1L)).thenReturn(Optional.of(testShow));
+        when(showRepository.reserveTickets(1L, testBooking.getTotalTickets())).thenReturn(1);
         when(bookingReferenceGenerator.generateUniqueReference()).thenReturn("ABC123");
         when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
             Booking booking = invocation.getArgument(0);
@@ -101,6 +117,7 @@ class BookingServiceTest {
         verify(bookingReferenceGenerator).generateUniqueReference();
         verify(bookingRepository).save(any(Booking.class));
         verify(auditService).logBookingCreated(any(Booking.class));
+        verify(referenceFilterService).referenceAdded(eq(ReferenceFilterService.ReferenceKind.BOOKING), any());
     }
 
     @Test
@@ -134,6 +151,89 @@ class BookingServiceTest {
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void createBooking_ShouldThrowException_WhenTicketsWereTakenConcurrently() {
+        // Given
+        when(showRepository.findById(1L)).thenReturn(Optional.of(testShow));
+        when(showRepository.reserveTickets(1L, testBooking.getTotalTickets())).thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> bookingService.createBooking(testBooking))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not enough tickets available");
+
+        verify(bookingReferenceGenerator, never()).generateUniqueReference();
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createBooking_ShouldUseHeldSeats_WhenHoldIsValid() {
+        // Given
+        when(showRepository.findById(1L)).thenReturn(Optional.of(testShow));
+        when(seatHoldService.consume("hold-token", 1L, 3)).thenReturn(true);
+        when(bookingReferenceGenerator.generateUniqueReference()).thenReturn("ABC123");
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Booking result = bookingService.createBooking(testBooking, "hold-token");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.RESERVED);
+        verify(showRepository, never()).reserveTickets(any(), anyInt());
+        verify(publicSnapshotService, never()).showsChanged();
+    }
+
+    @Test
+    void createBooking_ShouldReserveTickets_WhenHoldHasExpired() {
+        // Given
+        when(showRepository.findById(1L)).thenReturn(Optional.of(testShow));
+        when(seatHoldService.consume("hold-token", 1L, 3)).thenReturn(false);
+        when(showRepository.reserveTickets(1L, 3)).thenReturn(1);
+        when(bookingReferenceGenerator.generateUniqueReference()).thenReturn("ABC123");
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        bookingService.createBooking(testBooking, "hold-token");
+
+        // Then
+        verify(showRepository).reserveTickets(1L, 3);
+        verify(publicSnapshotService).showsChanged();
+    }
+
+    @Test
+    void createBooking_ShouldReadShow_AfterUnusableHoldIsReleased() {
+        // Given
+        when(seatHoldService.consume("hold-token", 1L, 3)).thenReturn(false);
+        when(showRepository.findById(1L)).thenReturn(Optional.of(testShow));
+        when(showRepository.reserveTickets(1L, 3)).thenReturn(1);
+        when(bookingReferenceGenerator.generateUniqueReference()).thenReturn("ABC123");
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        bookingService.createBooking(testBooking, "hold-token");
+
+        // Then
+        InOrder inOrder = inOrder(seatHoldService, showRepository);
+        inOrder.verify(seatHoldService).consume("hold-token", 1L, 3);
+        inOrder.verify(showRepository).findById(1L);
+        inOrder.verify(showRepository).reserveTickets(1L, 3);
+    }
+
+    @Test
+    void createBooking_ShouldThrowException_WhenHoldHasExpiredAndShowIsSoldOut() {
+        // Given
+        testShow.setAvailableTickets(0);
+        when(showRepository.findById(1L)).thenReturn(Optional.of(testShow));
+        when(seatHoldService.consume("hold-token", 1L, 3)).thenReturn(false);
+
+        // When/Then
+        assertThatThrownBy(() -> bookingService.createBooking(testBooking, "hold-token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not enough tickets available");
+
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void createBooking_ShouldThrowException_WhenShowIsNull() {
         // Given
@@ -152,6 +252,7 @@ class BookingServiceTest {
     void updateBookingStatus_ShouldDeleteTickets_WhenChangingFromConfirmedToReserved() {
         // Given
         testBooking.setStatus(BookingStatus.CONFIRMED);
+        when(bookingRepository.lockStatus(1L)).thenReturn(Optional.of("confirmed"));
         List<Ticket> tickets = Arrays.asList(
                 createTicket(1L, false),
                 createTicket(2L, false)
@@ -167,6 +268,7 @@ class BookingServiceTest {
         // Then
         assertThat(result.getStatus()).isEqualTo(BookingStatus.RESERVED);
         verify(ticketRepository, times(2)).delete(any(Ticket.class));
+        verify(referenceFilterService).referencesRemoved(ReferenceFilterService.ReferenceKind.TICKET, 2);
         verify(auditService, times(2)).logTicketDeleted(any(Ticket.class), eq("admin"), anyString());
         verify(showRepository).save(any(Show.class));
     }
@@ -175,6 +277,7 @@ class BookingServiceTest {
     void updateBookingStatus_ShouldThrowException_WhenChangingFromConfirmedWithUsedTickets() {
         // Given
         testBooking.setStatus(BookingStatus.CONFIRMED);
+        when(bookingRepository.lockStatus(1L)).thenReturn(Optional.of("confirmed"));
         List<Ticket> tickets = Arrays.asList(
                 createTicket(1L, false),
                 createTicket(2L, true) // One ticket is used
@@ -193,6 +296,7 @@ class BookingServiceTest {
     void updateBookingStatus_ShouldGenerateTickets_WhenChangingToConfirmed() {
         // Given
         testBooking.setStatus(BookingStatus.RESERVED);
+        when(bookingRepository.lockStatus(1L)).thenReturn(Optional.of("reserved"));
         when(bookingRepository.findByShowId(1L)).thenReturn(new ArrayList<>());
         when(showRepository.save(any(Show.class))).thenReturn(testShow);
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
@@ -254,10 +358,29 @@ class BookingServiceTest {
         verify(showRepository).save(argThat(show -> show.getAvailableTickets() == 0));
     }
 
+    @Test
+    void updateShowAvailability_ShouldLeaveOutHeldSeats() {
+        // Given
+        testShow.setTotalTickets(100);
+        Booking booking = new Booking();
+        booking.setStatus(BookingStatus.RESERVED);
+        booking.setAdultTickets(2);
+        booking.setStudentTickets(0);
+        when(bookingRepository.findByShowId(1L)).thenReturn(List.of(booking));
+        when(seatHoldService.heldSeats(1L)).thenReturn(4L);
+
+        // When
+        bookingService.updateShowAvailability(testShow);
+
+        // Then
+        verify(showRepository).save(argThat(show -> show.getAvailableTickets() == 94));
+    }
+
     @Test
     void confirmPaymentByAdmin_ShouldConfirmBookingAndGenerateTickets() {
         // Given
         testBooking.setStatus(BookingStatus.RESERVED);
+        when(bookingRepository.lockStatus(1L)).thenReturn(Optional.of("reserved"));
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         when(bookingRepository.findByShowId(1L)).thenReturn(new ArrayList<>());
         when(showRepository.save(any(Show.class))).thenReturn(testShow);
@@ -274,6 +397,96 @@ class BookingServiceTest {
         verify(showRepository).save(any(Show.class));
     }
 
+    @Test
+    void confirmPaymentByAdmin_ShouldRetakeTickets_WhenReservationExpired() {
+        // Given
+        testBooking.setStatus(BookingStatus.RESERVED);
+        when(bookingRepository.lockStatus(1L)).thenReturn(Optional.of("expired"));
+        when(showRepository.reserveTickets(1L, 3)).thenReturn(1);
+        when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
+        when(bookingRepository.findByShowId(1L)).thenReturn(new ArrayList<>());
+
+        // When
+        Booking result = bookingService.confirmPaymentByAdmin(testBooking, "admin");
+
+        // Then
+        assertThat(result.getStatus()).isEqualTo(BookingStatus.CONFIRMED);
+        verify(showRepository).reserveTickets(1L, 3);
+    }
+
+    @Test
+    void confirmPaymentByAdmin_ShouldThrow_WhenExpiredReservationCannotRetakeTickets() {
+        // Given
+        when(bookingRepository.lockStatus(1L)).thenReturn(Optional.of("expired"));
+        when(showRepository.reserveTickets(1L, 3)).thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> bookingService.confirmPaymentByAdmin(testBooking, "admin"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not enough tickets available");
+        verify(ticketService, never()).generateTicketsForBooking(any());
+    }
+
+    @Test
+    void updateBookingStatus_ShouldReject_WhenChangingToExpired() {
+        // When/Then
+        assertThatThrownBy(() -> bookingService.updateBookingStatus(testBooking, BookingStatus.EXPIRED, "admin"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void expireReservations_ShouldExpireBookingsAndReleaseTicketsPerShow() {
+        // Given
+        LocalDateTime unpaidBefore = LocalDateTime.now().minusHours(48);
+        LocalDateTime paymentStartedBefore = unpaidBefore.minusHours(72);
+        Booking other = new Booking();
+        other.setId(2L);
+        other.setShow(testShow);
+        other.setAdultTickets(1);
+        other.setStudentTickets(0);
+        when(bookingRepository.lockExpiredReservationIds(unpaidBefore, paymentStartedBefore, 100))
+                .thenReturn(List.of(1L, 2L));
+        when(bookingRepository.findWithShowByIdIn(List.of(1L, 2L))).thenReturn(List.of(testBooking, other));
+
+        // When
+        List<Booking> expired = bookingService.expireReservations(unpaidBefore, paymentStartedBefore, 100);
+
+        // Then
+        assertThat(expired).extracting(Booking::getStatus).containsOnly(BookingStatus.EXPIRED);
+        verify(showRepository).releaseTickets(1L, 4);
+        verify(bookingRepository).saveAll(List.of(testBooking, other));
+        verify(auditService).logReservationExpired(testBooking);
+        verify(publicSnapshotService).showsChanged();
+    }
+
+    @Test
+    void expireReservations_ShouldDoNothing_WhenNoReservationIsDue() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        when(bookingRepository.lockExpiredReservationIds(now, now, 100)).thenReturn(List.of());
+
+        // When
+        List<Booking> expired = bookingService.expireReservations(now, now, 100);
+
+        // Then
+        assertThat(expired).isEmpty();
+        verify(showRepository, never()).releaseTickets(any(), anyInt());
+        verifyNoInteractions(publicSnapshotService);
+    }
+
+    @Test
+    void initiatePayment_ShouldThrow_WhenReservationExpired() {
+        // Given
+        testBooking.setStatus(BookingStatus.EXPIRED);
+
+        // When/Then
+        assertThatThrownBy(() -> bookingService.initiatePayment(testBooking))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Reservation has expired");
+        verify(bookingRepository, never()).save(any());
+    }
+
     @Test
     void initiatePayment_ShouldSetPaymentInitiated() {
         // Given
@@ -0,0 +1,185 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.dto.DoorEntryEvent;
+import com.ticketbroker.model.Show;
+import com.ticketbroker.model.Ticket;
+import com.ticketbroker.repository.ShowRepository;
+import com.ticketbroker.repository.TicketRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoorEntryFeedServiceTest {
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private ShowRepository showRepository;
+
+    private DoorEntryFeedService doorEntryFeedService;
+
+    private Show testShow;
+
+    @BeforeEach
+    void setUp() {
+        doorEntryFeedService = new DoorEntryFeedService(ticketRepository, showRepository, new SimpleMeterRegistry());
+
+        testShow = new Show();
+        testShow.setId(1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        doorEntryFeedService.shutdown();
+    }
+
+    private Ticket ticket(String reference, boolean used) {
+        Ticket ticket = new Ticket();
+        ticket.setShow(testShow);
+        ticket.setTicketReference(reference);
+        ticket.setTicketType("normal");
+        ticket.setIsUsed(used);
+        return ticket;
+    }
+
+    @Test
+    void snapshot_ShouldSeedCountersFromDatabaseOnce() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenReturn(10L);
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(4L);
+
+        // When
+        DoorEntryEvent first = doorEntryFeedService.snapshot(1L);
+        DoorEntryEvent second = doorEntryFeedService.snapshot(1L);
+
+        // Then
+        assertThat(first.getIssued()).isEqualTo(10);
+        assertThat(first.getAdmitted()).isEqualTo(4);
+        assertThat(first.getRemaining()).isEqualTo(6);
+        assertThat(second.getAdmitted()).isEqualTo(4);
+        verify(ticketRepository, times(1)).countByShowId(1L);
+    }
+
+    @Test
+    void ticketAdmitted_ShouldUpdateCountersInMemory() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenReturn(10L);
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(4L);
+        doorEntryFeedService.snapshot(1L);
+
+        // When
+        doorEntryFeedService.ticketAdmitted(ticket("ABCDE-N01", true));
+        doorEntryFeedService.ticketAdmitted(ticket("ABCDE-N02", true));
+        doorEntryFeedService.ticketReset(ticket("ABCDE-N01", false));
+
+        // Then
+        DoorEntryEvent snapshot = doorEntryFeedService.snapshot(1L);
+        assertThat(snapshot.getAdmitted()).isEqualTo(5);
+        assertThat(snapshot.getRemaining()).isEqualTo(5);
+        verify(ticketRepository, times(1)).countByShowIdAndIsUsed(1L, true);
+    }
+
+    @Test
+    void ticketsIssuedAndRemoved_ShouldAdjustIssuedCount() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenReturn(2L);
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(0L);
+        doorEntryFeedService.snapshot(1L);
+
+        // When
+        doorEntryFeedService.ticketsIssued(List.of(ticket("FGHIJ-N01", false), ticket("FGHIJ-D02", false)));
+        doorEntryFeedService.ticketRemoved(ticket("FGHIJ-D02", false));
+
+        // Then
+        DoorEntryEvent snapshot = doorEntryFeedService.snapshot(1L);
+        assertThat(snapshot.getIssued()).isEqualTo(3);
+        assertThat(snapshot.getRemaining()).isEqualTo(3);
+    }
+
+    @Test
+    void invalidate_ShouldReseedCountersOnNextUse() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenReturn(10L, 6L);
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(4L, 4L);
+        doorEntryFeedService.snapshot(1L);
+
+        // When
+        doorEntryFeedService.invalidate(1L);
+        DoorEntryEvent snapshot = doorEntryFeedService.snapshot(1L);
+
+        // Then
+        assertThat(snapshot.getIssued()).isEqualTo(6);
+        verify(ticketRepository, times(2)).countByShowId(1L);
+    }
+
+    @Test
+    void ticketAdmitted_WithoutSeededCounters_ShouldNotQueryDatabase() {
+        // When
+        doorEntryFeedService.ticketAdmitted(ticket("ABCDE-N01", true));
+
+        // Then
+        verifyNoInteractions(ticketRepository);
+    }
+
+    @Test
+    void ticketRemoved_WithUnknownUsedFlag_ShouldOnlyAdjustIssuedCount() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenReturn(5L);
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(2L);
+        doorEntryFeedService.snapshot(1L);
+        Ticket ticket = ticket("ABCDE-N03", false);
+        ticket.setIsUsed(null);
+
+        // When
+        doorEntryFeedService.ticketRemoved(ticket);
+
+        // Then
+        DoorEntryEvent snapshot = doorEntryFeedService.snapshot(1L);
+        assertThat(snapshot.getIssued()).isEqualTo(4);
+        assertThat(snapshot.getAdmitted()).isEqualTo(2);
+    }
+
+    @Test
+    void snapshot_WhenTicketChangesDuringSeed_ShouldDiscardSeedAndCountAgain() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenAnswer(invocation -> {
+            if (mockingDetails(ticketRepository).getInvocations().size() == 1) {
+                // A scan commits while the first seed is counting
+                doorEntryFeedService.ticketAdmitted(ticket("ABCDE-N01", true));
+            }
+            return 10L;
+        });
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(4L, 5L);
+
+        // When
+        DoorEntryEvent snapshot = doorEntryFeedService.snapshot(1L);
+
+        // Then
+        assertThat(snapshot.getAdmitted()).isEqualTo(5);
+        verify(ticketRepository, times(2)).countByShowId(1L);
+    }
+
+    @Test
+    void subscribe_ShouldRegisterSubscriber() {
+        // Given
+        when(ticketRepository.countByShowId(1L)).thenReturn(0L);
+        when(ticketRepository.countByShowIdAndIsUsed(1L, true)).thenReturn(0L);
+
+        // When
+        doorEntryFeedService.subscribe(1L);
+
+        // Then
+        assertThat(doorEntryFeedService.getSubscriberCount()).isEqualTo(1);
+    }
+}
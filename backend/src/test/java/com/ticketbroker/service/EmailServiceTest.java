@@ -0,0 +1,126 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.model.Show;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private SettingsService settingsService;
+
+    private EmailService emailService;
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        emailService = new EmailService(mailSender, settingsService);
+        when(settingsService.getValue(anyString(), anyString())).thenAnswer(invocation -> invocation.getArgument(1));
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+
+        Show show = new Show();
+        show.setId(1L);
+        show.setDate(LocalDate.now());
+        show.setStartTime("19:00");
+        show.setEndTime("21:00");
+
+        booking = new Booking();
+        booking.setShow(show);
+        booking.setBookingReference("ABC12");
+        booking.setFirstName("Anna");
+        booking.setLastName("Berg");
+        booking.setEmail("anna@example.com");
+        booking.setPhone("0701234567");
+        booking.setAdultTickets(1);
+        booking.setStudentTickets(0);
+        booking.setTotalAmount(200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emailService.shutdown();
+    }
+
+    @Test
+    void sendAdminNotification_ShouldSendOnCallingThread_WhenOnPlatformThread() throws Exception {
+        // Given
+        AtomicReference<Thread> sender = new AtomicReference<>();
+        doAnswer(invocation -> {
+            sender.set(Thread.currentThread());
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+
+        // When
+        emailService.sendAdminNotification(booking);
+
+        // Then
+        assertThat(sender.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    void sendAdminNotification_ShouldSendOnPlatformThread_WhenOnVirtualThread() throws Exception {
+        // Given
+        AtomicReference<Thread> sender = new AtomicReference<>();
+        doAnswer(invocation -> {
+            sender.set(Thread.currentThread());
+            return null;
+        }).when(mailSender).send(any(MimeMessage.class));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // When
+        Thread.ofVirtual().start(() -> {
+            try {
+                emailService.sendAdminNotification(booking);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }).join();
+
+        // Then
+        assertThat(failure.get()).isNull();
+        assertThat(sender.get().isVirtual()).isFalse();
+        assertThat(sender.get().getName()).startsWith("smtp-");
+    }
+
+    @Test
+    void sendAdminNotification_ShouldPropagateMailFailure_WhenOnVirtualThread() throws Exception {
+        // Given
+        doThrow(new MailSendException("SMTP down")).when(mailSender).send(any(MimeMessage.class));
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // When
+        Thread.ofVirtual().start(() -> {
+            try {
+                emailService.sendAdminNotification(booking);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }).join();
+
+        // Then
+        assertThat(failure.get()).isInstanceOf(MailSendException.class).hasMessageContaining("SMTP down");
+    }
+}
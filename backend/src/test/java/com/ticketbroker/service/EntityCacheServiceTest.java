@@ -0,0 +1,45 @@
+package com.ticketbroker.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EntityCacheServiceTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private PublicSnapshotService publicSnapshotService;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
+    @Test
+    void evictAll_ShouldEvictCacheRegionsAndPublicSnapshots() {
+        // Given
+        // SessionFactory is an EntityManagerFactory too, so the service is built by hand rather than injected
+        EntityCacheService entityCacheService = new EntityCacheService(entityManagerFactory, publicSnapshotService);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+
+        // When
+        entityCacheService.evictAll();
+
+        // Then
+        verify(cache).evictAllRegions();
+        verify(publicSnapshotService).showsChanged();
+        verify(publicSnapshotService).settingsChanged();
+    }
+}
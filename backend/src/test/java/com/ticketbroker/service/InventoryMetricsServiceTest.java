@@ -0,0 +1,75 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Show;
+import com.ticketbroker.repository.ShowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryMetricsServiceTest {
+
+    @Mock
+    private ShowRepository showRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private InventoryMetricsService inventoryMetricsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        inventoryMetricsService = new InventoryMetricsService(showRepository, meterRegistry);
+    }
+
+    private Show show(long id, int total, int available) {
+        Show show = new Show();
+        show.setId(id);
+        show.setDate(LocalDate.of(2025, 5, 20));
+        show.setStartTime("18:00");
+        show.setTotalTickets(total);
+        show.setAvailableTickets(available);
+        return show;
+    }
+
+    @Test
+    void refresh_ShouldPublishGaugesPerShow() {
+        // Given
+        when(showRepository.findAllByOrderByDateAscStartTimeAsc()).thenReturn(List.of(show(1L, 100, 40), show(2L, 80, 80)));
+
+        // When
+        inventoryMetricsService.refresh();
+
+        // Then
+        assertThat(meterRegistry.get("ticketbroker.show.tickets.available").tag("show", "1").gauge().value())
+                .isEqualTo(40);
+        assertThat(meterRegistry.get("ticketbroker.show.tickets.total").tag("show", "2").gauge().value())
+                .isEqualTo(80);
+    }
+
+    @Test
+    void refresh_ShouldRemoveGaugesOfDeletedShows() {
+        // Given
+        when(showRepository.findAllByOrderByDateAscStartTimeAsc())
+                .thenReturn(List.of(show(1L, 100, 40), show(2L, 80, 80)))
+                .thenReturn(List.of(show(1L, 100, 39)));
+        inventoryMetricsService.refresh();
+
+        // When
+        inventoryMetricsService.refresh();
+
+        // Then
+        assertThat(meterRegistry.find("ticketbroker.show.tickets.available").gauges()).hasSize(1);
+        assertThat(meterRegistry.get("ticketbroker.show.tickets.available").tag("show", "1").gauge().value())
+                .isEqualTo(39);
+    }
+}
@@ -0,0 +1,171 @@
+package com.ticketbroker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ticketbroker.dto.ShowSummary;
+import com.ticketbroker.repository.SettingsRepository;
+import com.ticketbroker.repository.ShowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PublicSnapshotServiceTest {
+
+    @Mock
+    private ShowRepository showRepository;
+
+    @Mock
+    private SettingsRepository settingsRepository;
+
+    private PublicSnapshotService publicSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        publicSnapshotService = snapshotService(60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private PublicSnapshotService snapshotService(long maxAgeMillis) {
+        return new PublicSnapshotService(showRepository, settingsRepository,
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), maxAgeMillis);
+    }
+
+    private static ShowSummary show(long id, int available) {
+        return new ShowSummary(id, LocalDate.of(2026, 5, 20), "18:00", "20:00", 100, available, null);
+    }
+
+    private static SettingsRepository.KeyValue setting(String key, String value) {
+        return new SettingsRepository.KeyValue() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public String getValue() {
+                return value;
+            }
+        };
+    }
+
+    private static String json(PublicSnapshotService.Snapshot snapshot) {
+        return new String(snapshot.body(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shows_ShouldSerializeOnce_WhileNothingChanges() {
+        // Given
+        when(showRepository.findSummaries()).thenReturn(List.of(show(1L, 40)));
+
+        // When
+        PublicSnapshotService.Snapshot first = publicSnapshotService.shows();
+        PublicSnapshotService.Snapshot second = publicSnapshotService.shows();
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(json(first)).contains("\"id\":1", "\"availableTickets\":40");
+        assertThat(first.eTag()).startsWith("\"").endsWith("\"");
+        verify(showRepository, times(1)).findSummaries();
+    }
+
+    @Test
+    void shows_ShouldRebuildWithNewETag_AfterShowsChanged() {
+        // Given
+        when(showRepository.findSummaries()).thenReturn(List.of(show(1L, 40)), List.of(show(1L, 38)));
+        PublicSnapshotService.Snapshot before = publicSnapshotService.shows();
+
+        // When
+        publicSnapshotService.showsChanged();
+        PublicSnapshotService.Snapshot after = publicSnapshotService.shows();
+
+        // Then
+        assertThat(json(after)).contains("\"availableTickets\":38");
+        assertThat(after.eTag()).isNotEqualTo(before.eTag());
+    }
+
+    @Test
+    void showsChanged_ShouldWaitForCommit_WhenTransactionIsActive() {
+        // Given
+        when(showRepository.findSummaries()).thenReturn(List.of(show(1L, 40)), List.of(show(1L, 38)));
+        PublicSnapshotService.Snapshot before = publicSnapshotService.shows();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        publicSnapshotService.showsChanged();
+        PublicSnapshotService.Snapshot duringTransaction = publicSnapshotService.shows();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        PublicSnapshotService.Snapshot afterCommit = publicSnapshotService.shows();
+
+        // Then
+        assertThat(duringTransaction).isSameAs(before);
+        assertThat(json(afterCommit)).contains("\"availableTickets\":38");
+    }
+
+    @Test
+    void shows_ShouldRebuild_WhenOlderThanMaxAge() {
+        // Given
+        publicSnapshotService = snapshotService(0);
+        when(showRepository.findSummaries()).thenReturn(List.of(show(1L, 40)));
+
+        // When
+        publicSnapshotService.shows();
+        publicSnapshotService.shows();
+
+        // Then
+        verify(showRepository, times(2)).findSummaries();
+    }
+
+    @Test
+    void settings_ShouldUseDefaults_ForMissingSettings() {
+        // Given
+        when(settingsRepository.findByKeyIn(anyCollection()))
+                .thenReturn(List.of(setting("concert_name", "Vårkonsert"), setting("class_photo_data", "abc")));
+
+        // When
+        String json = json(publicSnapshotService.settings());
+
+        // Then
+        assertThat(json).contains("\"concertName\":\"Vårkonsert\"", "\"adultPrice\":\"200\"",
+                "\"classPhotoData\":\"abc\"", "\"classPhotoContentType\":\"image/jpeg\"");
+        verify(settingsRepository, times(1)).findByKeyIn(anyCollection());
+    }
+
+    @Test
+    void initializationStatus_ShouldRebuild_AfterSettingsChanged() {
+        // Given
+        when(showRepository.count()).thenReturn(2L);
+        when(settingsRepository.findByKeyIn(List.of("class_photo_data")))
+                .thenReturn(List.of(), List.of(setting("class_photo_data", "abc")));
+        String before = json(publicSnapshotService.initializationStatus());
+
+        // When
+        publicSnapshotService.settingsChanged();
+        String after = json(publicSnapshotService.initializationStatus());
+
+        // Then
+        assertThat(before).contains("\"isInitialized\":false", "\"hasShows\":true");
+        assertThat(after).contains("\"isInitialized\":true", "\"message\":null");
+    }
+}
@@ -0,0 +1,135 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.repository.BookingRepository;
+import com.ticketbroker.repository.TicketRepository;
+import com.ticketbroker.service.ReferenceFilterService.ReferenceKind;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceFilterServiceTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReferenceFilterService referenceFilterService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        referenceFilterService = new ReferenceFilterService(bookingRepository, ticketRepository, meterRegistry,
+                true, 1_000, 0.01, 0.1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        referenceFilterService.shutdown();
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.get("ticketbroker.reference.filter.lookups")
+                .tag("kind", "booking").tag("result", result).counter().count();
+    }
+
+    @Test
+    void lookup_ShouldQueryDatabaseUntilFilterIsBuilt() {
+        // Given
+        when(bookingRepository.findByBookingReference("ABCDE")).thenReturn(Optional.of(new Booking()));
+
+        // When
+        Optional<Booking> result = referenceFilterService.lookup(ReferenceKind.BOOKING, "ABCDE",
+                () -> bookingRepository.findByBookingReference("ABCDE"));
+
+        // Then
+        assertThat(result).isPresent();
+        assertThat(referenceFilterService.isReady(ReferenceKind.BOOKING)).isFalse();
+        assertThat(lookups("bypassed")).isEqualTo(1);
+    }
+
+    @Test
+    void lookup_ShouldAnswerDefiniteMissWithoutDatabase() {
+        // Given
+        when(bookingRepository.count()).thenReturn(1L);
+        when(bookingRepository.findAllBookingReferences()).thenReturn(List.of("ABCDE"));
+        referenceFilterService.rebuild(ReferenceKind.BOOKING);
+
+        // When
+        Optional<Booking> result = referenceFilterService.lookup(ReferenceKind.BOOKING, "ZZZZZ",
+                () -> bookingRepository.findByBookingReference("ZZZZZ"));
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(bookingRepository, never()).findByBookingReference(anyString());
+        assertThat(lookups("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    void lookup_ShouldQueryDatabaseForKnownAndNewlyAddedReferences() {
+        // Given
+        when(bookingRepository.count()).thenReturn(1L);
+        when(bookingRepository.findAllBookingReferences()).thenReturn(List.of("ABCDE"));
+        referenceFilterService.rebuild(ReferenceKind.BOOKING);
+        referenceFilterService.referenceAdded(ReferenceKind.BOOKING, "FGHIJ");
+        when(bookingRepository.findByBookingReference(anyString())).thenReturn(Optional.of(new Booking()));
+
+        // When
+        referenceFilterService.lookup(ReferenceKind.BOOKING, "ABCDE",
+                () -> bookingRepository.findByBookingReference("ABCDE"));
+        referenceFilterService.lookup(ReferenceKind.BOOKING, "FGHIJ",
+                () -> bookingRepository.findByBookingReference("FGHIJ"));
+
+        // Then
+        verify(bookingRepository, times(2)).findByBookingReference(anyString());
+        assertThat(lookups("found")).isEqualTo(2);
+    }
+
+    @Test
+    void lookup_ShouldCountFalsePositiveForRemovedReference() {
+        // Given
+        when(bookingRepository.count()).thenReturn(1L);
+        when(bookingRepository.findAllBookingReferences()).thenReturn(List.of("ABCDE"));
+        referenceFilterService.rebuild(ReferenceKind.BOOKING);
+        when(bookingRepository.findByBookingReference("ABCDE")).thenReturn(Optional.empty());
+
+        // When
+        Optional<Booking> result = referenceFilterService.lookup(ReferenceKind.BOOKING, "ABCDE",
+                () -> bookingRepository.findByBookingReference("ABCDE"));
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(lookups("false_positive")).isEqualTo(1);
+    }
+
+    @Test
+    void lookup_ShouldPassThroughWhenDisabled() {
+        // Given
+        ReferenceFilterService disabled = new ReferenceFilterService(bookingRepository, ticketRepository,
+                new SimpleMeterRegistry(), false, 1_000, 0.01, 0.1);
+        disabled.onApplicationReady();
+
+        // When
+        disabled.lookup(ReferenceKind.TICKET, "ABCDE-N01", () -> ticketRepository.findByTicketReference("ABCDE-N01"));
+
+        // Then
+        verify(ticketRepository).findByTicketReference("ABCDE-N01");
+        verify(ticketRepository, never()).findAllTicketReferences();
+        disabled.shutdown();
+    }
+}
@@ -0,0 +1,120 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryServiceTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private EmailService emailService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void expireReservations_ShouldRunBatchesUntilOneIsNotFull() throws MessagingException {
+        // Given
+        ReservationExpiryService service = service(true, 2);
+        Booking first = booking("TB0001", 2);
+        Booking second = booking("TB0002", 1);
+        Booking third = booking("TB0003", 3);
+        when(bookingService.expireReservations(any(), any(), anyInt()))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+
+        // When
+        service.expireReservations();
+
+        // Then
+        verify(bookingService, times(2)).expireReservations(any(), any(), anyInt());
+        verify(emailService).sendReservationExpired(first);
+        verify(emailService).sendReservationExpired(second);
+        verify(emailService).sendReservationExpired(third);
+        assertThat(meterRegistry.get("ticketbroker.reservations.expired").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("ticketbroker.reservations.released_tickets").counter().count()).isEqualTo(6);
+    }
+
+    @Test
+    void expireReservations_ShouldPassCutoffsWithPaymentGrace() {
+        // Given
+        ReservationExpiryService service = service(true, 100);
+        when(bookingService.expireReservations(any(), any(), anyInt())).thenAnswer(invocation -> {
+            assertThat(invocation.<LocalDateTime>getArgument(1))
+                    .isEqualTo(invocation.<LocalDateTime>getArgument(0).minusHours(72));
+            return List.of();
+        });
+
+        // When
+        service.expireReservations();
+
+        // Then
+        verify(bookingService).expireReservations(any(), any(), anyInt());
+    }
+
+    @Test
+    void expireReservations_ShouldKeepGoing_WhenMailFails() throws MessagingException {
+        // Given
+        ReservationExpiryService service = service(true, 100);
+        Booking first = booking("TB0001", 1);
+        Booking second = booking("TB0002", 1);
+        when(bookingService.expireReservations(any(), any(), anyInt())).thenReturn(List.of(first, second));
+        doThrow(new MessagingException("SMTP down")).when(emailService).sendReservationExpired(first);
+
+        // When
+        service.expireReservations();
+
+        // Then
+        verify(emailService).sendReservationExpired(second);
+        assertThat(meterRegistry.get("ticketbroker.reservations.expired").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void expireReservations_ShouldDoNothing_WhenDisabled() {
+        // Given
+        ReservationExpiryService service = service(false, 100);
+
+        // When
+        service.expireReservations();
+
+        // Then
+        verifyNoInteractions(bookingService, emailService);
+    }
+
+    private ReservationExpiryService service(boolean enabled, int batchSize) {
+        return new ReservationExpiryService(bookingService, emailService, meterRegistry, enabled, 48, 72, batchSize);
+    }
+
+    private static Booking booking(String reference, int adultTickets) {
+        Booking booking = new Booking();
+        booking.setBookingReference(reference);
+        booking.setAdultTickets(adultTickets);
+        booking.setStudentTickets(0);
+        return booking;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.SeatHold;
+import com.ticketbroker.repository.SeatHoldRepository;
+import com.ticketbroker.repository.ShowRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SeatHoldServiceTest {
+    private static final String CLIENT = "192.0.2.10";
+
+    @Mock
+    private SeatHoldRepository seatHoldRepository;
+
+    @Mock
+    private ShowRepository showRepository;
+
+    @Mock
+    private PublicSnapshotService publicSnapshotService;
+
+    private SeatHoldService seatHoldService;
+
+    @BeforeEach
+    void setUp() {
+        seatHoldService = new SeatHoldService(seatHoldRepository, showRepository, publicSnapshotService,
+                new SimpleMeterRegistry(), 300, 10, 20);
+    }
+
+    @Test
+    void hold_ShouldTakeSeatsAndScheduleExpiry() {
+        // Given
+        when(showRepository.reserveTickets(1L, 3)).thenReturn(1);
+        when(seatHoldRepository.save(any(SeatHold.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        SeatHold hold = seatHoldService.hold(1L, 3, CLIENT);
+
+        // Then
+        assertThat(hold.getToken()).hasSize(36);
+        assertThat(hold.getShowId()).isEqualTo(1L);
+        assertThat(hold.getSeats()).isEqualTo(3);
+        assertThat(hold.getClientKey()).isEqualTo(CLIENT);
+        verify(seatHoldRepository).lockClient(CLIENT);
+        assertThat(hold.getExpiresAt()).isAfter(LocalDateTime.now().plusSeconds(290));
+        verify(publicSnapshotService).showsChanged();
+        assertThat(seatHoldService.dueHolds(System.currentTimeMillis())).isEmpty();
+        assertThat(seatHoldService.dueHolds(System.currentTimeMillis() + 302_000)).containsExactly(hold.getToken());
+    }
+
+    @Test
+    void hold_ShouldThrowException_WhenNotEnoughTicketsAvailable() {
+        // Given
+        when(showRepository.reserveTickets(1L, 3)).thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> seatHoldService.hold(1L, 3, CLIENT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Not enough tickets available");
+
+        verify(seatHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void hold_ShouldThrowException_WhenTooManySeats() {
+        // When/Then
+        assertThatThrownBy(() -> seatHoldService.hold(1L, 11, CLIENT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("between 1 and 10");
+
+        verify(showRepository, never()).reserveTickets(any(), anyInt());
+    }
+
+    @Test
+    void hold_ShouldThrowException_WhenClientWouldHoldTooManySeats() {
+        // Given
+        when(seatHoldRepository.sumActiveSeatsByClientKey(eq(CLIENT), any())).thenReturn(18L);
+
+        // When/Then
+        assertThatThrownBy(() -> seatHoldService.hold(1L, 3, CLIENT))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Too many seats held");
+
+        verify(showRepository, never()).reserveTickets(any(), anyInt());
+        verify(seatHoldRepository, never()).save(any());
+    }
+
+    @Test
+    void release_ShouldGiveSeatsBack_WhenHoldExists() {
+        // Given
+        SeatHold hold = hold("token", 1L, 2);
+        when(seatHoldRepository.findWithLockByToken("token")).thenReturn(Optional.of(hold));
+
+        // When
+        boolean released = seatHoldService.release("token");
+
+        // Then
+        assertThat(released).isTrue();
+        verify(seatHoldRepository).delete(hold);
+        verify(showRepository).releaseTickets(1L, 2);
+        verify(publicSnapshotService).showsChanged();
+    }
+
+    @Test
+    void release_ShouldDoNothing_WhenHoldWasAlreadyUsed() {
+        // Given
+        when(seatHoldRepository.findWithLockByToken("token")).thenReturn(Optional.empty());
+
+        // When
+        boolean released = seatHoldService.release("token");
+
+        // Then
+        assertThat(released).isFalse();
+        verify(showRepository, never()).releaseTickets(any(), anyInt());
+    }
+
+    @Test
+    void consume_ShouldDeleteHold_WhenHoldIsValid() {
+        // Given
+        when(seatHoldRepository.consume(eq("token"), eq(1L), eq(2), any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        boolean consumed = seatHoldService.consume("token", 1L, 2);
+
+        // Then
+        assertThat(consumed).isTrue();
+        verify(seatHoldRepository, never()).findWithLockByToken(any());
+        verify(showRepository, never()).releaseTickets(any(), anyInt());
+    }
+
+    @Test
+    void consume_ShouldReleaseSeats_WhenHoldExpiredButWasNotSweptYet() {
+        // Given
+        SeatHold hold = hold("token", 1L, 2);
+        when(seatHoldRepository.consume(eq("token"), eq(1L), eq(2), any(LocalDateTime.class))).thenReturn(0);
+        when(seatHoldRepository.findWithLockByToken("token")).thenReturn(Optional.of(hold));
+
+        // When
+        boolean consumed = seatHoldService.consume("token", 1L, 2);
+
+        // Then
+        assertThat(consumed).isFalse();
+        verify(seatHoldRepository).delete(hold);
+        verify(showRepository).releaseTickets(1L, 2);
+    }
+
+    @Test
+    void releaseExpired_ShouldReleaseSeatsPerShow() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<SeatHold> expired = List.of(hold("a", 1L, 2), hold("b", 1L, 3), hold("c", 2L, 1));
+        when(seatHoldRepository.lockExpired(now, 100)).thenReturn(expired);
+
+        // When
+        int released = seatHoldService.releaseExpired(now, 100);
+
+        // Then
+        assertThat(released).isEqualTo(3);
+        verify(seatHoldRepository).deleteAllInBatch(expired);
+        verify(showRepository).releaseTickets(1L, 5);
+        verify(showRepository).releaseTickets(2L, 1);
+        verify(publicSnapshotService).showsChanged();
+    }
+
+    private static SeatHold hold(String token, Long showId, int seats) {
+        SeatHold hold = new SeatHold();
+        hold.setToken(token);
+        hold.setShowId(showId);
+        hold.setSeats(seats);
+        hold.setExpiresAt(LocalDateTime.now());
+        return hold;
+    }
+}
@@ -18,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -50,6 +51,18 @@ class TicketServiceTest {
     @Mock
     private AuditService auditService;
 
+    @Mock
+    private DoorEntryFeedService doorEntryFeedService;
+
+    @Mock
+    private ReferenceFilterService referenceFilterService;
+
+    @Mock
+    private PublicSnapshotService publicSnapshotService;
+
+    @Mock
+    private SeatHoldService seatHoldService;
+
     @InjectMocks
     private TicketService ticketService;
 
@@ -107,6 +120,7 @@ class TicketServiceTest {
         assertThat(result.stream().filter(t -> "student".equals(t.getTicketType()))).hasSize(1);
         verify(ticketRepository, times(3)).save(any(Ticket.class));
         verify(auditService, times(3)).logTicketGenerated(any(Ticket.class), eq(testBooking));
+        verify(referenceFilterService, times(3)).referenceAdded(eq(ReferenceFilterService.ReferenceKind.TICKET), anyString());
     }
 
     @Test
@@ -184,7 +198,7 @@ class TicketServiceTest {
         Ticket ticket = new Ticket();
         ticket.setId(1L);
         ticket.setIsUsed(false);
-        when(ticketRepository.save(any(Ticket.class))).thenReturn(ticket);
+        when(ticketRepository.markUsed(eq(1L), any(LocalDateTime.class), eq("checker"))).thenReturn(1);
 
         // When
         ticketService.markTicketAsUsed(ticket, "checker");
@@ -193,8 +207,26 @@ class TicketServiceTest {
         assertThat(ticket.getIsUsed()).isTrue();
         assertThat(ticket.getUsedAt()).isNotNull();
         assertThat(ticket.getCheckedBy()).isEqualTo("checker");
-        verify(ticketRepository).save(ticket);
+        verify(ticketRepository).markUsed(1L, ticket.getUsedAt(), "checker");
         verify(auditService).logTicketUsed(ticket, "checker");
+        verify(doorEntryFeedService).ticketAdmitted(ticket);
+    }
+
+    @Test
+    void markTicketAsUsed_ShouldThrowException_WhenAdmittedConcurrently() {
+        // Given
+        Ticket ticket = new Ticket();
+        ticket.setId(1L);
+        ticket.setIsUsed(false);
+        when(ticketRepository.markUsed(eq(1L), any(LocalDateTime.class), eq("checker"))).thenReturn(0);
+
+        // When/Then
+        assertThatThrownBy(() -> ticketService.markTicketAsUsed(ticket, "checker"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Ticket is already used");
+
+        assertThat(ticket.getIsUsed()).isFalse();
+        verify(doorEntryFeedService, never()).ticketAdmitted(any());
     }
 
     @Test
@@ -209,7 +241,7 @@ class TicketServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("Ticket is already used");
 
-        verify(ticketRepository, never()).save(any());
+        verify(ticketRepository, never()).markUsed(any(), any(), any());
     }
 
     @Test
@@ -248,6 +280,7 @@ class TicketServiceTest {
         assertThat(ticket.getUsedAt()).isNull();
         assertThat(ticket.getCheckedBy()).isNull();
         verify(ticketRepository).save(ticket);
+        verify(doorEntryFeedService).ticketReset(ticket);
     }
 
     @Test
@@ -258,6 +291,7 @@ class TicketServiceTest {
         ticket.setIsUsed(false);
         ticket.setTicketType("normal");
         ticket.setBooking(testBooking);
+        testBooking.getTickets().add(ticket);
         testBooking.setAdultTickets(2);
         testBooking.setStudentTickets(1);
         testBooking.setTotalAmount(500);
@@ -268,7 +302,6 @@ class TicketServiceTest {
 
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         when(bookingRepository.findByShowId(1L)).thenReturn(new ArrayList<>());
-        when(showRepository.save(any(Show.class))).thenReturn(testShow);
 
         // When
         ticketService.deleteTicket(ticket, "admin", "Test reason");
@@ -276,9 +309,12 @@ class TicketServiceTest {
         // Then
         assertThat(testBooking.getAdultTickets()).isEqualTo(1); // Reduced by 1
         assertThat(testBooking.getTotalAmount()).isEqualTo(300); // (1*200) + (1*100)
+        assertThat(testBooking.getTickets()).doesNotContain(ticket);
         verify(bookingRepository).save(testBooking);
         verify(ticketRepository).delete(ticket);
         verify(auditService).logTicketDeleted(ticket, "admin", "Test reason");
+        verify(showRepository).updateTicketCounts(1L, 100, 100);
+        verify(showRepository, never()).save(any(Show.class));
     }
 
     @Test
@@ -314,7 +350,6 @@ class TicketServiceTest {
 
         when(bookingRepository.save(any(Booking.class))).thenReturn(testBooking);
         when(bookingRepository.findByShowId(1L)).thenReturn(new ArrayList<>());
-        when(showRepository.save(any(Show.class))).thenReturn(testShow);
 
         // When
         ticketService.deleteTicket(ticket, "admin", "reason");
@@ -0,0 +1,143 @@
+package com.ticketbroker.service;
+
+import com.ticketbroker.model.Booking;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class WarmUpServiceTest {
+
+    @Mock
+    private SettingsService settingsService;
+
+    @Mock
+    private PublicSnapshotService publicSnapshotService;
+
+    @Mock
+    private QrCodeService qrCodeService;
+
+    @Mock
+    private PdfService pdfService;
+
+    @Mock
+    private ExcelService excelService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void warmUp_ShouldRenderEveryDocumentAndLoadSettings() throws IOException {
+        // Given
+        WarmUpService warmUpService = warmUpService(true);
+
+        // When
+        warmUpService.warmUp();
+
+        // Then
+        ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+        verify(pdfService).generateTicketsPdf(booking.capture());
+        assertThat(booking.getValue().getTickets()).hasSize(1);
+        verify(excelService).exportBookingsToExcel(List.of(booking.getValue()));
+        verify(qrCodeService).generateQrCodeBase64("WARMUP");
+        verify(settingsService).getValue("concert_name", null);
+        verify(publicSnapshotService).settings();
+        assertThat(warmUpService.getState()).isEqualTo(WarmUpService.State.COMPLETED);
+        assertThat(warmUpService.getFailedSteps()).isEmpty();
+        assertThat(meterRegistry.get("ticketbroker.warmup").tag("step", "total").tag("result", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void warmUp_ShouldCompleteAndRecordFailure_WhenStepFails() throws IOException {
+        // Given
+        WarmUpService warmUpService = warmUpService(true);
+        when(pdfService.generateTicketsPdf(any())).thenThrow(new IOException("font missing"));
+
+        // When
+        warmUpService.warmUp();
+
+        // Then
+        verify(excelService).exportBookingsToExcel(anyList());
+        assertThat(warmUpService.getState()).isEqualTo(WarmUpService.State.COMPLETED);
+        assertThat(warmUpService.getFailedSteps()).containsExactly("pdf");
+        assertThat(meterRegistry.get("ticketbroker.warmup").tag("step", "pdf").tag("result", "failure")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void getState_ShouldReportRunning_WhileWarmUpIsWithinTimeout() throws IOException {
+        // Given
+        WarmUpService warmUpService = warmUpService(true);
+        AtomicReference<WarmUpService.State> stateDuringPdf = new AtomicReference<>();
+        when(pdfService.generateTicketsPdf(any())).thenAnswer(invocation -> {
+            stateDuringPdf.set(warmUpService.getState());
+            return new byte[0];
+        });
+
+        // When
+        warmUpService.warmUp();
+
+        // Then
+        assertThat(stateDuringPdf.get()).isEqualTo(WarmUpService.State.RUNNING);
+    }
+
+    @Test
+    void getState_ShouldReportTimedOut_WhenWarmUpRunsPastTimeout() throws IOException {
+        // Given
+        WarmUpService warmUpService = warmUpService(true, 0);
+        AtomicReference<WarmUpService.State> stateDuringPdf = new AtomicReference<>();
+        when(pdfService.generateTicketsPdf(any())).thenAnswer(invocation -> {
+            stateDuringPdf.set(warmUpService.getState());
+            return new byte[0];
+        });
+
+        // When
+        warmUpService.warmUp();
+
+        // Then
+        assertThat(stateDuringPdf.get()).isEqualTo(WarmUpService.State.TIMED_OUT);
+        assertThat(warmUpService.getState()).isEqualTo(WarmUpService.State.COMPLETED);
+    }
+
+    @Test
+    void onApplicationReady_ShouldDoNothing_WhenDisabled() {
+        // Given
+        WarmUpService warmUpService = warmUpService(false);
+
+        // When
+        warmUpService.onApplicationReady();
+
+        // Then
+        assertThat(warmUpService.getState()).isEqualTo(WarmUpService.State.DISABLED);
+        verifyNoInteractions(qrCodeService, pdfService, excelService, settingsService);
+    }
+
+    private WarmUpService warmUpService(boolean enabled) {
+        return warmUpService(enabled, 60);
+    }
+
+    private WarmUpService warmUpService(boolean enabled, long timeoutSeconds) {
+        return new WarmUpService(settingsService, publicSnapshotService, qrCodeService, pdfService, excelService,
+                meterRegistry, enabled, timeoutSeconds);
+    }
+}
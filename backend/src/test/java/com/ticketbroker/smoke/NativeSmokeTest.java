@@ -0,0 +1,241 @@
+package com.ticketbroker.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end checks against a running backend, meant for the native executable where reflection, resources and
+ * AWT only fail at runtime. Each step goes through one of the libraries the native hints cover: Hibernate
+ * entities, Jackson DTOs, ZXing (QR code), PDFBox (ticket PDF), POI (Excel export) and Micrometer.
+ * Skipped unless smoke.base-url is set:
+ * mvn test -Dtest=NativeSmokeTest -Dsmoke.base-url=http://localhost:8080 -Dsmoke.admin-password=smoke
+ * docker-compose.native-smoke.yml starts a matching native stack. The steps create a show and a booking, so
+ * run them against a throwaway database.
+ */
+@EnabledIfSystemProperty(named = "smoke.base-url", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class NativeSmokeTest {
+
+    private static final String EMAIL = "smoke@example.com";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String baseUrl = System.getProperty("smoke.base-url").replaceAll("/+$", "");
+    private final String adminAuth = "Basic " + Base64.getEncoder().encodeToString(
+            ("admin:" + System.getProperty("smoke.admin-password", "changeme")).getBytes(StandardCharsets.UTF_8));
+
+    private long showId;
+    private long bookingId;
+    private String bookingReference;
+
+    @Test
+    @Order(1)
+    void health_ShouldBeUp() throws Exception {
+        // When
+        HttpResponse<String> response = send(get("/actuator/health"));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(json(response).path("status").asText()).isEqualTo("UP");
+    }
+
+    @Test
+    @Order(2)
+    void createShow_ShouldPersistEntity() throws Exception {
+        // Given
+        Map<String, Object> show = Map.of(
+                "date", LocalDate.now().plusDays(30).toString(),
+                "startTime", "18:00",
+                "endTime", "20:00",
+                "totalTickets", 50);
+
+        // When
+        HttpResponse<String> response = send(admin(post("/api/admin/shows", show)));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(201);
+        showId = json(response).path("id").asLong();
+        assertThat(showId).isPositive();
+    }
+
+    @Test
+    @Order(3)
+    void getShows_ShouldServeSnapshotWithETag() throws Exception {
+        // When
+        HttpResponse<String> first = send(get("/api/public/shows"));
+        String eTag = first.headers().firstValue("ETag").orElseThrow();
+        HttpResponse<String> second = send(HttpRequest.newBuilder(uri("/api/public/shows"))
+                .header("If-None-Match", eTag).GET().build());
+
+        // Then
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(json(first).findValuesAsText("id")).contains(String.valueOf(showId));
+        assertThat(second.statusCode()).isEqualTo(304);
+    }
+
+    @Test
+    @Order(4)
+    void getSettings_ShouldReturnConcertSettings() throws Exception {
+        // When
+        HttpResponse<String> response = send(get("/api/public/settings"));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(json(response).path("concertName").asText()).isNotBlank();
+    }
+
+    @Test
+    @Order(5)
+    void createBooking_ShouldReturnReference() throws Exception {
+        // Given
+        Map<String, Object> booking = Map.of(
+                "showId", showId,
+                "firstName", "Smoke",
+                "lastName", "Test",
+                "email", EMAIL,
+                "phone", "0701234567",
+                "adultTickets", 1,
+                "studentTickets", 1);
+
+        // When
+        HttpResponse<String> response = send(post("/api/public/bookings", booking));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(201);
+        JsonNode body = json(response);
+        bookingId = body.path("id").asLong();
+        bookingReference = body.path("bookingReference").asText();
+        assertThat(bookingReference).isNotBlank();
+    }
+
+    @Test
+    @Order(6)
+    void initiatePayment_ShouldRenderQrCode() throws Exception {
+        // When
+        HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/api/public/bookings/" + bookingReference
+                        + "/initiate-payment?email=" + URLEncoder.encode(EMAIL, StandardCharsets.UTF_8)))
+                .header("User-Agent", "Mozilla/5.0 (X11; Linux x86_64)")
+                .POST(HttpRequest.BodyPublishers.noBody()).build());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(json(response).path("qrCodeData").asText()).startsWith("data:image/png;base64,");
+    }
+
+    @Test
+    @Order(7)
+    void confirmPayment_ShouldConfirmBooking() throws Exception {
+        // When
+        HttpResponse<String> response = send(admin(post("/api/admin/bookings/" + bookingId + "/confirm-payment",
+                Map.of())));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(json(response).path("status").asText()).isEqualToIgnoringCase("confirmed");
+    }
+
+    @Test
+    @Order(8)
+    void resendTickets_ShouldGeneratePdfAndSendMail() throws Exception {
+        // When
+        HttpResponse<String> response = send(admin(post("/api/admin/bookings/" + bookingId + "/resend-tickets",
+                Map.of())));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+    }
+
+    @Test
+    @Order(9)
+    void exportExcel_ShouldReturnWorkbook() throws Exception {
+        // When
+        HttpResponse<byte[]> response = client.send(admin(HttpRequest.newBuilder(uri("/api/admin/export/excel"))
+                .GET()).build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        // .xlsx is a zip archive
+        assertThat(new String(response.body(), 0, 2, StandardCharsets.US_ASCII)).isEqualTo("PK");
+    }
+
+    @Test
+    @Order(10)
+    void validateTicket_ShouldAcceptIssuedTicket() throws Exception {
+        // Given
+        HttpResponse<String> tickets = send(admin(HttpRequest.newBuilder(
+                uri("/api/admin/tickets?bookingRef=" + bookingReference)).GET()).build());
+        String ticketReference = json(tickets).path(0).path("ticketReference").asText();
+
+        // When
+        HttpResponse<String> response = send(post("/api/public/tickets/validate",
+                Map.of("ticketReference", ticketReference, "showId", showId)));
+
+        // Then
+        assertThat(ticketReference).isNotBlank();
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(json(response).path("valid").asBoolean()).isTrue();
+    }
+
+    @Test
+    @Order(11)
+    void prometheus_ShouldExposeApplicationMetrics() throws Exception {
+        // When
+        HttpResponse<String> response = send(admin(get("/actuator/prometheus")));
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body()).contains("ticketbroker_");
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) throws IOException {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                .build();
+    }
+
+    private HttpRequest admin(HttpRequest request) {
+        return admin(HttpRequest.newBuilder(request, (name, value) -> true)).build();
+    }
+
+    private HttpRequest.Builder admin(HttpRequest.Builder builder) {
+        return builder.header("Authorization", adminAuth);
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body());
+    }
+}
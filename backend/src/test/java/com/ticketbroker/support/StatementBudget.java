@@ -0,0 +1,67 @@
+package com.ticketbroker.support;
+
+import com.ticketbroker.logging.StatementScope;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Asserts how many JDBC statements a block of code issues, e.g.
+ * {@code StatementBudget.assertAtMost(3, () -> mockMvc.perform(get("/api/admin/shows")))}.
+ * Needs the proxied DataSource (app.jdbc-stats.enabled=true) and runs the block on the calling thread.
+ */
+public final class StatementBudget {
+    // Same default as app.jdbc-stats.n-plus-one-threshold
+    private static final int REPEATED_SHAPE_THRESHOLD = 5;
+
+    private StatementBudget() {
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    public static StatementScope measure(Action action) throws Exception {
+        StatementScope scope = StatementScope.open();
+        try {
+            action.run();
+        } finally {
+            scope.close();
+        }
+        return scope;
+    }
+
+    public static StatementScope assertAtMost(int maxStatements, Action action) throws Exception {
+        StatementScope scope = measure(action);
+        assertThat(scope.getStatementCount())
+                .as("JDBC statements (most repeated: %s)", describe(scope.repeatedShapes(2)))
+                .isLessThanOrEqualTo(maxStatements);
+        return scope;
+    }
+
+    public static StatementScope assertAtMost(int maxStatements, long maxRows, Action action) throws Exception {
+        StatementScope scope = assertAtMost(maxStatements, action);
+        assertThat(scope.getRowCount())
+                .as("JDBC rows read or updated")
+                .isLessThanOrEqualTo(maxRows);
+        return scope;
+    }
+
+    public static StatementScope assertNoRepeatedStatements(Action action) throws Exception {
+        StatementScope scope = measure(action);
+        assertThat(scope.repeatedShapes(REPEATED_SHAPE_THRESHOLD))
+                .as("statements repeated %d or more times (suspected N+1)", REPEATED_SHAPE_THRESHOLD)
+                .isEmpty();
+        return scope;
+    }
+
+    private static String describe(Map<String, Integer> shapes) {
+        return shapes.entrySet().stream()
+                .limit(3)
+                .map(entry -> entry.getValue() + "x " + entry.getKey())
+                .collect(Collectors.joining("; ", "[", "]"));
+    }
+}
@@ -6,83 +6,136 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
 
-import java.util.Optional;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingReferenceGeneratorTest {
 
+    private static final String KEY = "test-key";
+
     @Mock
     private BookingRepository bookingRepository;
 
     private BookingReferenceGenerator generator;
 
+    private final AtomicLong sequence = new AtomicLong(1);
+
     @BeforeEach
     void setUp() {
-        generator = new BookingReferenceGenerator(bookingRepository);
+        generator = new BookingReferenceGenerator(bookingRepository, KEY);
+        // Simulates booking_reference_seq (START WITH 1 INCREMENT BY 50)
+        lenient().when(bookingRepository.nextBookingReferenceBlock())
+                .thenAnswer(invocation -> sequence.getAndAdd(BookingReferenceGenerator.BLOCK_SIZE));
+        lenient().when(bookingRepository.findLegacyBookingReferences()).thenReturn(List.of());
     }
 
     @Test
-    void generateUniqueReference_ShouldGenerateReferenceOfCorrectLength() {
-        // Given
-        when(bookingRepository.findByBookingReference(anyString())).thenReturn(Optional.empty());
-
+    void generateUniqueReference_ShouldGenerateAlphanumericReferenceOfCorrectLength() {
         // When
         String reference = generator.generateUniqueReference();
 
         // Then
-        assertThat(reference).hasSize(5);
+        assertThat(reference).matches("[A-Z0-9]{5}");
+    }
+
+    @Test
+    void generateUniqueReference_ShouldNotProbeBookingsTable() {
+        // When
+        for (int i = 0; i < 200; i++) {
+            generator.generateUniqueReference();
+        }
+
+        // Then
+        verify(bookingRepository, never()).findByBookingReference(anyString());
+        verify(bookingRepository, times(4)).nextBookingReferenceBlock(); // 200 / 50 per block
+        verify(bookingRepository, times(1)).findLegacyBookingReferences();
     }
 
     @Test
-    void generateUniqueReference_ShouldGenerateAlphanumericReference() {
+    void generateUniqueReference_ShouldSkipLegacyReferences() {
         // Given
-        when(bookingRepository.findByBookingReference(anyString())).thenReturn(Optional.empty());
+        BookingReferencePermutation permutation = new BookingReferencePermutation(KEY);
+        String legacy = permutation.reference(2);
+        when(bookingRepository.findLegacyBookingReferences()).thenReturn(List.of(legacy));
 
         // When
-        String reference = generator.generateUniqueReference();
+        String first = generator.generateUniqueReference();
+        String second = generator.generateUniqueReference();
 
         // Then
-        assertThat(reference).matches("[A-Z0-9]{5}");
+        assertThat(first).isEqualTo(permutation.reference(1));
+        assertThat(second).isEqualTo(permutation.reference(3));
     }
 
     @Test
-    void generateUniqueReference_ShouldRetry_WhenReferenceExists() {
-        // Given
-        // First call returns existing booking (collision), second call returns empty (unique)
-        when(bookingRepository.findByBookingReference(anyString()))
-                .thenReturn(Optional.of(new com.ticketbroker.model.Booking())) // First attempt exists
-                .thenReturn(Optional.empty()); // Second attempt is unique
+    void generateUniqueReference_ShouldBeUniqueAcrossNodesSharingTheSequence() {
+        // Given - two generators (nodes) drawing blocks from the same sequence
+        BookingReferenceGenerator otherNode = new BookingReferenceGenerator(bookingRepository, KEY);
+        Set<String> references = new HashSet<>();
 
         // When
-        String reference = generator.generateUniqueReference();
+        for (int i = 0; i < 100_000; i++) {
+            references.add(generator.generateUniqueReference());
+            references.add(otherNode.generateUniqueReference());
+        }
 
         // Then
-        assertThat(reference).isNotNull();
-        assertThat(reference).hasSize(5);
-        verify(bookingRepository, atLeast(2)).findByBookingReference(anyString());
+        assertThat(references).hasSize(200_000);
+    }
+
+    @Test
+    void generateUniqueReference_ShouldBeUniqueOverMillionsOfReferences() {
+        // Given
+        int count = 3_000_000;
+        BitSet seen = new BitSet((int) BookingReferencePermutation.DOMAIN_SIZE);
+
+        // When / Then
+        for (int i = 0; i < count; i++) {
+            int value = (int) BookingReferencePermutation.parse(generator.generateUniqueReference());
+            if (seen.get(value)) {
+                fail("Duplicate reference after " + i + " generated references");
+            }
+            seen.set(value);
+        }
+        assertThat(seen.cardinality()).isEqualTo(count);
+    }
+
+    @Test
+    void constructor_WithoutKeyOutsideDevAndTest_ShouldFailAtStartup() {
+        // Given
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("prod");
+
+        // When / Then
+        assertThatThrownBy(() -> new BookingReferenceGenerator(bookingRepository, "", environment))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("app.booking-reference.key");
+        assertThatThrownBy(() -> new BookingReferenceGenerator(bookingRepository, "ticketbroker-booking-reference",
+                environment))
+                .isInstanceOf(IllegalStateException.class);
     }
 
     @Test
-    void generateUniqueReference_ShouldGenerateDifferentReferences() {
+    void constructor_WithoutKeyInDevProfile_ShouldUseDevelopmentKey() {
         // Given
-        when(bookingRepository.findByBookingReference(anyString())).thenReturn(Optional.empty());
+        MockEnvironment environment = new MockEnvironment();
+        environment.setActiveProfiles("dev");
 
         // When
-        String ref1 = generator.generateUniqueReference();
-        String ref2 = generator.generateUniqueReference();
-        String ref3 = generator.generateUniqueReference();
+        BookingReferenceGenerator devGenerator = new BookingReferenceGenerator(bookingRepository, "", environment);
 
         // Then
-        // While it's possible to get duplicates with random generation,
-        // the probability is very low (1 in 36^5 = 60,466,176)
-        // So we just verify they are valid references
-        assertThat(ref1).matches("[A-Z0-9]{5}");
-        assertThat(ref2).matches("[A-Z0-9]{5}");
-        assertThat(ref3).matches("[A-Z0-9]{5}");
+        assertThat(devGenerator.generateUniqueReference()).matches("[A-Z0-9]{5}");
     }
 }
-
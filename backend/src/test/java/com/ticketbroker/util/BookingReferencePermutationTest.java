@@ -0,0 +1,65 @@
+package com.ticketbroker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingReferencePermutationTest {
+
+    private final BookingReferencePermutation permutation = new BookingReferencePermutation("test-key");
+
+    @Test
+    void permute_ShouldStayInsideDomain() {
+        for (long i = 0; i < 100_000; i++) {
+            long value = permutation.permute(i);
+            assertThat(value).isBetween(0L, BookingReferencePermutation.DOMAIN_SIZE - 1);
+        }
+    }
+
+    @Test
+    void inverse_ShouldReverseThePermutation() {
+        for (long i = 0; i < 100_000; i += 7) {
+            assertThat(permutation.inverse(permutation.permute(i))).isEqualTo(i);
+        }
+        long last = BookingReferencePermutation.DOMAIN_SIZE - 1;
+        assertThat(permutation.inverse(permutation.permute(last))).isEqualTo(last);
+    }
+
+    @Test
+    void permute_ShouldDependOnKey() {
+        BookingReferencePermutation other = new BookingReferencePermutation("other-key");
+
+        assertThat(other.reference(1)).isNotEqualTo(permutation.reference(1));
+    }
+
+    @Test
+    void permute_ShouldNotProduceSequentialReferences() {
+        long first = permutation.permute(1);
+        long second = permutation.permute(2);
+
+        assertThat(Math.abs(second - first)).isGreaterThan(1L);
+    }
+
+    @Test
+    void formatAndParse_ShouldRoundTrip() {
+        assertThat(BookingReferencePermutation.format(0)).isEqualTo("AAAAA");
+        assertThat(BookingReferencePermutation.format(BookingReferencePermutation.DOMAIN_SIZE - 1)).isEqualTo("99999");
+        assertThat(BookingReferencePermutation.parse(BookingReferencePermutation.format(123_456))).isEqualTo(123_456);
+        assertThat(BookingReferencePermutation.format(BookingReferencePermutation.parse("AB12C"))).isEqualTo("AB12C");
+        assertThat(BookingReferencePermutation.parse("ab12c")).isEqualTo(-1);
+        assertThat(BookingReferencePermutation.parse("AB12")).isEqualTo(-1);
+    }
+
+    @Test
+    void permute_ShouldRejectIndexOutsideDomain() {
+        assertThatThrownBy(() -> permutation.permute(BookingReferencePermutation.DOMAIN_SIZE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void constructor_ShouldRejectEmptyKey() {
+        assertThatThrownBy(() -> new BookingReferencePermutation(""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ticketbroker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldNeverMissInsertedReferences() {
+        // Given
+        ReferenceBloomFilter filter = new ReferenceBloomFilter(10_000, 0.01);
+        BookingReferencePermutation permutation = new BookingReferencePermutation("test-key");
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(permutation.reference(i));
+        }
+
+        // Then
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(permutation.reference(i))).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_ShouldStayNearConfiguredFalsePositiveRate() {
+        // Given
+        ReferenceBloomFilter filter = new ReferenceBloomFilter(10_000, 0.01);
+        BookingReferencePermutation permutation = new BookingReferencePermutation("test-key");
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(permutation.reference(i));
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 10_000; i < 110_000; i++) {
+            if (filter.mightContain(permutation.reference(i))) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+}
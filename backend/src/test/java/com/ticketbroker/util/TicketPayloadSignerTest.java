@@ -0,0 +1,93 @@
+package com.ticketbroker.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TicketPayloadSignerTest {
+
+    private final TicketPayloadSigner signer = new TicketPayloadSigner(true, false, "test-secret");
+
+    @Test
+    void qrPayload_ShouldBeCompactAndQrAlphanumeric() {
+        // When
+        String payload = signer.qrPayload("AB12C-N01", 42L);
+
+        // Then
+        assertThat(payload).startsWith("AB12C-N01.16.");
+        assertThat(payload).matches("[A-Z0-9$%*+\\-./: ]+");
+        assertThat(payload).hasSize(21);
+    }
+
+    @Test
+    void decode_ShouldAcceptAuthenticPayload() {
+        // Given
+        String payload = signer.qrPayload("AB12C-N01", 42L);
+
+        // When
+        TicketPayloadSigner.DecodedPayload decoded = signer.decode(payload);
+
+        // Then
+        assertThat(decoded.signed()).isTrue();
+        assertThat(decoded.authentic()).isTrue();
+        assertThat(decoded.ticketReference()).isEqualTo("AB12C-N01");
+        assertThat(decoded.showId()).isEqualTo(42L);
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedShowOrMac() {
+        // Given
+        String payload = signer.qrPayload("AB12C-N01", 42L);
+        String otherShow = payload.replace(".16.", ".17.");
+        String otherMac = payload.substring(0, payload.length() - 1) + (payload.endsWith("A") ? "B" : "A");
+
+        // When / Then
+        assertThat(signer.decode(otherShow).authentic()).isFalse();
+        assertThat(signer.decode(otherMac).authentic()).isFalse();
+        assertThat(signer.decode("AB12C-N01.16").authentic()).isFalse();
+    }
+
+    @Test
+    void decode_ShouldRejectPayloadSignedWithAnotherSecret() {
+        // Given
+        TicketPayloadSigner otherSigner = new TicketPayloadSigner(true, false, "other-secret");
+
+        // When
+        TicketPayloadSigner.DecodedPayload decoded = signer.decode(otherSigner.qrPayload("AB12C-N01", 42L));
+
+        // Then
+        assertThat(decoded.authentic()).isFalse();
+    }
+
+    @Test
+    void decode_ShouldPassPlainReferencesUnlessSignedRequired() {
+        // Given
+        TicketPayloadSigner strictSigner = new TicketPayloadSigner(true, true, "test-secret");
+
+        // When
+        TicketPayloadSigner.DecodedPayload lenient = signer.decode("AB12C-N01");
+        TicketPayloadSigner.DecodedPayload strict = strictSigner.decode("AB12C-N01");
+
+        // Then
+        assertThat(lenient.signed()).isFalse();
+        assertThat(lenient.authentic()).isTrue();
+        assertThat(strict.authentic()).isFalse();
+    }
+
+    @Test
+    void qrPayload_ShouldReturnPlainReferenceWhenDisabled() {
+        // Given
+        TicketPayloadSigner disabled = new TicketPayloadSigner(false, false, "");
+
+        // When / Then
+        assertThat(disabled.qrPayload("AB12C-N01", 42L)).isEqualTo("AB12C-N01");
+        assertThat(disabled.decode("AB12C-N01").authentic()).isTrue();
+    }
+
+    @Test
+    void constructor_ShouldRequireSecretWhenEnabled() {
+        assertThatThrownBy(() -> new TicketPayloadSigner(true, false, ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.ticketbroker.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimerWheelTest {
+
+    @Test
+    void advance_ShouldReturnItemOnlyOnceItsDeadlineHasPassed() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 8, 0);
+        wheel.schedule("hold", 2500);
+
+        // When
+        List<String> early = wheel.advance(2499);
+        List<String> due = wheel.advance(3000);
+
+        // Then
+        assertThat(early).isEmpty();
+        assertThat(due).containsExactly("hold");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldKeepItemsMoreThanOneTurnAway() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 8, 0);
+        wheel.schedule("far", 20_000);
+
+        // When
+        List<String> firstTurn = wheel.advance(4000);
+        List<String> secondTurn = wheel.advance(12_000);
+        List<String> due = wheel.advance(20_000);
+
+        // Then
+        assertThat(firstTurn).isEmpty();
+        assertThat(secondTurn).isEmpty();
+        assertThat(due).containsExactly("far");
+    }
+
+    @Test
+    void advance_ShouldReturnEverythingDue_AfterLongPause() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 8, 0);
+        wheel.schedule("first", 1000);
+        wheel.schedule("second", 5000);
+        wheel.schedule("later", 100_000);
+
+        // When
+        List<String> due = wheel.advance(50_000);
+
+        // Then
+        assertThat(due).containsExactlyInAnyOrder("first", "second");
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+
+    @Test
+    void schedule_ShouldExpireOnNextTick_WhenDeadlineHasAlreadyPassed() {
+        // Given
+        TimerWheel<String> wheel = new TimerWheel<>(1000, 8, 0);
+        wheel.advance(10_000);
+
+        // When
+        wheel.schedule("late", 3000);
+
+        // Then
+        assertThat(wheel.advance(10_999)).isEmpty();
+        assertThat(wheel.advance(11_000)).containsExactly("late");
+    }
+
+    @Test
+    void constructor_ShouldRejectBucketCountThatIsNotPowerOfTwo() {
+        assertThatThrownBy(() -> new TimerWheel<String>(1000, 10, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("power of two");
+    }
+}
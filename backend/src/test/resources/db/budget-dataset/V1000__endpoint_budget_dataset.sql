@@ -0,0 +1,66 @@
+-- Dataset for EndpointStatementBudgetTest (test classpath only)
+-- 3 shows with 60 bookings each, every other booking confirmed with one buyer and two tickets,
+-- plus one show without bookings. Ids are fixed so the test can address rows directly.
+-- References are 6 characters long so they never collide with generated 5 character references.
+
+INSERT INTO shows (id, date, start_time, end_time, total_tickets, available_tickets)
+SELECT s, CURRENT_DATE + s, '18:00', '20:00', 400, 280
+FROM generate_series(1, 3) s;
+
+INSERT INTO shows (id, date, start_time, end_time, total_tickets, available_tickets)
+VALUES (4, CURRENT_DATE + 30, '14:00', '16:00', 100, 100);
+
+-- Bookings b and b + 120 share an email address and last name
+INSERT INTO bookings (id, show_id, booking_reference, first_name, last_name, email, phone,
+                      adult_tickets, student_tickets, total_amount, status,
+                      buyer_confirmed_payment, swish_payment_initiated, created_at, confirmed_at)
+SELECT b,
+       (b - 1) % 3 + 1,
+       'TB' || lpad(b::text, 4, '0'),
+       'Buyer' || b,
+       'Family' || (b % 40),
+       'buyer' || (b % 120) || '@example.com',
+       '0700' || lpad(b::text, 6, '0'),
+       1, 1, 300,
+       CASE WHEN b % 2 = 0 THEN 'confirmed' ELSE 'reserved' END,
+       b % 2 = 0,
+       b % 2 = 0,
+       CURRENT_TIMESTAMP - b * INTERVAL '1 minute',
+       CASE WHEN b % 2 = 0 THEN CURRENT_TIMESTAMP END
+FROM generate_series(1, 180) b;
+
+INSERT INTO buyers (id, phone, first_name, last_name, email)
+SELECT id / 2, phone, first_name, last_name, email
+FROM bookings
+WHERE status = 'confirmed';
+
+INSERT INTO tickets (id, ticket_reference, booking_id, show_id, buyer_id, ticket_type, ticket_number,
+                     is_used, used_at, checked_by)
+SELECT id * 2 - 1, booking_reference || '-N01', id, show_id, id / 2, 'normal', 1,
+       id % 8 = 0,
+       CASE WHEN id % 8 = 0 THEN CURRENT_TIMESTAMP END,
+       CASE WHEN id % 8 = 0 THEN 'door' END
+FROM bookings
+WHERE status = 'confirmed';
+
+INSERT INTO tickets (id, ticket_reference, booking_id, show_id, buyer_id, ticket_type, ticket_number)
+SELECT id * 2, booking_reference || '-D02', id, show_id, id / 2, 'student', 2
+FROM bookings
+WHERE status = 'confirmed';
+
+SELECT setval('shows_id_seq', (SELECT max(id) FROM shows));
+SELECT setval('bookings_id_seq', (SELECT max(id) FROM bookings));
+SELECT setval('buyers_id_seq', (SELECT max(id) FROM buyers));
+SELECT setval('tickets_id_seq', (SELECT max(id) FROM tickets));
+
+INSERT INTO settings (key, value) VALUES
+    ('concert_name', 'Klasskonsert 24C'),
+    ('concert_venue', 'Aulan'),
+    ('adult_ticket_price', '200'),
+    ('student_ticket_price', '100'),
+    ('swish_number', '123 456 78 90'),
+    ('swish_recipient_name', 'Klasskonsertgruppen'),
+    ('contact_email', 'contact@example.com'),
+    ('admin_email', 'admin@example.com'),
+    ('class_photo_data', 'iVBORw0KGgo='),
+    ('class_photo_content_type', 'image/png');
@@ -0,0 +1,97 @@
+package com.ticketbroker.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files, e.g. results/&lt;baseline commit&gt;.json and results/&lt;new commit&gt;.json:
+ * prints the score and allocation per operation of every benchmark in both runs and exits with status 1
+ * when a score got worse by more than the threshold (default 10%).
+ *
+ * <pre>java -cp target/benchmarks.jar com.ticketbroker.benchmarks.BenchmarkComparison base.json new.json [10]</pre>
+ */
+public final class BenchmarkComparison {
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+    private BenchmarkComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <candidate.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> candidate = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s %12s%n", "Benchmark", "Baseline", "Candidate", "Change", "Alloc B/op");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double afterScore = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            String allocation = format(after.path("secondaryMetrics").path(ALLOCATION).path("score"));
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s %12s  %s%n", entry.getKey(), "-", afterScore, "new",
+                        allocation, unit);
+                continue;
+            }
+            double beforeScore = before.path("primaryMetric").path("score").asDouble();
+            double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) / beforeScore * 100;
+            // Throughput is better when higher, every other mode (time per operation) when lower
+            double worse = "thrpt".equals(after.path("mode").asText()) ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %12s  %s%s%n", entry.getKey(), beforeScore, afterScore,
+                    change, allocation, unit, regressed ? "  REGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.printf("%d benchmark(s) more than %.1f%% worse%n", regressions, threshold);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            results.put(key(result), result);
+        }
+        return results;
+    }
+
+    // Benchmark method plus its @Param values, e.g. PdfServiceBenchmark.generateTicketsPdf(logo=false, tickets=10)
+    private static String key(JsonNode result) {
+        String benchmark = result.path("benchmark").asText();
+        int method = benchmark.lastIndexOf('.');
+        StringBuilder key = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.', method - 1) + 1));
+        JsonNode params = result.path("params");
+        if (!params.isMissingNode() && params.size() > 0) {
+            key.append('(');
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                key.append(param.getKey()).append('=').append(param.getValue().asText());
+                if (fields.hasNext()) {
+                    key.append(", ");
+                }
+            }
+            key.append(')');
+        }
+        return key.toString();
+    }
+
+    private static String format(JsonNode score) {
+        return score.isMissingNode() ? "-" : String.format("%.0f", score.asDouble());
+    }
+}
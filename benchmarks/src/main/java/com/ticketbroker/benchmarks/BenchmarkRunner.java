@@ -0,0 +1,65 @@
+package com.ticketbroker.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Main class of benchmarks.jar. Takes the usual JMH command line, always adds the GC profiler (allocation
+ * rate and bytes per operation next to each score) and, unless -rff is given, writes JSON results to
+ * results/&lt;label&gt;.json. The label is -Dbenchmark.label or the current git commit, so two commits can be
+ * compared with BenchmarkComparison.
+ */
+public final class BenchmarkRunner {
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        if (!commandLine.getResult().hasValue()) {
+            Path results = Path.of("results", System.getProperty("benchmark.label", defaultLabel()) + ".json");
+            Files.createDirectories(results.getParent());
+            options.resultFormat(ResultFormatType.JSON).result(results.toString());
+        }
+        new Runner(options.build()).run();
+    }
+
+    private static String defaultLabel() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                String commit = reader.readLine();
+                if (git.waitFor() == 0 && commit != null && !commit.isBlank()) {
+                    return commit.trim();
+                }
+            }
+        } catch (Exception e) {
+            // Not a git checkout or git not installed
+        }
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.util.BookingReferenceGenerator;
+import com.ticketbroker.util.BookingReferencePermutation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingReferenceGeneratorBenchmark {
+    private BookingReferenceGenerator generator;
+    private BookingReferencePermutation permutation;
+    private long index;
+
+    // Fresh generator per iteration so a long run never exhausts the 36^5 reference space
+    @Setup(Level.Iteration)
+    public void setUp() {
+        // Block size of 50 matches booking_reference_seq
+        generator = new BookingReferenceGenerator(
+                StubRepositories.bookingRepository(new AtomicLong(1), 50), "benchmark-key");
+        permutation = new BookingReferencePermutation("benchmark-key");
+    }
+
+    @Benchmark
+    public String generateUniqueReference() {
+        return generator.generateUniqueReference();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateUniqueReferenceContended() {
+        return generator.generateUniqueReference();
+    }
+
+    @Benchmark
+    public long permute() {
+        index = (index + 1) % BookingReferencePermutation.DOMAIN_SIZE;
+        return permutation.permute(index);
+    }
+}
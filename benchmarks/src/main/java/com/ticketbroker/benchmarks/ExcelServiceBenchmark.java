@@ -0,0 +1,54 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.service.ExcelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One export takes up to seconds at 100k bookings, so each invocation is timed on its own.
+ * The workbook is built in memory, hence the large heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ExcelServiceBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int bookings;
+
+    private ExcelService excelService;
+    private List<Booking> data;
+
+    @Setup
+    public void setUp() {
+        excelService = new ExcelService();
+        data = Fixtures.bookings(bookings);
+    }
+
+    @Benchmark
+    public byte[] exportBookingsToExcel() throws IOException {
+        return excelService.exportBookingsToExcel(data);
+    }
+
+    @Benchmark
+    public byte[] exportRevenueReport() throws IOException {
+        return excelService.exportRevenueReport(data);
+    }
+}
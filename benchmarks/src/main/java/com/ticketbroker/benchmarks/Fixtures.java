@@ -0,0 +1,114 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.model.BookingStatus;
+import com.ticketbroker.model.Show;
+import com.ticketbroker.model.Ticket;
+import com.ticketbroker.util.TicketReferenceGenerator;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Detached entities shaped like production data. Values are derived from the index so every run builds
+ * the same data.
+ */
+final class Fixtures {
+    private static final TicketReferenceGenerator TICKET_REFERENCES = new TicketReferenceGenerator();
+
+    private Fixtures() {
+    }
+
+    static Show show(long id) {
+        Show show = new Show();
+        show.setId(id);
+        show.setDate(LocalDate.of(2025, 5, 20).plusDays(id));
+        show.setStartTime("18:00");
+        show.setEndTime("20:00");
+        show.setTotalTickets(400);
+        show.setAvailableTickets(100);
+        return show;
+    }
+
+    static Booking booking(long id, Show show, int adultTickets, int studentTickets) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setShow(show);
+        booking.setBookingReference(String.format("B%04d", id % 10_000));
+        booking.setFirstName("Förnamn" + id);
+        booking.setLastName("Efternamn" + id);
+        booking.setEmail("buyer" + id + "@example.com");
+        booking.setPhone(String.format("070%07d", id));
+        booking.setAdultTickets(adultTickets);
+        booking.setStudentTickets(studentTickets);
+        booking.setTotalAmount(adultTickets * 200 + studentTickets * 100);
+        booking.setStatus(id % 3 == 0 ? BookingStatus.RESERVED : BookingStatus.CONFIRMED);
+        booking.setCreatedAt(LocalDateTime.of(2025, 4, 1, 12, 0).plusMinutes(id));
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            booking.setConfirmedAt(booking.getCreatedAt().plusHours(2));
+        }
+        return booking;
+    }
+
+    /**
+     * A confirmed booking with the given number of tickets, as passed to PdfService.
+     */
+    static Booking bookingWithTickets(int tickets) {
+        Show show = show(1);
+        Booking booking = booking(1, show, tickets, 0);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        for (int number = 1; number <= tickets; number++) {
+            Ticket ticket = new Ticket();
+            ticket.setId((long) number);
+            ticket.setTicketReference(TICKET_REFERENCES.generateTicketReference(
+                    booking.getBookingReference(), "normal", number));
+            ticket.setBooking(booking);
+            ticket.setShow(show);
+            ticket.setTicketType("normal");
+            ticket.setTicketNumber(number);
+            booking.getTickets().add(ticket);
+        }
+        return booking;
+    }
+
+    /**
+     * Bookings spread over three shows with one to four tickets each, as passed to ExcelService.
+     */
+    static List<Booking> bookings(int count) {
+        List<Show> shows = List.of(show(1), show(2), show(3));
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            bookings.add(booking(i, shows.get(i % shows.size()), 1 + i % 3, i % 2));
+        }
+        return bookings;
+    }
+
+    /**
+     * A small square PNG, like the logos uploaded as qr_logo.
+     */
+    static byte[] logoPng() {
+        BufferedImage logo = new BufferedImage(120, 120, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = logo.createGraphics();
+        graphics.setColor(new Color(0x1d4ed8));
+        graphics.fillOval(0, 0, 120, 120);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(40, 30, 40, 60);
+        graphics.dispose();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(logo, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
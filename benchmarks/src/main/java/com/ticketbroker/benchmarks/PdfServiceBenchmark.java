@@ -0,0 +1,62 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.model.Booking;
+import com.ticketbroker.service.PdfService;
+import com.ticketbroker.service.QrCodeService;
+import com.ticketbroker.service.SettingsService;
+import com.ticketbroker.util.TicketPayloadSigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class PdfServiceBenchmark {
+
+    @Param({ "1", "10", "100" })
+    public int tickets;
+
+    @Param({ "false", "true" })
+    public boolean logo;
+
+    private PdfService pdfService;
+    private Booking booking;
+
+    @Setup
+    public void setUp() {
+        Map<String, String> settings = new HashMap<>();
+        settings.put("concert_name", "Klasskonsert 24C");
+        settings.put("concert_venue", "Aulan på Rytmus Stockholm");
+        if (logo) {
+            settings.put("qr_logo_data", Base64.getEncoder().encodeToString(Fixtures.logoPng()));
+        }
+        SettingsService settingsService = new SettingsService(StubRepositories.settingsRepository(settings));
+        // Signed payloads as in production; the HMAC is negligible next to rendering
+        TicketPayloadSigner signer = new TicketPayloadSigner(true, false, "benchmark-secret");
+        pdfService = new PdfService(new QrCodeService(), settingsService, signer);
+        booking = Fixtures.bookingWithTickets(tickets);
+    }
+
+    @Benchmark
+    public byte[] generateTicketsPdf() throws IOException {
+        return pdfService.generateTicketsPdf(booking);
+    }
+}
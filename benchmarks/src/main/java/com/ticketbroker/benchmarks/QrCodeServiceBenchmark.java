@@ -0,0 +1,45 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.service.QrCodeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class QrCodeServiceBenchmark {
+    // Signed ticket payload (REF.SHOW.MAC), the longest content printed on a ticket
+    private static final String PAYLOAD = "B0001-N01.1.3q2-7wYcW0u8Bzq4f1sJ9g";
+
+    private QrCodeService qrCodeService;
+    private byte[] logo;
+
+    @Setup
+    public void setUp() {
+        qrCodeService = new QrCodeService();
+        logo = Fixtures.logoPng();
+    }
+
+    @Benchmark
+    public String generateQrCodeBase64() {
+        return qrCodeService.generateQrCodeBase64(PAYLOAD);
+    }
+
+    @Benchmark
+    public String generateQrCodeWithLogoBase64() {
+        return qrCodeService.generateQrCodeWithLogoBase64(PAYLOAD, logo);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.model.Settings;
+import com.ticketbroker.repository.BookingRepository;
+import com.ticketbroker.repository.SettingsRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories so benchmarks measure our code, not the database.
+ */
+final class StubRepositories {
+    private StubRepositories() {
+    }
+
+    static BookingRepository bookingRepository(AtomicLong sequence, int blockSize) {
+        return (BookingRepository) Proxy.newProxyInstance(
+                BookingRepository.class.getClassLoader(),
+                new Class<?>[] { BookingRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "nextBookingReferenceBlock" -> sequence.getAndAdd(blockSize);
+                    case "findLegacyBookingReferences" -> List.of();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubBookingRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static SettingsRepository settingsRepository(Map<String, String> values) {
+        return (SettingsRepository) Proxy.newProxyInstance(
+                SettingsRepository.class.getClassLoader(),
+                new Class<?>[] { SettingsRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByKey" -> Optional.ofNullable(values.get((String) args[0]))
+                            .map(value -> new Settings(null, (String) args[0], value, null));
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubSettingsRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
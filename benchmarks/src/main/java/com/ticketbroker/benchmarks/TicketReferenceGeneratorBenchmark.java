@@ -0,0 +1,32 @@
+package com.ticketbroker.benchmarks;
+
+import com.ticketbroker.util.TicketReferenceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketReferenceGeneratorBenchmark {
+    private final TicketReferenceGenerator generator = new TicketReferenceGenerator();
+    private int ticketNumber;
+
+    @Benchmark
+    public String generateTicketReference() {
+        // Cycle through the numbers of a large booking so the formatting of both digits is exercised
+        ticketNumber = ticketNumber % 20 + 1;
+        return generator.generateTicketReference("B0001", ticketNumber % 2 == 0 ? "student" : "normal", ticketNumber);
+    }
+}
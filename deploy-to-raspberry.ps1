@@ -1,12 +1,14 @@
 # One-click build and deploy script for Raspberry Pi
 # Usage: .\deploy-to-raspberry.ps1 [version]
 # Example: .\deploy-to-raspberry.ps1 v1.0.3
+# Add -SpringAot to build the backend with Spring AOT (see "Fast Startup" in README.md)
 
 param(
     [string]$Version = "latest",
     [string]$PiHost = "192.168.1.151",
     [string]$PiUser = "magpern",
-    [switch]$RestartContainers = $false
+    [switch]$RestartContainers = $false,
+    [switch]$SpringAot = $false
 )
 
 $ErrorActionPreference = "Stop"
@@ -34,8 +36,10 @@ try {
 
     # Build backend - BuildKit cache mount in Dockerfile will cache Maven dependencies
     Write-Host "  Building backend..." -ForegroundColor Cyan
+    $springAotArg = if ($SpringAot) { "true" } else { "false" }
     docker buildx build `
         --platform linux/arm64 `
+        --build-arg SPRING_AOT=$springAotArg `
         -t ticketbroker-backend:$Version `
         -t ticketbroker-backend:latest `
         --load `
@@ -2,6 +2,7 @@ import { useState, useEffect, useRef } from 'react'
 import { Link } from 'react-router-dom'
 import Layout from '../components/Layout'
 import adminApi from '../services/adminApi'
+import { subscribeDoorFeed, DoorEntryEvent } from '../services/doorFeed'
 import './AdminCheckTicketPage.css'
 
 interface TicketDetails {
@@ -19,12 +20,20 @@ interface TicketDetails {
   showTime: string
 }
 
+interface DoorCounts {
+  admitted: number
+  issued: number
+  remaining: number
+}
+
 function AdminCheckTicketPage() {
   const [ticketReference, setTicketReference] = useState('')
   const [ticket, setTicket] = useState<TicketDetails | null>(null)
   const [loading, setLoading] = useState(false)
   const [error, setError] = useState<string | null>(null)
   const [message, setMessage] = useState<{ type: 'success' | 'error'; text: string } | null>(null)
+  const [doorCounts, setDoorCounts] = useState<Record<number, DoorCounts>>({})
+  const [recentScans, setRecentScans] = useState<DoorEntryEvent[]>([])
   const inputRef = useRef<HTMLInputElement>(null)
 
   useEffect(() => {
@@ -34,6 +43,40 @@ function AdminCheckTicketPage() {
     }
   }, [])
 
+  useEffect(() => {
+    // Live door-entry feed; reconnect after a short pause if the stream drops
+    const controller = new AbortController()
+    let retryTimer: ReturnType<typeof setTimeout> | undefined
+
+    const handleEvent = (event: DoorEntryEvent) => {
+      setDoorCounts((prev) => ({
+        ...prev,
+        [event.showId]: { admitted: event.admitted, issued: event.issued, remaining: event.remaining },
+      }))
+      if (event.type === 'admitted' || event.type === 'reset') {
+        setRecentScans((prev) => [event, ...prev].slice(0, 10))
+      }
+    }
+
+    const connect = () => {
+      subscribeDoorFeed(handleEvent, controller.signal)
+        .catch(() => undefined)
+        .finally(() => {
+          if (!controller.signal.aborted) {
+            retryTimer = setTimeout(connect, 5000)
+          }
+        })
+    }
+    connect()
+
+    return () => {
+      controller.abort()
+      if (retryTimer) {
+        clearTimeout(retryTimer)
+      }
+    }
+  }, [])
+
   const handleSearch = async (e: React.FormEvent) => {
     e.preventDefault()
     if (!ticketReference.trim()) {
@@ -109,6 +152,30 @@ function AdminCheckTicketPage() {
           </div>
         </div>
 
+        {Object.keys(doorCounts).length > 0 && (
+          <div className="door-feed">
+            <h3>Insläpp (live)</h3>
+            <div className="door-counts">
+              {Object.entries(doorCounts).map(([showId, counts]) => (
+                <div key={showId} className="door-count">
+                  <strong>Föreställning {showId}:</strong> {counts.admitted} insläppta, {counts.remaining} kvar
+                  {' '}av {counts.issued}
+                </div>
+              ))}
+            </div>
+            {recentScans.length > 0 && (
+              <ul className="door-recent">
+                {recentScans.map((scan, index) => (
+                  <li key={`${scan.ticketReference}-${scan.at}-${index}`}>
+                    {new Date(scan.at).toLocaleTimeString('sv-SE')} – {scan.ticketReference}{' '}
+                    {scan.type === 'admitted' ? '✓ insläppt' : '↺ återställd'}
+                  </li>
+                ))}
+              </ul>
+            )}
+          </div>
+        )}
+
         <div className="ticket-checker-section">
           <div className="checker-form">
             <h3>Kontrollera biljett</h3>
@@ -22,10 +22,10 @@ function AdminDashboardPage() {
   const stats = {
     total: bookings.length,
     confirmed: bookings.filter(b => b.status === 'confirmed').length,
-    pending: bookings.filter(b => b.buyerConfirmedPayment && b.status !== 'confirmed').length,
-    reserved: bookings.filter(b => !b.buyerConfirmedPayment && b.status !== 'confirmed').length,
+    pending: bookings.filter(b => b.buyerConfirmedPayment && b.status === 'reserved').length,
+    reserved: bookings.filter(b => !b.buyerConfirmedPayment && b.status === 'reserved').length,
     totalRevenue: bookings.filter(b => b.status === 'confirmed').reduce((sum, b) => sum + (b.totalAmount || 0), 0),
-    potentialRevenue: bookings.filter(b => b.status !== 'confirmed').reduce((sum, b) => sum + (b.totalAmount || 0), 0)
+    potentialRevenue: bookings.filter(b => b.status === 'reserved').reduce((sum, b) => sum + (b.totalAmount || 0), 0)
   }
 
   useEffect(() => {
@@ -43,7 +43,7 @@ function AdminDashboardPage() {
         allBookings = allBookings.filter(
           (b: BookingResponse) =>
             b.status === 'reserved' ||
-            (b.buyerConfirmedPayment && b.status !== 'confirmed')
+            (b.buyerConfirmedPayment && b.status === 'reserved')
         )
       }
 
@@ -362,6 +362,8 @@ function AdminDashboardPage() {
                             <td>
                               {booking.status === 'confirmed' ? (
                                 <span className="status-confirmed">Bekräftad</span>
+                              ) : booking.status === 'expired' ? (
+                                <span className="status-expired">Utgången</span>
                               ) : booking.buyerConfirmedPayment ? (
                                 <span className="status-pending">Väntar på bekräftelse</span>
                               ) : (
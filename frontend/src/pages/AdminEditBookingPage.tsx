@@ -197,8 +197,16 @@ function AdminEditBookingPage() {
               >
                 <option value="reserved">Reserverad</option>
                 <option value="confirmed">Bekräftad</option>
+                {booking?.status === 'expired' && (
+                  <option value="expired" disabled>Utgången</option>
+                )}
               </select>
               <small className="status-note">
+                {booking?.status === 'expired' && formData.status !== 'expired' && (
+                  <span className="status-warning">
+                    Reservationen har gått ut och biljetterna har släppts. De tas tillbaka om det finns biljetter kvar.
+                  </span>
+                )}
                 {formData.status === 'confirmed' && booking?.status !== 'confirmed' && (
                   <span className="status-warning">
                     Varning: Att ändra till bekräftad kommer att generera biljetter.
@@ -29,6 +29,8 @@ function BookingPage() {
     adultTickets: 0,
     studentTickets: 0,
   });
+  // Seats held while the buyer reviews the booking; they are released after a few minutes
+  const [holdToken, setHoldToken] = useState<string | null>(null);
 
   useEffect(() => {
     // Check initialization status
@@ -145,6 +147,14 @@ function BookingPage() {
     });
   };
 
+  const releaseHold = () => {
+    if (holdToken) {
+      // Best effort: an unreleased hold expires on its own
+      api.delete(`/public/holds/${holdToken}`).catch(() => undefined);
+      setHoldToken(null);
+    }
+  };
+
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
     if (step === 2) {
@@ -152,10 +162,32 @@ function BookingPage() {
         alert(t("booking.selectAtLeastOne"));
         return;
       }
+      try {
+        const response = await api.post(
+          `/public/shows/${formData.showId}/holds`,
+          { seats: totalTickets }
+        );
+        setHoldToken(response.data.token);
+      } catch (error: unknown) {
+        const status =
+          error && typeof error === "object" && "response" in error
+            ? (error as { response?: { status?: number } }).response?.status
+            : undefined;
+        // 400: more seats than one hold can take; 429: this client already holds too many seats.
+        // Book without a hold then, which checks availability
+        if (status !== 400 && status !== 429) {
+          console.error("Seat hold failed:", error);
+          alert(t("booking.seatsUnavailable"));
+          return;
+        }
+      }
       setStep(3);
     } else if (step === 3) {
       try {
-        const response = await api.post("/public/bookings", formData);
+        const response = await api.post("/public/bookings", {
+          ...formData,
+          holdToken: holdToken ?? undefined,
+        });
         navigate(
           `/booking/success/${response.data.bookingReference}/${response.data.email}`
         );
@@ -466,7 +498,10 @@ function BookingPage() {
               <div className="step-actions">
                 <button
                   type="button"
-                  onClick={() => setStep(2)}
+                  onClick={() => {
+                    releaseHold();
+                    setStep(2);
+                  }}
                   className="btn btn-secondary"
                 >
                   {t("common.back")}
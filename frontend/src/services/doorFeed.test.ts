@@ -0,0 +1,34 @@
+import { describe, it, expect } from 'vitest'
+import { parseSseChunk } from './doorFeed'
+
+describe('parseSseChunk', () => {
+  it('should parse complete events and keep the incomplete remainder', () => {
+    const buffer =
+      'event:admitted\ndata:{"type":"admitted","showId":1,"admitted":5,"issued":10,"remaining":5}\n\n' +
+      'event:snapshot\ndata:{"type":"snap'
+
+    const { events, rest } = parseSseChunk(buffer)
+
+    expect(events).toHaveLength(1)
+    expect(events[0].type).toBe('admitted')
+    expect(events[0].remaining).toBe(5)
+    expect(rest).toBe('event:snapshot\ndata:{"type":"snap')
+  })
+
+  it('should handle CRLF line endings', () => {
+    const buffer = 'event:reset\r\ndata:{"type":"reset","showId":2,"admitted":0,"issued":3,"remaining":3}\r\n\r\n'
+
+    const { events, rest } = parseSseChunk(buffer)
+
+    expect(events).toHaveLength(1)
+    expect(events[0].showId).toBe(2)
+    expect(rest).toBe('')
+  })
+
+  it('should return no events for an empty buffer', () => {
+    const { events, rest } = parseSseChunk('')
+
+    expect(events).toHaveLength(0)
+    expect(rest).toBe('')
+  })
+})
@@ -0,0 +1,68 @@
+// Client for the admin door-entry feed (server-sent events).
+// EventSource cannot send the Basic auth header, so the stream is read with fetch instead.
+
+export interface DoorEntryEvent {
+  type: 'snapshot' | 'admitted' | 'reset' | 'issued' | 'removed'
+  showId: number
+  ticketReference: string | null
+  ticketType: string | null
+  checkedBy: string | null
+  at: string
+  admitted: number
+  issued: number
+  remaining: number
+}
+
+// Splits buffered SSE text into complete events and returns the unconsumed remainder
+export function parseSseChunk(buffer: string): { events: DoorEntryEvent[]; rest: string } {
+  const events: DoorEntryEvent[] = []
+  const normalized = buffer.replace(/\r\n/g, '\n')
+  const blocks = normalized.split('\n\n')
+  const rest = blocks.pop() ?? ''
+
+  for (const block of blocks) {
+    const data = block
+      .split('\n')
+      .filter((line) => line.startsWith('data:'))
+      .map((line) => line.slice(5).trimStart())
+      .join('\n')
+    if (data) {
+      events.push(JSON.parse(data) as DoorEntryEvent)
+    }
+  }
+
+  return { events, rest }
+}
+
+export async function subscribeDoorFeed(
+  onEvent: (event: DoorEntryEvent) => void,
+  signal: AbortSignal,
+  showId?: number
+): Promise<void> {
+  const authToken = sessionStorage.getItem('adminAuthToken')
+  const url = showId ? `/api/admin/door-feed?showId=${showId}` : '/api/admin/door-feed'
+  const headers: Record<string, string> = { Accept: 'text/event-stream' }
+  if (authToken) {
+    headers.Authorization = `Basic ${authToken}`
+  }
+
+  const response = await fetch(url, { headers, signal })
+  if (!response.ok || !response.body) {
+    throw new Error(`Door feed unavailable (status ${response.status})`)
+  }
+
+  const reader = response.body.getReader()
+  const decoder = new TextDecoder()
+  let buffer = ''
+
+  while (true) {
+    const { value, done } = await reader.read()
+    if (done) {
+      break
+    }
+    buffer += decoder.decode(value, { stream: true })
+    const parsed = parseSseChunk(buffer)
+    buffer = parsed.rest
+    parsed.events.forEach(onEvent)
+  }
+}
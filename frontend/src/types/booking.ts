@@ -16,6 +16,7 @@ export interface BookingRequest {
   phone: string;
   adultTickets: number;
   studentTickets: number;
+  holdToken?: string;
 }
 
 export interface Ticket {
@@ -0,0 +1,104 @@
+package com.ticketbroker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Blocking HTTP/1.1 client for the API (by default on localhost). Calls made with a ScenarioResult are timed from send to
+ * the last response byte and recorded under the given operation name; calls without one (setup and
+ * invariant checks) are not.
+ */
+public final class ApiClient {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final String baseUrl;
+    private final String adminAuthorization;
+
+    public ApiClient(int port, String adminUser, String adminPassword) {
+        this("http://localhost:" + port, adminUser, adminPassword);
+    }
+
+    public ApiClient(String baseUrl, String adminUser, String adminPassword) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.adminAuthorization = "Basic " + Base64.getEncoder()
+                .encodeToString((adminUser + ":" + adminPassword).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public record Response(int status, byte[] body) {
+        public JsonNode json() {
+            try {
+                return body.length == 0 ? MissingNode.getInstance() : MAPPER.readTree(body);
+            } catch (IOException e) {
+                return MissingNode.getInstance();
+            }
+        }
+    }
+
+    public Response get(ScenarioResult result, String operation, String path) {
+        return send(result, operation, request(path).GET().build());
+    }
+
+    public Response post(ScenarioResult result, String operation, String path, Object body) {
+        return send(result, operation, request(path)
+                .header("Content-Type", "application/json")
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody() : json(body))
+                .build());
+    }
+
+    public Response adminGet(ScenarioResult result, String operation, String path) {
+        return send(result, operation, request(path).header("Authorization", adminAuthorization).GET().build());
+    }
+
+    public Response adminPost(ScenarioResult result, String operation, String path, Object body) {
+        return send(result, operation, request(path)
+                .header("Authorization", adminAuthorization)
+                .header("Content-Type", "application/json")
+                .POST(body == null ? HttpRequest.BodyPublishers.noBody() : json(body))
+                .build());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+    }
+
+    private static HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Request body is not serializable", e);
+        }
+    }
+
+    private Response send(ScenarioResult result, String operation, HttpRequest request) {
+        int status = 0;
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            return new Response(status, response.body());
+        } catch (IOException e) {
+            return new Response(0, new byte[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, new byte[0]);
+        } finally {
+            if (result != null) {
+                result.operation(operation).record(status, System.nanoTime() - started);
+            }
+        }
+    }
+}
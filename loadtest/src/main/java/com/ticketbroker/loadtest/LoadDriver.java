@@ -0,0 +1,96 @@
+package com.ticketbroker.loadtest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs a batch of client calls on a fixed number of client threads. All threads start at the same instant, like
+ * a queue of buyers let in when sales open, and keep taking calls until the batch is done; the wall time of the
+ * batch is added to the scenario.
+ *
+ * Client threads are virtual, so the platform thread count and heap sampled around the batch belong to the
+ * server side (Tomcat workers, connection pool, application threads) and 2000 concurrent clients cost next to
+ * nothing.
+ */
+public final class LoadDriver {
+    private final int concurrency;
+
+    public LoadDriver(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public void rush(ScenarioResult result, List<Runnable> calls) {
+        rush(result, calls, concurrency);
+    }
+
+    public void rush(ScenarioResult result, List<Runnable> calls, int clients) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        long gcCountBefore = gcCount();
+        long gcMillisBefore = gcMillis();
+        threadBean.resetPeakThreadCount();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().name("loadtest-" + result.getName() + "-" + i).start(() -> {
+                try {
+                    start.await();
+                    for (int call = next.getAndIncrement(); call < calls.size(); call = next.getAndIncrement()) {
+                        calls.get(call).run();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            threads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running " + result.getName(), e);
+        }
+        result.addWallNanos(System.nanoTime() - started);
+        result.addResources(threadBean.getPeakThreadCount(),
+                heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum(),
+                gcCount() - gcCountBefore, gcMillis() - gcMillisBefore);
+
+        if (failure.get() != null) {
+            // HTTP failures are recorded as statuses, so this is a bug in the scenario itself
+            throw new IllegalStateException("Scenario " + result.getName() + " failed", failure.get());
+        }
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private static long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+}
@@ -0,0 +1,167 @@
+package com.ticketbroker.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects scenario results and writes them as results/&lt;label&gt;.json, with keys in a fixed order so two
+ * reports can be compared with diff or LoadReportComparison, plus one HdrHistogram percentile distribution
+ * (.hgrm) per operation under results/&lt;label&gt;/ for plotting.
+ */
+public final class LoadReport {
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final LoadTestSettings settings;
+    private final List<ScenarioResult> scenarios = new ArrayList<>();
+    private final Map<String, Object> run = new LinkedHashMap<>();
+
+    public LoadReport(LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Adds a fact about the run (e.g. the server's thread mode) to the report header.
+     */
+    public void describeRun(String key, Object value) {
+        run.put(key, value);
+    }
+
+    public ScenarioResult scenario(String name) {
+        ScenarioResult result = new ScenarioResult(name);
+        scenarios.add(result);
+        return result;
+    }
+
+    /**
+     * "scenario: invariant (detail)" for every invariant that did not hold.
+     */
+    public List<String> violations() {
+        List<String> violations = new ArrayList<>();
+        for (ScenarioResult scenario : scenarios) {
+            scenario.getInvariants().forEach((name, invariant) -> {
+                if (!invariant.holds()) {
+                    violations.add(scenario.getName() + ": " + name + " (" + invariant.detail() + ")");
+                }
+            });
+        }
+        return violations;
+    }
+
+    public Path write() throws IOException {
+        Path directory = settings.resultsDirectory();
+        Files.createDirectories(directory.resolve(settings.label()));
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", settings.label());
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("concurrency", settings.concurrency());
+        header.put("scale", settings.scale());
+        header.put("seed", settings.seed());
+        header.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        header.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        header.put("javaVersion", System.getProperty("java.version"));
+        header.putAll(run);
+        report.put("run", header);
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (ScenarioResult scenario : scenarios) {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("requests", scenario.getRequests());
+            json.put("wallTimeMs", scenario.getWallNanos() / 1_000_000);
+            json.put("throughputPerSecond", round(scenario.getThroughputPerSecond()));
+            Map<String, Object> resources = new LinkedHashMap<>();
+            resources.put("peakPlatformThreads", scenario.getPeakThreads());
+            resources.put("peakHeapMb", scenario.getPeakHeapBytes() / (1024 * 1024));
+            resources.put("gcCount", scenario.getGcCount());
+            resources.put("gcTimeMs", scenario.getGcMillis());
+            json.put("resources", resources);
+            Map<String, Object> operations = new TreeMap<>();
+            for (Map.Entry<String, OperationStats> entry : new TreeMap<>(scenario.getOperations()).entrySet()) {
+                operations.put(entry.getKey(), operation(entry.getValue()));
+                writeHistogram(directory.resolve(settings.label())
+                        .resolve(fileName(scenario.getName(), entry.getKey())), entry.getValue().getLatencies());
+            }
+            json.put("operations", operations);
+            Map<String, Object> invariants = new LinkedHashMap<>();
+            scenario.getInvariants().forEach((name, invariant) -> {
+                Map<String, Object> value = new LinkedHashMap<>();
+                value.put("holds", invariant.holds());
+                value.put("detail", invariant.detail());
+                invariants.put(name, value);
+            });
+            json.put("invariants", invariants);
+            results.put(scenario.getName(), json);
+        }
+        report.put("scenarios", results);
+
+        Path file = directory.resolve(settings.label() + ".json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        return file;
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%-22s %-48s %8s %10s %10s %10s %10s %10s%n", "Scenario", "Operation", "Count", "req/s",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (ScenarioResult scenario : scenarios) {
+            for (Map.Entry<String, OperationStats> entry : new TreeMap<>(scenario.getOperations()).entrySet()) {
+                Histogram latencies = entry.getValue().getLatencies();
+                double seconds = scenario.getWallNanos() / 1e9;
+                out.printf("%-22s %-48s %8d %10.1f %10.2f %10.2f %10.2f %10.2f  %s%n", scenario.getName(),
+                        entry.getKey(), latencies.getTotalCount(),
+                        seconds == 0 ? 0 : latencies.getTotalCount() / seconds,
+                        latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(99) / 1000.0,
+                        latencies.getValueAtPercentile(99.9) / 1000.0, latencies.getMaxValue() / 1000.0,
+                        entry.getValue().getStatuses());
+            }
+            out.printf("%-22s   %d platform threads at peak, %d MB heap at peak, %d GCs (%d ms)%n",
+                    scenario.getName(), scenario.getPeakThreads(), scenario.getPeakHeapBytes() / (1024 * 1024),
+                    scenario.getGcCount(), scenario.getGcMillis());
+            scenario.getInvariants().forEach((name, invariant) -> out.printf("%-22s   %s %s: %s%n",
+                    scenario.getName(), invariant.holds() ? "ok  " : "FAIL", name, invariant.detail()));
+        }
+    }
+
+    private static Map<String, Object> operation(OperationStats stats) {
+        Histogram latencies = stats.getLatencies();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("count", stats.getCount());
+        Map<String, Long> statuses = new TreeMap<>();
+        stats.getStatuses().forEach((status, count) -> statuses.put(String.valueOf(status), count));
+        json.put("statuses", statuses);
+        Map<String, Object> micros = new LinkedHashMap<>();
+        micros.put("min", latencies.getMinValue());
+        micros.put("mean", round(latencies.getMean()));
+        for (double percentile : PERCENTILES) {
+            micros.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)),
+                    latencies.getValueAtPercentile(percentile));
+        }
+        micros.put("max", latencies.getMaxValue());
+        json.put("latencyMicros", micros);
+        return json;
+    }
+
+    private static void writeHistogram(Path file, Histogram latencies) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            // Values in microseconds, reported in milliseconds
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static String fileName(String scenario, String operation) {
+        return scenario + "_" + operation.replaceAll("[^A-Za-z0-9]+", "-").replaceAll("^-|-$", "") + ".hgrm";
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ticketbroker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Compares two load test reports, e.g. results/&lt;last release&gt;.json and results/&lt;candidate&gt;.json: prints
+ * throughput and p99 latency of every operation and the peak threads and heap of every scenario in both runs,
+ * lists invariants that no longer hold and exits
+ * with status 1 when an invariant fails or a p99 got worse by more than the threshold (default 20%).
+ *
+ * <pre>mvn -q exec:java -Dexec.mainClass=com.ticketbroker.loadtest.LoadReportComparison -Dexec.args="base.json new.json 20"</pre>
+ */
+public final class LoadReportComparison {
+    private LoadReportComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LoadReportComparison <baseline.json> <candidate.json> [threshold %]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 20.0;
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode baseline = mapper.readTree(new File(args[0])).path("scenarios");
+        JsonNode candidate = mapper.readTree(new File(args[1])).path("scenarios");
+
+        int problems = 0;
+        System.out.printf("%-70s %11s %11s %11s %11s %9s%n", "Operation", "Base req/s", "New req/s",
+                "Base p99 ms", "New p99 ms", "p99");
+        for (Iterator<Map.Entry<String, JsonNode>> scenarios = candidate.fields(); scenarios.hasNext(); ) {
+            Map.Entry<String, JsonNode> scenario = scenarios.next();
+            JsonNode before = baseline.path(scenario.getKey());
+            double secondsBefore = before.path("wallTimeMs").asDouble() / 1000;
+            double secondsAfter = scenario.getValue().path("wallTimeMs").asDouble() / 1000;
+
+            for (Iterator<Map.Entry<String, JsonNode>> operations = scenario.getValue().path("operations").fields();
+                    operations.hasNext(); ) {
+                Map.Entry<String, JsonNode> operation = operations.next();
+                String name = scenario.getKey() + " " + operation.getKey();
+                JsonNode after = operation.getValue();
+                JsonNode old = before.path("operations").path(operation.getKey());
+                double p99After = after.path("latencyMicros").path("p99").asDouble() / 1000;
+                double rateAfter = rate(after, secondsAfter);
+                if (old.isMissingNode()) {
+                    System.out.printf("%-70s %11s %11.1f %11s %11.2f %9s%n", name, "-", rateAfter, "-", p99After,
+                            "new");
+                    continue;
+                }
+                double p99Before = old.path("latencyMicros").path("p99").asDouble() / 1000;
+                double change = p99Before == 0 ? 0 : (p99After - p99Before) / p99Before * 100;
+                boolean regressed = change > threshold;
+                if (regressed) {
+                    problems++;
+                }
+                System.out.printf("%-70s %11.1f %11.1f %11.2f %11.2f %+8.1f%%%s%n", name, rate(old, secondsBefore),
+                        rateAfter, p99Before, p99After, change, regressed ? "  REGRESSION" : "");
+            }
+
+            JsonNode resourcesBefore = before.path("resources");
+            JsonNode resourcesAfter = scenario.getValue().path("resources");
+            System.out.printf("%-70s %11s %11s threads, %s -> %s MB heap%n", scenario.getKey() + " resources",
+                    resourcesBefore.path("peakPlatformThreads").asText("-"),
+                    resourcesAfter.path("peakPlatformThreads").asText("-"),
+                    resourcesBefore.path("peakHeapMb").asText("-"), resourcesAfter.path("peakHeapMb").asText("-"));
+
+            for (Iterator<Map.Entry<String, JsonNode>> invariants = scenario.getValue().path("invariants").fields();
+                    invariants.hasNext(); ) {
+                Map.Entry<String, JsonNode> invariant = invariants.next();
+                if (!invariant.getValue().path("holds").asBoolean()) {
+                    problems++;
+                    System.out.printf("%s: invariant %s does not hold (%s)%n", scenario.getKey(),
+                            invariant.getKey(), invariant.getValue().path("detail").asText());
+                }
+            }
+        }
+
+        if (problems > 0) {
+            System.out.printf("%d problem(s): failed invariants or p99 more than %.1f%% worse%n", problems,
+                    threshold);
+            System.exit(1);
+        }
+    }
+
+    private static double rate(JsonNode operation, double seconds) {
+        return seconds == 0 ? 0 : operation.path("count").asDouble() / seconds;
+    }
+}
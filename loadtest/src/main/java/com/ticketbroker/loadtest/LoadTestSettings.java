@@ -0,0 +1,63 @@
+package com.ticketbroker.loadtest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Load test knobs, read from system properties (mvn verify -Dloadtest.concurrency=64 ...):
+ * <ul>
+ *   <li>loadtest.scenarios: comma separated scenario names, default all</li>
+ *   <li>loadtest.concurrency: client threads, default 32</li>
+ *   <li>loadtest.scale: multiplier for every scenario's request and data counts, default 1</li>
+ *   <li>loadtest.seed: seed for request mixes and ticket counts, default 42</li>
+ *   <li>loadtest.label: report name, default the current git commit</li>
+ *   <li>loadtest.results: report directory, default results</li>
+ * </ul>
+ */
+public record LoadTestSettings(Set<String> scenarios, int concurrency, double scale, long seed, String label,
+                               Path resultsDirectory) {
+
+    public static LoadTestSettings fromSystemProperties() {
+        String scenarios = System.getProperty("loadtest.scenarios", "");
+        return new LoadTestSettings(
+                scenarios.isBlank() ? Set.of() : new LinkedHashSet<>(Arrays.asList(scenarios.split("\\s*,\\s*"))),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Double.parseDouble(System.getProperty("loadtest.scale", "1")),
+                Long.getLong("loadtest.seed", 42L),
+                System.getProperty("loadtest.label", defaultLabel()),
+                Path.of(System.getProperty("loadtest.results", "results")));
+    }
+
+    public boolean runs(String scenario) {
+        return scenarios.isEmpty() || scenarios.contains(scenario);
+    }
+
+    public int scaled(int count) {
+        return Math.max(1, (int) Math.round(count * scale));
+    }
+
+    private static String defaultLabel() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(git.getInputStream(), StandardCharsets.UTF_8))) {
+                String commit = reader.readLine();
+                if (git.waitFor() == 0 && commit != null && !commit.isBlank()) {
+                    return commit.trim();
+                }
+            }
+        } catch (Exception e) {
+            // Not a git checkout or git not installed
+        }
+        return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    }
+}
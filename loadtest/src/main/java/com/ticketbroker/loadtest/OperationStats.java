@@ -0,0 +1,43 @@
+package com.ticketbroker.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies (microseconds, 3 significant digits) and HTTP status counts of one operation, e.g.
+ * "POST /api/public/bookings". Safe to record from many client threads.
+ */
+public final class OperationStats {
+    // Anything slower than a minute is clamped rather than lost
+    private static final long MAX_MICROS = 60_000_000L;
+
+    private final Histogram latencies = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    void record(int status, long nanos) {
+        latencies.recordValue(Math.min(MAX_MICROS, Math.max(1, nanos / 1_000)));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+    }
+
+    public long getCount() {
+        return latencies.getTotalCount();
+    }
+
+    public Histogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Response count per HTTP status; 0 stands for requests that failed without a response.
+     */
+    public Map<Integer, Long> getStatuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
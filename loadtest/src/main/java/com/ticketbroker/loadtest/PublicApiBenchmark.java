@@ -0,0 +1,137 @@
+package com.ticketbroker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives the public read and door endpoints of a running deployment, so the MVC backend and the reactive node
+ * can be measured with the same workload and compared with LoadReportComparison:
+ * <ul>
+ *   <li>public-reads: show list, availability and booking lookups by reference and e-mail</li>
+ *   <li>door-scan: unused tickets scanned once each, a tenth of them twice</li>
+ * </ul>
+ * Test data is read through the backend's admin API (loadtest.admin-url, loadtest.admin-password), so load a
+ * synthetic dataset first; nothing is booked and no mail is sent. Door scans use up tickets, so every run picks
+ * tickets that are still unused. Besides the {@link LoadTestSettings} knobs, loadtest.target is the base URL
+ * under test (default http://localhost:8080).
+ *
+ * <pre>mvn -q exec:java -Dexec.mainClass=com.ticketbroker.loadtest.PublicApiBenchmark \
+ *   -Dloadtest.target=http://localhost:8081 -Dloadtest.concurrency=2000 -Dloadtest.label=reactive</pre>
+ */
+public final class PublicApiBenchmark {
+    private static final String VALIDATE = "POST /api/public/tickets/validate";
+
+    private PublicApiBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        String adminUrl = System.getProperty("loadtest.admin-url", "http://localhost:8080");
+        String adminPassword = System.getProperty("loadtest.admin-password", "changeme");
+        ApiClient admin = new ApiClient(adminUrl, "admin", adminPassword);
+        ApiClient target = new ApiClient(System.getProperty("loadtest.target", "http://localhost:8080"), "admin",
+                adminPassword);
+        LoadDriver driver = new LoadDriver(settings.concurrency());
+
+        LoadReport report = new LoadReport(settings);
+        report.describeRun("target", System.getProperty("loadtest.target", "http://localhost:8080"));
+        if (settings.runs("public-reads")) {
+            publicReads(report.scenario("public-reads"), settings, adminUrl, admin, target, driver);
+        }
+        if (settings.runs("door-scan")) {
+            doorScan(report.scenario("door-scan"), settings, admin, target, driver);
+        }
+
+        Path file = report.write();
+        report.print(System.out);
+        System.out.println("Benchmark report written to " + file.toAbsolutePath());
+        if (!report.violations().isEmpty()) {
+            report.violations().forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    private static void publicReads(ScenarioResult result, LoadTestSettings settings, String adminUrl,
+                                    ApiClient admin, ApiClient target, LoadDriver driver) {
+        List<Long> showIds = new ArrayList<>();
+        admin.get(null, null, "/api/public/shows").json().forEach(show -> showIds.add(show.path("id").asLong()));
+        List<String> bookingPaths = new ArrayList<>();
+        for (JsonNode booking : admin.adminGet(null, null, "/api/admin/bookings").json()) {
+            bookingPaths.add("/api/public/bookings/" + booking.path("bookingReference").asText() + "?email="
+                    + URLEncoder.encode(booking.path("email").asText(), StandardCharsets.UTF_8));
+        }
+        if (showIds.isEmpty() || bookingPaths.isEmpty()) {
+            throw new IllegalStateException("No shows or bookings found at " + adminUrl + "; load a dataset first");
+        }
+
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        int requests = settings.scaled(20000);
+        List<Runnable> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            double pick = random.nextDouble();
+            if (pick < 0.3) {
+                calls.add(() -> target.get(result, "GET /api/public/shows", "/api/public/shows"));
+            } else if (pick < 0.7) {
+                String path = "/api/public/shows/" + showIds.get(random.nextInt(showIds.size())) + "/availability";
+                calls.add(() -> target.get(result, "GET /api/public/shows/{id}/availability", path));
+            } else {
+                String path = bookingPaths.get(random.nextInt(bookingPaths.size()));
+                calls.add(() -> target.get(result, "GET /api/public/bookings/{reference}", path));
+            }
+        }
+
+        driver.rush(result, calls);
+
+        result.invariant("all-requests-succeeded", result.responsesOtherThan(200) == 0,
+                result.responsesOtherThan(200) + " requests without a 200 response");
+    }
+
+    private static void doorScan(ScenarioResult result, LoadTestSettings settings, ApiClient admin,
+                                 ApiClient target, LoadDriver driver) {
+        List<String> unused = new ArrayList<>();
+        admin.adminGet(null, null, "/api/admin/tickets?used=unused").json()
+                .forEach(ticket -> unused.add(ticket.path("ticketReference").asText()));
+        Collections.shuffle(unused, new Random(settings.seed()));
+        List<String> tickets = unused.subList(0, Math.min(unused.size(), settings.scaled(5000)));
+        if (tickets.isEmpty()) {
+            throw new IllegalStateException("No unused tickets left; load a fresh dataset");
+        }
+
+        List<String> scans = new ArrayList<>(tickets);
+        scans.addAll(tickets.subList(0, tickets.size() / 10));
+        Collections.shuffle(scans, new Random(settings.seed()));
+        Map<String, AtomicInteger> admissions = new ConcurrentHashMap<>();
+        List<Runnable> calls = new ArrayList<>(scans.size());
+        for (String reference : scans) {
+            Map<String, Object> body = Map.of("ticketReference", reference);
+            calls.add(() -> {
+                ApiClient.Response response = target.post(result, VALIDATE, "/api/public/tickets/validate", body);
+                if (response.status() == 200 && response.json().path("valid").asBoolean()) {
+                    admissions.computeIfAbsent(reference, r -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+        }
+
+        driver.rush(result, calls);
+
+        long admittedTwice = admissions.values().stream().filter(count -> count.get() > 1).count();
+        result.invariant("no-double-admission", admittedTwice == 0,
+                admittedTwice + " tickets admitted more than once");
+        result.invariant("every-ticket-admitted", admissions.size() == tickets.size(),
+                admissions.size() + " of " + tickets.size() + " tickets admitted");
+        result.invariant("all-scans-answered", result.responsesOtherThan(200) == 0,
+                result.responsesOtherThan(200) + " scans without a 200 response");
+    }
+}
@@ -0,0 +1,103 @@
+package com.ticketbroker.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What one scenario measured: per-operation latencies and statuses, the wall time of its measured phase and
+ * the correctness invariants checked afterwards.
+ */
+public final class ScenarioResult {
+    public record Invariant(boolean holds, String detail) {
+    }
+
+    private final String name;
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final Map<String, Invariant> invariants = new LinkedHashMap<>();
+    private long wallNanos;
+    private int peakThreads;
+    private long peakHeapBytes;
+    private long gcCount;
+    private long gcMillis;
+
+    ScenarioResult(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public OperationStats operation(String operation) {
+        return operations.computeIfAbsent(operation, o -> new OperationStats());
+    }
+
+    public Map<String, OperationStats> getOperations() {
+        return operations;
+    }
+
+    public long getRequests() {
+        return operations.values().stream().mapToLong(OperationStats::getCount).sum();
+    }
+
+    /**
+     * Responses of all operations with a status other than the expected one, including failed connections (0).
+     */
+    public long responsesOtherThan(int expectedStatus) {
+        return operations.values().stream()
+                .flatMap(operation -> operation.getStatuses().entrySet().stream())
+                .filter(status -> status.getKey() != expectedStatus)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    void addWallNanos(long nanos) {
+        wallNanos += nanos;
+    }
+
+    void addResources(int peakThreads, long peakHeapBytes, long gcCount, long gcMillis) {
+        this.peakThreads = Math.max(this.peakThreads, peakThreads);
+        this.peakHeapBytes = Math.max(this.peakHeapBytes, peakHeapBytes);
+        this.gcCount += gcCount;
+        this.gcMillis += gcMillis;
+    }
+
+    /**
+     * Highest number of live platform threads while the scenario ran; virtual threads are not included.
+     */
+    public int getPeakThreads() {
+        return peakThreads;
+    }
+
+    /**
+     * Sum of the peak usage of every heap pool while the scenario ran.
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public double getThroughputPerSecond() {
+        return wallNanos == 0 ? 0 : getRequests() * 1e9 / wallNanos;
+    }
+
+    public void invariant(String name, boolean holds, String detail) {
+        invariants.put(name, new Invariant(holds, detail));
+    }
+
+    public Map<String, Invariant> getInvariants() {
+        return invariants;
+    }
+}
@@ -0,0 +1,361 @@
+package com.ticketbroker.loadtest;
+
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase;
+import io.zonky.test.db.AutoConfigureEmbeddedDatabase.DatabaseProvider;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the real HTTP stack (Tomcat, security, filters, MVC, JPA, PostgreSQL) with concurrent clients and
+ * checks that the results stay correct under contention. Scenarios, in order:
+ * <ul>
+ *   <li>on-sale-rush: more buyers than seats book one show at the same instant</li>
+ *   <li>booking-burst: 2000 buyers, one client each, book a show with room for all of them; run it once with
+ *   {@code -Dspring.threads.virtual.enabled=true} and once without to compare the two thread modes</li>
+ *   <li>door-rush: every ticket of a show is scanned twice, concurrently, as when two doors see one QR code</li>
+ *   <li>lost-ticket-resend: buyers ask for their tickets again (PDF and mail per confirmed booking)</li>
+ *   <li>admin-browsing: a mix of the admin listings and booking details</li>
+ * </ul>
+ * Run with {@code mvn verify} in this module; see {@link LoadTestSettings} for the knobs. The report is written
+ * before the invariants are asserted, so a failing run still leaves its numbers behind.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.security.user.password=" + EndToEndLoadTest.ADMIN_PASSWORD,
+        "app.ticket-signing.enabled=false",
+        // The mock JavaMailSender replaces the JavaMailSenderImpl the mail health check needs
+        "management.health.mail.enabled=false",
+        "logging.level.com.ticketbroker=WARN",
+        // application.properties logs Spring Security at DEBUG, several lines per request, which skews latencies
+        "logging.level.org.springframework.security=WARN"
+})
+@ActiveProfiles("test")
+@AutoConfigureEmbeddedDatabase(provider = DatabaseProvider.ZONKY)
+class EndToEndLoadTest {
+    static final String ADMIN_PASSWORD = "loadtest";
+
+    private static final String BOOK = "POST /api/public/bookings";
+    private static final String VALIDATE = "POST /api/public/tickets/validate";
+    private static final String LOST_TICKETS = "POST /api/public/lost-tickets";
+
+    @TempDir
+    static Path auditStoreDirectory;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Environment environment;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    private final AtomicInteger mailsSent = new AtomicInteger();
+    private final AtomicInteger phoneNumbers = new AtomicInteger();
+    private LoadTestSettings settings;
+    private ApiClient client;
+    private LoadDriver driver;
+
+    @DynamicPropertySource
+    static void auditStoreProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.audit-store.directory", () -> auditStoreDirectory.toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        doAnswer(invocation -> mailsSent.incrementAndGet()).when(mailSender).send(any(MimeMessage.class));
+        settings = LoadTestSettings.fromSystemProperties();
+        client = new ApiClient(port, "admin", ADMIN_PASSWORD);
+        driver = new LoadDriver(settings.concurrency());
+    }
+
+    @Test
+    void scenarios_ShouldKeepInvariantsUnderLoad() throws Exception {
+        LoadReport report = new LoadReport(settings);
+        report.describeRun("virtualThreads", environment.getProperty("spring.threads.virtual.enabled",
+                Boolean.class, false));
+        if (settings.runs("on-sale-rush")) {
+            onSaleRush(report.scenario("on-sale-rush"));
+        }
+        if (settings.runs("booking-burst")) {
+            bookingBurst(report.scenario("booking-burst"));
+        }
+        if (settings.runs("door-rush")) {
+            doorRush(report.scenario("door-rush"));
+        }
+        if (settings.runs("lost-ticket-resend")) {
+            lostTicketResend(report.scenario("lost-ticket-resend"));
+        }
+        if (settings.runs("admin-browsing")) {
+            adminBrowsing(report.scenario("admin-browsing"));
+        }
+
+        Path file = report.write();
+        report.print(System.out);
+        System.out.println("Load test report written to " + file.toAbsolutePath());
+
+        assertThat(report.violations()).isEmpty();
+    }
+
+    private void onSaleRush(ScenarioResult result) {
+        // Given: about twice as many tickets requested as there are seats
+        int capacity = settings.scaled(1000);
+        long showId = createShow(capacity);
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        int requests = settings.scaled(800);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        Set<String> references = ConcurrentHashMap.newKeySet();
+        List<Runnable> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int tickets = 1 + random.nextInt(4);
+            int students = random.nextInt(tickets + 1);
+            Map<String, Object> body = bookingRequest(showId, "rush" + i + "@example.com", tickets - students,
+                    students);
+            calls.add(() -> {
+                ApiClient.Response response = client.post(result, BOOK, "/api/public/bookings", body);
+                if (response.status() == 201) {
+                    sold.addAndGet(tickets);
+                    created.incrementAndGet();
+                    references.add(response.json().path("bookingReference").asText());
+                }
+            });
+        }
+
+        // When
+        driver.rush(result, calls);
+
+        // Then
+        int available = client.get(null, null, "/api/public/shows/" + showId + "/availability")
+                .json().path("available").asInt();
+        int booked = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(adult_tickets + student_tickets), 0) FROM bookings WHERE show_id = ?",
+                Integer.class, showId);
+        int rejected = requests - created.get();
+        result.invariant("no-overselling", booked <= capacity,
+                booked + " of " + capacity + " tickets booked");
+        result.invariant("bookings-match-responses", booked == sold.get(),
+                booked + " tickets in the database, " + sold + " confirmed to clients");
+        result.invariant("availability-matches-bookings", available == capacity - booked,
+                available + " available, " + (capacity - booked) + " expected");
+        // A booking is only refused when fewer seats are left than it asks for, i.e. at most 3
+        result.invariant("no-refusal-while-seats-left", rejected == 0 || available < 4,
+                rejected + " bookings refused with " + available + " seats left");
+        result.invariant("unique-booking-references", references.size() == created.get(),
+                references.size() + " references for " + created + " bookings");
+    }
+
+    private void bookingBurst(ScenarioResult result) {
+        // Given: one client per buyer, all waiting on the server at once, and a seat for each of them
+        int requests = settings.scaled(2000);
+        long showId = createShow(requests);
+        AtomicInteger created = new AtomicInteger();
+        List<Runnable> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            Map<String, Object> body = bookingRequest(showId, "burst" + i + "@example.com", 1, 0);
+            calls.add(() -> {
+                if (client.post(result, BOOK, "/api/public/bookings", body).status() == 201) {
+                    created.incrementAndGet();
+                }
+            });
+        }
+
+        // When
+        driver.rush(result, calls, requests);
+
+        // Then
+        int booked = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings WHERE show_id = ?", Integer.class, showId);
+        result.invariant("all-bookings-created", result.responsesOtherThan(201) == 0,
+                result.responsesOtherThan(201) + " requests without a 201 response");
+        result.invariant("bookings-match-responses", booked == created.get(),
+                booked + " bookings in the database, " + created + " confirmed to clients");
+    }
+
+    private void doorRush(ScenarioResult result) {
+        // Given: a sold out show with confirmed tickets
+        int bookings = settings.scaled(250);
+        long showId = createShow(bookings * 2);
+        for (int i = 0; i < bookings; i++) {
+            confirm(book(showId, "door" + i + "@example.com", 2, 0));
+        }
+        List<String> tickets = jdbcTemplate.queryForList(
+                "SELECT ticket_reference FROM tickets WHERE show_id = ? ORDER BY id", String.class, showId);
+        List<String> scans = new ArrayList<>(tickets);
+        scans.addAll(tickets);
+        Collections.shuffle(scans, new Random(settings.seed()));
+        Map<String, AtomicInteger> admissions = new ConcurrentHashMap<>();
+        List<Runnable> calls = new ArrayList<>(scans.size());
+        for (String reference : scans) {
+            Map<String, Object> body = Map.of("ticketReference", reference, "showId", showId);
+            calls.add(() -> {
+                ApiClient.Response response = client.post(result, VALIDATE, "/api/public/tickets/validate", body);
+                if (response.status() == 200 && response.json().path("valid").asBoolean()) {
+                    admissions.computeIfAbsent(reference, r -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+        }
+
+        // When
+        driver.rush(result, calls);
+
+        // Then
+        long admittedTwice = admissions.values().stream().filter(count -> count.get() > 1).count();
+        int used = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tickets WHERE show_id = ? AND is_used", Integer.class, showId);
+        result.invariant("no-double-admission", admittedTwice == 0,
+                admittedTwice + " tickets admitted more than once");
+        result.invariant("every-ticket-admitted", admissions.size() == tickets.size(),
+                admissions.size() + " of " + tickets.size() + " tickets admitted");
+        result.invariant("used-tickets-match-admissions", used == admissions.size(),
+                used + " tickets marked used, " + admissions.size() + " admitted");
+        result.invariant("all-scans-answered", result.responsesOtherThan(200) == 0,
+                result.responsesOtherThan(200) + " scans without a 200 response");
+    }
+
+    private void lostTicketResend(ScenarioResult result) {
+        // Given: buyers with one or two confirmed bookings, some also with an unpaid one
+        int buyers = settings.scaled(100);
+        long showId = createShow(buyers * 6);
+        int confirmedBookings = 0;
+        for (int i = 0; i < buyers; i++) {
+            String email = "lost" + i + "@example.com";
+            for (int b = 0; b <= i % 2; b++) {
+                confirm(book(showId, email, 1, 1));
+                confirmedBookings++;
+            }
+            if (i % 3 == 0) {
+                book(showId, email, 2, 0);
+            }
+        }
+        List<Runnable> calls = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            String path = "/api/public/lost-tickets?email=lost" + i + "@example.com";
+            calls.add(() -> client.post(result, LOST_TICKETS, path, null));
+        }
+        // Unknown addresses get the same answer and no mail
+        for (int i = 0; i < Math.max(1, buyers / 10); i++) {
+            String path = "/api/public/lost-tickets?email=unknown" + i + "@example.com";
+            calls.add(() -> client.post(result, LOST_TICKETS, path, null));
+        }
+        Collections.shuffle(calls, new Random(settings.seed()));
+        mailsSent.set(0);
+
+        // When
+        driver.rush(result, calls);
+
+        // Then
+        result.invariant("all-requests-answered", result.responsesOtherThan(200) == 0,
+                result.responsesOtherThan(200) + " requests without a 200 response");
+        result.invariant("one-mail-per-confirmed-booking", mailsSent.get() == confirmedBookings,
+                mailsSent + " mails sent for " + confirmedBookings + " confirmed bookings");
+    }
+
+    private void adminBrowsing(ScenarioResult result) {
+        // Given: a show with reserved and confirmed bookings, on top of what earlier scenarios created
+        int bookings = settings.scaled(200);
+        long showId = createShow(bookings * 3);
+        List<Long> bookingIds = new ArrayList<>(bookings);
+        for (int i = 0; i < bookings; i++) {
+            long id = book(showId, "admin" + i + "@example.com", 1 + i % 3, 0);
+            if (i % 2 == 0) {
+                confirm(id);
+            }
+            bookingIds.add(id);
+        }
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        int requests = settings.scaled(400);
+        List<Runnable> calls = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            double pick = random.nextDouble();
+            if (pick < 0.4) {
+                String path = "/api/admin/bookings/" + bookingIds.get(random.nextInt(bookingIds.size()));
+                calls.add(() -> client.adminGet(result, "GET /api/admin/bookings/{id}", path));
+            } else if (pick < 0.7) {
+                calls.add(() -> client.adminGet(result, "GET /api/admin/shows", "/api/admin/shows"));
+            } else if (pick < 0.9) {
+                calls.add(() -> client.adminGet(result, "GET /api/admin/bookings", "/api/admin/bookings"));
+            } else {
+                String path = "/api/admin/tickets?showId=" + showId;
+                calls.add(() -> client.adminGet(result, "GET /api/admin/tickets?showId", path));
+            }
+        }
+
+        // When
+        driver.rush(result, calls);
+
+        // Then
+        result.invariant("all-requests-succeeded", result.responsesOtherThan(200) == 0,
+                result.responsesOtherThan(200) + " requests without a 200 response");
+    }
+
+    private long createShow(int totalTickets) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("date", LocalDate.now().plusDays(30).toString());
+        body.put("startTime", "19:00");
+        body.put("endTime", "21:00");
+        body.put("totalTickets", totalTickets);
+        ApiClient.Response response = client.adminPost(null, null, "/api/admin/shows", body);
+        assertThat(response.status()).as("create show").isEqualTo(201);
+        return response.json().path("id").asLong();
+    }
+
+    private Map<String, Object> bookingRequest(long showId, String email, int adults, int students) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("showId", showId);
+        body.put("firstName", "Last");
+        body.put("lastName", "Test");
+        body.put("email", email);
+        body.put("phone", String.format("07%08d", phoneNumbers.incrementAndGet()));
+        body.put("adultTickets", adults);
+        body.put("studentTickets", students);
+        return body;
+    }
+
+    private long book(long showId, String email, int adults, int students) {
+        ApiClient.Response response = client.post(null, null, "/api/public/bookings",
+                bookingRequest(showId, email, adults, students));
+        assertThat(response.status()).as("create booking").isEqualTo(201);
+        return response.json().path("id").asLong();
+    }
+
+    private void confirm(long bookingId) {
+        ApiClient.Response response = client.adminPost(null, null,
+                "/api/admin/bookings/" + bookingId + "/confirm-payment", null);
+        assertThat(response.status()).as("confirm booking").isEqualTo(200);
+    }
+}
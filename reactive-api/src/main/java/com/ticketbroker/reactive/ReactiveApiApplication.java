@@ -0,0 +1,19 @@
+package com.ticketbroker.reactive;
+
+import com.ticketbroker.util.TicketPayloadSigner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * WebFlux/R2DBC node for the public read and ticket validation endpoints. Runs next to the MVC backend on its
+ * own port, against the same database and schema (migrated by the backend's Flyway scripts), so door and
+ * on-sale spikes can be served without one thread per open connection.
+ */
+@SpringBootApplication
+@Import(TicketPayloadSigner.class)
+public class ReactiveApiApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveApiApplication.class, args);
+    }
+}
@@ -0,0 +1,165 @@
+package com.ticketbroker.reactive.controller;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ticketbroker.dto.BookingResponse;
+import com.ticketbroker.dto.ShowResponse;
+import com.ticketbroker.dto.TicketValidationRequest;
+import com.ticketbroker.reactive.repository.BookingRepository;
+import com.ticketbroker.reactive.repository.ShowRepository;
+import com.ticketbroker.reactive.repository.TicketRepository;
+import com.ticketbroker.reactive.repository.TicketRepository.DoorTicket;
+import com.ticketbroker.reactive.service.AuditService;
+import com.ticketbroker.util.TicketPayloadSigner;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive versions of the read and door endpoints of the backend's PublicApiController, with the same paths,
+ * responses and error behaviour. Everything else (bookings, payments, mail) stays on the MVC backend.
+ */
+@RestController
+@RequestMapping("/api/public")
+@CrossOrigin(origins = "*")
+public class ReactivePublicApiController {
+    private static final String DOOR_CHECKER = "Door validation";
+
+    private final ShowRepository showRepository;
+    private final BookingRepository bookingRepository;
+    private final TicketRepository ticketRepository;
+    private final AuditService auditService;
+    private final TicketPayloadSigner ticketPayloadSigner;
+
+    public ReactivePublicApiController(ShowRepository showRepository, BookingRepository bookingRepository,
+            TicketRepository ticketRepository, AuditService auditService,
+            TicketPayloadSigner ticketPayloadSigner) {
+        this.showRepository = showRepository;
+        this.bookingRepository = bookingRepository;
+        this.ticketRepository = ticketRepository;
+        this.auditService = auditService;
+        this.ticketPayloadSigner = ticketPayloadSigner;
+    }
+
+    @GetMapping("/shows")
+    public Flux<ShowResponse> getShows() {
+        return showRepository.findAllByOrderByDateAscStartTimeAsc();
+    }
+
+    @GetMapping("/shows/{id}/availability")
+    public Mono<Map<String, Object>> checkAvailability(@PathVariable Long id) {
+        return showRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Show not found")))
+                .map(show -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("available", show.getAvailableTickets());
+                    response.put("total", show.getTotalTickets());
+                    response.put("soldOut", show.getAvailableTickets() <= 0);
+                    return response;
+                });
+    }
+
+    @GetMapping("/bookings/{reference}")
+    public Mono<BookingResponse> getBooking(@PathVariable String reference,
+            @RequestParam(required = false) String email) {
+        Mono<BookingResponse> booking = email != null
+                ? bookingRepository.findByBookingReferenceAndEmail(reference, email)
+                : bookingRepository.findByBookingReference(reference);
+        return booking.switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Booking not found")));
+    }
+
+    @PostMapping("/tickets/validate")
+    public Mono<Map<String, Object>> validateTicket(@Valid @RequestBody TicketValidationRequest request) {
+        Map<String, Object> response = new HashMap<>();
+
+        // Signed QR payloads are checked before touching the database
+        TicketPayloadSigner.DecodedPayload payload = ticketPayloadSigner.decode(request.getTicketReference());
+        if (!payload.authentic()) {
+            response.put("valid", false);
+            response.put("message", "Ogiltig biljett");
+            response.put("status", payload.signed() ? "forged" : "unsigned");
+            response.put("ticketReference", payload.ticketReference());
+            return Mono.just(response);
+        }
+        if (payload.signed() && request.getShowId() != null && !request.getShowId().equals(payload.showId())) {
+            response.put("valid", false);
+            response.put("message", "Biljett för fel föreställning");
+            response.put("status", "wrong_show");
+            response.put("ticketReference", payload.ticketReference());
+            response.put("ticketShowId", payload.showId());
+            response.put("validationShowId", request.getShowId());
+            return Mono.just(response);
+        }
+
+        return ticketRepository.findByTicketReference(payload.ticketReference())
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Ticket not found")))
+                .flatMap(ticket -> admit(ticket, request.getShowId(), response));
+    }
+
+    private Mono<Map<String, Object>> admit(DoorTicket ticket, Long showId, Map<String, Object> response) {
+        if (ticket.used()) {
+            return Mono.just(alreadyUsed(ticket, ticket.usedAt(), response));
+        }
+
+        if (!"confirmed".equalsIgnoreCase(ticket.bookingStatus())) {
+            response.put("valid", false);
+            response.put("message", "Biljett inte bekräftad");
+            response.put("status", "unconfirmed");
+            response.put("ticketReference", ticket.ticketReference());
+            response.put("bookingStatus", ticket.bookingStatus() != null ? ticket.bookingStatus().toLowerCase() : null);
+            return Mono.just(response);
+        }
+
+        if (showId != null && !showId.equals(ticket.showId())) {
+            response.put("valid", false);
+            response.put("message", "Biljett för fel föreställning");
+            response.put("status", "wrong_show");
+            response.put("ticketReference", ticket.ticketReference());
+            response.put("ticketShowId", ticket.showId());
+            response.put("validationShowId", showId);
+            return Mono.just(response);
+        }
+
+        LocalDateTime usedAt = LocalDateTime.now();
+        return ticketRepository.markUsed(ticket.id(), usedAt, DOOR_CHECKER).map(admitted -> {
+            if (!admitted) {
+                // Admitted at another door between the read and the update
+                return alreadyUsed(ticket, null, response);
+            }
+            auditService.logTicketUsed(ticket.id(), ticket.ticketReference(), usedAt, DOOR_CHECKER);
+
+            response.put("valid", true);
+            response.put("message", "Biljett godkänd - välkommen in!");
+            response.put("status", "success");
+            response.put("ticketReference", ticket.ticketReference());
+            response.put("ticketType", "normal".equals(ticket.ticketType()) ? "Ordinarie" : "Student");
+            response.put("bookingReference", ticket.bookingReference());
+            response.put("usedAt", usedAt.toString());
+            return response;
+        });
+    }
+
+    private static Map<String, Object> alreadyUsed(DoorTicket ticket, LocalDateTime usedAt,
+            Map<String, Object> response) {
+        response.put("valid", false);
+        response.put("message", "Biljett redan använd");
+        response.put("status", "used");
+        response.put("ticketReference", ticket.ticketReference());
+        if (usedAt != null) {
+            response.put("usedAt", usedAt.toString());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,63 @@
+package com.ticketbroker.reactive.repository;
+
+import com.ticketbroker.dto.BookingResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Bookings are read together with their show in one statement, already shaped as the API response.
+ */
+@Repository
+public class BookingRepository {
+    private static final String SELECT = "SELECT b.id AS booking_id, b.booking_reference, b.first_name, b.last_name, "
+            + "b.email, b.phone, b.adult_tickets, b.student_tickets, b.total_amount, b.status, "
+            + "b.buyer_confirmed_payment, b.swish_payment_initiated, b.swish_payment_initiated_at, b.created_at, "
+            + "b.confirmed_at, " + ShowRepository.COLUMNS + " FROM bookings b JOIN shows s ON s.id = b.show_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public BookingRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<BookingResponse> findByBookingReference(String bookingReference) {
+        return databaseClient.sql(SELECT + "WHERE b.booking_reference = :reference")
+                .bind("reference", bookingReference)
+                .map(BookingRepository::toBooking)
+                .one();
+    }
+
+    public Mono<BookingResponse> findByBookingReferenceAndEmail(String bookingReference, String email) {
+        return databaseClient.sql(SELECT + "WHERE b.booking_reference = :reference AND b.email = :email")
+                .bind("reference", bookingReference)
+                .bind("email", email)
+                .map(BookingRepository::toBooking)
+                .one();
+    }
+
+    private static BookingResponse toBooking(Readable row) {
+        BookingResponse booking = new BookingResponse();
+        booking.setId(row.get("booking_id", Long.class));
+        booking.setBookingReference(row.get("booking_reference", String.class));
+        booking.setFirstName(row.get("first_name", String.class));
+        booking.setLastName(row.get("last_name", String.class));
+        booking.setEmail(row.get("email", String.class));
+        booking.setPhone(row.get("phone", String.class));
+        booking.setAdultTickets(row.get("adult_tickets", Integer.class));
+        booking.setStudentTickets(row.get("student_tickets", Integer.class));
+        booking.setTotalAmount(row.get("total_amount", Integer.class));
+        String status = row.get("status", String.class);
+        booking.setStatus(status != null ? status.toLowerCase() : null);
+        booking.setBuyerConfirmedPayment(row.get("buyer_confirmed_payment", Boolean.class));
+        booking.setSwishPaymentInitiated(row.get("swish_payment_initiated", Boolean.class));
+        booking.setSwishPaymentInitiatedAt(row.get("swish_payment_initiated_at", LocalDateTime.class));
+        booking.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        booking.setConfirmedAt(row.get("confirmed_at", LocalDateTime.class));
+        booking.setShow(ShowRepository.toShow(row, "id"));
+        return booking;
+    }
+}
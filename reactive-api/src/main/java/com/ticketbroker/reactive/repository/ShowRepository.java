@@ -0,0 +1,48 @@
+package com.ticketbroker.reactive.repository;
+
+import com.ticketbroker.dto.ShowResponse;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Repository
+public class ShowRepository {
+    static final String COLUMNS = "s.id, s.date, s.start_time, s.end_time, s.total_tickets, s.available_tickets, "
+            + "s.created_at AS show_created_at";
+
+    private final DatabaseClient databaseClient;
+
+    public ShowRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Flux<ShowResponse> findAllByOrderByDateAscStartTimeAsc() {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM shows s ORDER BY s.date, s.start_time")
+                .map(row -> toShow(row, "id"))
+                .all();
+    }
+
+    public Mono<ShowResponse> findById(Long id) {
+        return databaseClient.sql("SELECT " + COLUMNS + " FROM shows s WHERE s.id = :id")
+                .bind("id", id)
+                .map(row -> toShow(row, "id"))
+                .one();
+    }
+
+    static ShowResponse toShow(Readable row, String idColumn) {
+        ShowResponse show = new ShowResponse();
+        show.setId(row.get(idColumn, Long.class));
+        show.setDate(row.get("date", LocalDate.class));
+        show.setStartTime(row.get("start_time", String.class));
+        show.setEndTime(row.get("end_time", String.class));
+        show.setTotalTickets(row.get("total_tickets", Integer.class));
+        show.setAvailableTickets(row.get("available_tickets", Integer.class));
+        show.setCreatedAt(row.get("show_created_at", LocalDateTime.class));
+        return show;
+    }
+}
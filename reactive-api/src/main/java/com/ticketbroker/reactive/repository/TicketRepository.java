@@ -0,0 +1,54 @@
+package com.ticketbroker.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Repository
+public class TicketRepository {
+    private final DatabaseClient databaseClient;
+
+    public TicketRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * What the door check needs about a ticket and its booking.
+     */
+    public record DoorTicket(Long id, String ticketReference, Long showId, String ticketType, boolean used,
+                             LocalDateTime usedAt, String bookingStatus, String bookingReference) {
+    }
+
+    public Mono<DoorTicket> findByTicketReference(String ticketReference) {
+        return databaseClient.sql("SELECT t.id, t.ticket_reference, t.show_id, t.ticket_type, t.is_used, t.used_at, "
+                        + "b.status, b.booking_reference FROM tickets t JOIN bookings b ON b.id = t.booking_id "
+                        + "WHERE t.ticket_reference = :reference")
+                .bind("reference", ticketReference)
+                .map(row -> new DoorTicket(
+                        row.get("id", Long.class),
+                        row.get("ticket_reference", String.class),
+                        row.get("show_id", Long.class),
+                        row.get("ticket_type", String.class),
+                        Boolean.TRUE.equals(row.get("is_used", Boolean.class)),
+                        row.get("used_at", LocalDateTime.class),
+                        row.get("status", String.class),
+                        row.get("booking_reference", String.class)))
+                .one();
+    }
+
+    /**
+     * Same conditional update as the backend: emits false when another scanner admitted the ticket first.
+     */
+    public Mono<Boolean> markUsed(Long id, LocalDateTime usedAt, String checkedBy) {
+        return databaseClient.sql("UPDATE tickets SET is_used = TRUE, used_at = :usedAt, checked_by = :checkedBy "
+                        + "WHERE id = :id AND is_used = FALSE")
+                .bind("usedAt", usedAt)
+                .bind("checkedBy", checkedBy)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1);
+    }
+}
@@ -0,0 +1,255 @@
+package com.ticketbroker.reactive.controller;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the reactive endpoints against an embedded PostgreSQL migrated with the backend's Flyway scripts.
+ * Tests share the database, so each one creates its own show.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.ticket-signing.enabled=false"
+})
+class ReactivePublicApiControllerTest {
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final AtomicInteger sequence = new AtomicInteger();
+
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @DynamicPropertySource
+    static void databaseProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        Flyway.configure()
+                .dataSource(postgres.getPostgresDatabase())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+        registry.add("spring.r2dbc.username", () -> "postgres");
+        registry.add("spring.r2dbc.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        postgres.close();
+    }
+
+    @Test
+    void getShows_ShouldReturnShowsOrderedByDateAndStartTime() throws SQLException {
+        // Given
+        long late = createShow(LocalDate.now().plusDays(400), "20:00", 50, 10);
+        long early = createShow(LocalDate.now().plusDays(400), "18:00", 50, 50);
+
+        // When
+        List<Map<String, Object>> shows = webTestClient.get().uri("/api/public/shows")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(JSON_OBJECT)
+                .returnResult()
+                .getResponseBody();
+
+        // Then
+        List<Long> ids = shows.stream().map(show -> ((Number) show.get("id")).longValue()).toList();
+        assertThat(ids).containsSubsequence(early, late);
+        Map<String, Object> lateShow = shows.get(ids.indexOf(late));
+        assertThat(lateShow).containsEntry("startTime", "20:00")
+                .containsEntry("availableTickets", 10)
+                .containsEntry("date", LocalDate.now().plusDays(400).toString());
+    }
+
+    @Test
+    void checkAvailability_ShouldReturnCounts() throws SQLException {
+        // Given
+        long showId = createShow(LocalDate.now().plusDays(10), "19:00", 100, 0);
+
+        // When / Then
+        webTestClient.get().uri("/api/public/shows/{id}/availability", showId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.available").isEqualTo(0)
+                .jsonPath("$.total").isEqualTo(100)
+                .jsonPath("$.soldOut").isEqualTo(true);
+    }
+
+    @Test
+    void checkAvailability_ShouldFail_WhenShowDoesNotExist() {
+        // When / Then
+        webTestClient.get().uri("/api/public/shows/{id}/availability", Long.MAX_VALUE)
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    void getBooking_ShouldReturnBookingWithShow_WhenEmailMatches() throws SQLException {
+        // Given
+        long showId = createShow(LocalDate.now().plusDays(10), "19:00", 100, 98);
+        String reference = createBooking(showId, "reserved");
+
+        // When / Then
+        webTestClient.get()
+                .uri("/api/public/bookings/{reference}?email={email}", reference, reference + "@example.com")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.bookingReference").isEqualTo(reference)
+                .jsonPath("$.status").isEqualTo("reserved")
+                .jsonPath("$.adultTickets").isEqualTo(2)
+                .jsonPath("$.show.id").isEqualTo(showId)
+                .jsonPath("$.show.availableTickets").isEqualTo(98);
+        webTestClient.get().uri("/api/public/bookings/{reference}?email={email}", reference, "other@example.com")
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @Test
+    void validateTicket_ShouldAdmitOnce_WhenScannedConcurrently() throws SQLException {
+        // Given
+        long showId = createShow(LocalDate.now().plusDays(10), "19:00", 100, 98);
+        String ticketReference = createTicket(createBooking(showId, "confirmed"), showId);
+
+        WebClient client = WebClient.create("http://localhost:" + port);
+
+        // When: all scans in flight at once
+        List<Map<String, Object>> responses = Flux.range(0, 20)
+                .flatMap(i -> client.post().uri("/api/public/tickets/validate")
+                        .bodyValue(Map.of("ticketReference", ticketReference, "showId", showId))
+                        .retrieve()
+                        .bodyToMono(JSON_OBJECT), 20)
+                .collectList()
+                .block();
+
+        // Then
+        assertThat(responses).hasSize(20);
+        assertThat(responses).filteredOn(response -> Boolean.TRUE.equals(response.get("valid")))
+                .singleElement()
+                .satisfies(response -> assertThat(response).containsEntry("status", "success")
+                        .containsEntry("ticketType", "Ordinarie")
+                        .containsKey("usedAt"));
+        assertThat(responses).filteredOn(response -> "used".equals(response.get("status"))).hasSize(19);
+        assertThat(queryBoolean("SELECT is_used FROM tickets WHERE ticket_reference = ?", ticketReference))
+                .isTrue();
+    }
+
+    @Test
+    void validateTicket_ShouldReject_WhenBookingIsNotConfirmed() throws SQLException {
+        // Given
+        long showId = createShow(LocalDate.now().plusDays(10), "19:00", 100, 98);
+        String ticketReference = createTicket(createBooking(showId, "reserved"), showId);
+
+        // When / Then
+        webTestClient.post().uri("/api/public/tickets/validate")
+                .bodyValue(Map.of("ticketReference", ticketReference))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.valid").isEqualTo(false)
+                .jsonPath("$.status").isEqualTo("unconfirmed")
+                .jsonPath("$.bookingStatus").isEqualTo("reserved");
+        assertThat(queryBoolean("SELECT is_used FROM tickets WHERE ticket_reference = ?", ticketReference))
+                .isFalse();
+    }
+
+    @Test
+    void validateTicket_ShouldReject_WhenTicketIsForAnotherShow() throws SQLException {
+        // Given
+        long showId = createShow(LocalDate.now().plusDays(10), "19:00", 100, 98);
+        String ticketReference = createTicket(createBooking(showId, "confirmed"), showId);
+
+        // When / Then
+        webTestClient.post().uri("/api/public/tickets/validate")
+                .bodyValue(Map.of("ticketReference", ticketReference, "showId", showId + 1000))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("wrong_show")
+                .jsonPath("$.ticketShowId").isEqualTo(showId);
+    }
+
+    @Test
+    void validateTicket_ShouldReturnBadRequest_WhenReferenceIsBlank() {
+        // When / Then
+        webTestClient.post().uri("/api/public/tickets/validate")
+                .bodyValue(Map.of("ticketReference", " "))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static long createShow(LocalDate date, String startTime, int total, int available) throws SQLException {
+        return insert("INSERT INTO shows (date, start_time, end_time, total_tickets, available_tickets) "
+                + "VALUES (?, ?, '23:00', ?, ?) RETURNING id", date, startTime, total, available);
+    }
+
+    private static String createBooking(long showId, String status) throws SQLException {
+        String reference = "R" + sequence.incrementAndGet();
+        insert("INSERT INTO bookings (show_id, booking_reference, first_name, last_name, email, phone, adult_tickets, "
+                + "student_tickets, total_amount, status) VALUES (?, ?, 'Test', 'Buyer', ?, ?, 2, 0, 400, ?) "
+                + "RETURNING id", showId, reference, reference + "@example.com", reference, status);
+        return reference;
+    }
+
+    private static String createTicket(String bookingReference, long showId) throws SQLException {
+        String ticketReference = bookingReference + "-N01";
+        long buyerId = insert("INSERT INTO buyers (phone, first_name, last_name, email) "
+                + "VALUES (?, 'Test', 'Buyer', 'buyer@example.com') RETURNING id", bookingReference);
+        insert("INSERT INTO tickets (ticket_reference, booking_id, show_id, buyer_id, ticket_type, ticket_number) "
+                + "SELECT ?, id, ?, ?, 'normal', 1 FROM bookings WHERE booking_reference = ? RETURNING id",
+                ticketReference, showId, buyerId, bookingReference);
+        return ticketReference;
+    }
+
+    private static long insert(String sql, Object... parameters) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private static boolean queryBoolean(String sql, String parameter) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, parameter);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getBoolean(1);
+            }
+        }
+    }
+}